@@ -0,0 +1,350 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A BitboardMatcher is a {@link Matcher}, which finds runs of equal
+ * {@link Token Tokens} along a set of directions on bitplanes.
+ * <p>
+ * The board is stored as one bitplane per token, with the bit
+ * {@code y * columnCount + x} set for every field holding the token. A run of
+ * length 3 along a direction with the bit offset {@code s} starts at every bit
+ * of {@code plane & (plane >> s) & (plane >> 2s)}, so 64 fields are checked
+ * with one operation. The direction {@literal (1,0)} has the offset 1,
+ * {@literal (0,1)} the offset {@code columnCount} and diagonal directions
+ * the offsets in between.
+ * </p>
+ * <p>
+ * A match consists of all runs that are connected by shared fields. With the
+ * directions {@literal (1,0)} and {@literal (0,1)} the matches are the same as
+ * the matches of a {@link LineMatcher} with the same run length. The result is
+ * only converted to positions at the boundary of the {@link Matcher} interface,
+ * {@link BitboardMatcher#matchMask(Board)} stays in the bit domain.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public class BitboardMatcher implements Matcher {
+
+    /**
+     * The column offsets of the directions of the runs.
+     * <p>
+     *     A direction and its negation describe the same runs, so only one of
+     *     them is stored.
+     * </p>
+     */
+    private final int[] directionX;
+
+    /**
+     * The row offsets of the directions of the runs.
+     */
+    private final int[] directionY;
+
+    /**
+     * The minimum number of equal tokens in a run.
+     */
+    private final int runLength;
+
+    /**
+     * Creates a new {@link BitboardMatcher}.
+     *
+     * @param directions
+     *         the directions of the runs. Must not be empty or contain {@literal null} or {@literal "(0,0)"}.
+     * @param runLength
+     *         the minimum length of a run. Must be at least 2.
+     *
+     * @throws MatcherInitializationException
+     *         if the directions or the run length are invalid.
+     */
+    public BitboardMatcher(final Set<Delta> directions, final int runLength) throws MatcherInitializationException {
+        Objects.requireNonNull(directions, "Set of directions is null!");
+        if (directions.isEmpty()) {
+            throw new MatcherInitializationException("Set of directions contains no directions!");
+        }
+        if (directions.contains(null) || directions.contains(new Delta(0, 0))) {
+            throw new MatcherInitializationException("Set of directions contains invalid directions(null or (0,0))!");
+        }
+        if (runLength < 2) {
+            throw new MatcherInitializationException("Run length is smaller than 2!");
+        }
+        Set<Delta> canonical = new LinkedHashSet<>();
+        for (Delta direction : directions) {
+            boolean positive = direction.dy > 0 || (direction.dy == 0 && direction.dx > 0);
+            canonical.add(positive ? direction : direction.negate());
+        }
+        this.directionX = new int[canonical.size()];
+        this.directionY = new int[canonical.size()];
+        int i = 0;
+        for (Delta direction : canonical) {
+            this.directionX[i] = direction.dx;
+            this.directionY[i] = direction.dy;
+            i++;
+        }
+        this.runLength = runLength;
+    }
+
+    @Override
+    public Set<Set<Position>> match(final Board board, final Position initial) throws BoardDimensionException {
+        return matchAll(board, Collections.singleton(initial));
+    }
+
+    @Override
+    public Set<Set<Position>> matchAll(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        Objects.requireNonNull(board, "Board is null!");
+        Objects.requireNonNull(initial, "Set of initial positions is null!");
+        for (Position p : initial) {
+            if (!board.containsPosition(p)) {
+                throw new BoardDimensionException(String.format("the position \"%s\" isn't on the board!", p));
+            }
+        }
+        int columns = board.getColumnCount();
+        long[][] starts = runStarts(board);
+        long[] mask = cellsOf(starts, columns);
+        UnionFind runs = joinRuns(starts, columns, board.getRowCount());
+        Set<Integer> roots = new HashSet<>();
+        for (Position p : initial) {
+            int index = p.y * columns + p.x;
+            if ((mask[index >>> 6] & (1L << index)) != 0) {
+                roots.add(runs.find(index));
+            }
+        }
+        return toMatches(mask, runs, roots, columns);
+    }
+
+    @Override
+    public Set<Set<Position>> matchBoard(final Board board) {
+        Objects.requireNonNull(board, "Board is null!");
+        int columns = board.getColumnCount();
+        long[][] starts = runStarts(board);
+        return toMatches(cellsOf(starts, columns), joinRuns(starts, columns, board.getRowCount()), null, columns);
+    }
+
+    /**
+     * Returns the fields of the board that are part of a run.
+     * <p>
+     *     The bit {@code y * columnCount + x} of the result is set iff the field
+     *     {@code (x,y)} is part of a match.
+     * </p>
+     *
+     * @param board
+     *         the board to match on. Must not be {@code null}.
+     *
+     * @return the bitboard of all matched fields.
+     */
+    public long[] matchMask(final Board board) {
+        Objects.requireNonNull(board, "Board is null!");
+        return cellsOf(runStarts(board), board.getColumnCount());
+    }
+
+    /**
+     * Creates one bitplane per token of the board.
+     *
+     * @param board
+     *         the board to read.
+     *
+     * @return the bitplanes, the plane 0 holds the empty fields.
+     */
+    private static long[][] planes(final Board board) {
+        int[] ordinals = Boards.ordinals(board);
+        long[][] planes = new long[board.getAllValidTokens().size() + 1][(ordinals.length + 63) >>> 6];
+        for (int i = 0; i < ordinals.length; i++) {
+            planes[ordinals[i]][i >>> 6] |= 1L << i;
+        }
+        return planes;
+    }
+
+    /**
+     * Finds the first field of every run, per direction.
+     *
+     * @param board
+     *         the board to match on.
+     *
+     * @return the bitboard of the run starts for every direction.
+     */
+    private long[][] runStarts(final Board board) {
+        int columns = board.getColumnCount();
+        int rows = board.getRowCount();
+        long[][] planes = planes(board);
+        long[][] starts = new long[this.directionX.length][];
+        for (int d = 0; d < this.directionX.length; d++) {
+            long[] valid = validStarts(columns, rows, this.directionX[d], this.directionY[d]);
+            int step = this.directionY[d] * columns + this.directionX[d];
+            starts[d] = new long[valid.length];
+            for (int p = 1; p < planes.length; p++) {
+                for (int w = 0; w < valid.length; w++) {
+                    long run = valid[w] & planes[p][w];
+                    for (int j = 1; j < this.runLength && run != 0; j++) {
+                        run &= shifted(planes[p], w, j * step);
+                    }
+                    starts[d][w] |= run;
+                }
+            }
+        }
+        return starts;
+    }
+
+    /**
+     * Returns all fields that are covered by a run.
+     *
+     * @param starts
+     *         the run starts of every direction.
+     * @param columns
+     *         the number of columns of the board.
+     *
+     * @return the bitboard of all fields of all runs.
+     */
+    private long[] cellsOf(final long[][] starts, final int columns) {
+        long[] cells = new long[starts[0].length];
+        for (int d = 0; d < starts.length; d++) {
+            int step = this.directionY[d] * columns + this.directionX[d];
+            for (int w = 0; w < cells.length; w++) {
+                for (int j = 0; j < this.runLength; j++) {
+                    cells[w] |= shifted(starts[d], w, -j * step);
+                }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Joins the fields of every run in a {@link UnionFind}.
+     *
+     * @param starts
+     *         the run starts of every direction.
+     * @param columns
+     *         the number of columns of the board.
+     * @param rows
+     *         the number of rows of the board.
+     *
+     * @return the fields joined by runs.
+     */
+    private UnionFind joinRuns(final long[][] starts, final int columns, final int rows) {
+        UnionFind runs = new UnionFind(columns * rows);
+        for (int d = 0; d < starts.length; d++) {
+            int step = this.directionY[d] * columns + this.directionX[d];
+            for (int w = 0; w < starts[d].length; w++) {
+                for (long bits = starts[d][w]; bits != 0; bits &= bits - 1) {
+                    int index = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    for (int j = 1; j < this.runLength; j++) {
+                        runs.union(index, index + j * step);
+                    }
+                }
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Converts the matched fields to the result of the {@link Matcher} interface.
+     *
+     * @param mask
+     *         the bitboard of all matched fields.
+     * @param runs
+     *         the fields joined by runs.
+     * @param roots
+     *         the roots of the matches to return or {@code null} to return all matches.
+     * @param columns
+     *         the number of columns of the board.
+     *
+     * @return the matches.
+     */
+    private static Set<Set<Position>> toMatches(final long[] mask, final UnionFind runs, final Set<Integer> roots,
+                                                final int columns) {
+        Map<Integer, Set<Position>> matches = new HashMap<>();
+        for (int w = 0; w < mask.length; w++) {
+            for (long bits = mask[w]; bits != 0; bits &= bits - 1) {
+                int index = (w << 6) + Long.numberOfTrailingZeros(bits);
+                int root = runs.find(index);
+                if (roots == null || roots.contains(root)) {
+                    matches.computeIfAbsent(root, key -> new HashSet<>())
+                            .add(new Position(index % columns, index / columns));
+                }
+            }
+        }
+        return new HashSet<>(matches.values());
+    }
+
+    /**
+     * Returns the fields at which a run along the given direction can start
+     * without leaving the board.
+     *
+     * @param columns
+     *         the number of columns of the board.
+     * @param rows
+     *         the number of rows of the board.
+     * @param dx
+     *         the column offset of the direction.
+     * @param dy
+     *         the row offset of the direction.
+     *
+     * @return the bitboard of the valid starts.
+     */
+    private long[] validStarts(final int columns, final int rows, final int dx, final int dy) {
+        long[] valid = new long[(columns * rows + 63) >>> 6];
+        int span = this.runLength - 1;
+        int minX = Math.max(0, -span * dx);
+        int maxX = Math.min(columns - 1, columns - 1 - span * dx);
+        int minY = Math.max(0, -span * dy);
+        int maxY = Math.min(rows - 1, rows - 1 - span * dy);
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                int index = y * columns + x;
+                valid[index >>> 6] |= 1L << index;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Returns the word {@code w} of the bitboard shifted by {@code offset} bits,
+     * i.e. the bit {@code i} of the result is the bit {@code i + offset} of the
+     * bitboard. Bits outside of the bitboard are 0.
+     *
+     * @param bits
+     *         the bitboard.
+     * @param w
+     *         the index of the word.
+     * @param offset
+     *         the number of bits to shift, may be negative.
+     *
+     * @return the shifted word.
+     */
+    private static long shifted(final long[] bits, final int w, final int offset) {
+        int word = w + (offset >> 6);
+        int shift = offset & 63;
+        if (shift == 0) {
+            return wordAt(bits, word);
+        }
+        return (wordAt(bits, word) >>> shift) | (wordAt(bits, word + 1) << (64 - shift));
+    }
+
+    /**
+     * Returns a word of the bitboard or 0, if it's outside of the bitboard.
+     *
+     * @param bits
+     *         the bitboard.
+     * @param word
+     *         the index of the word.
+     *
+     * @return the word.
+     */
+    private static long wordAt(final long[] bits, final int word) {
+        return word >= 0 && word < bits.length ? bits[word] : 0L;
+    }
+}
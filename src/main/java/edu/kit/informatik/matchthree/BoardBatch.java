@@ -0,0 +1,422 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.CellFillingStrategy;
+import edu.kit.informatik.matchthree.framework.FillingStrategy;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.IllegalTokenException;
+import edu.kit.informatik.matchthree.framework.exceptions.NoFillingStrategyException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A batch of boards with the same dimensions and tokens.
+ * <p>
+ *     The fields of all boards are stored in a single array. The same field of
+ *     all boards is stored adjacent, so the field {@literal (x, y)} of the board
+ *     {@literal b} is stored at the index {@literal (y * columnCount + x) * boardCount + b}.
+ *     The batch operations {@link BoardBatch#moveTokensToBottom()},
+ *     {@link BoardBatch#fillWithTokens(CellFillingStrategy)} and
+ *     {@link BoardBatch#swapTokens(Position, Position)} work on all boards at once.
+ * </p>
+ * <p>
+ *     Every board of the batch can be used as a {@link Board} through {@link BoardBatch#getBoard(int)}.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public class BoardBatch {
+
+    /**
+     * Minimal amount of rows and columns a board has to have.
+     */
+    private static final int MIN_BOARD_SIZE = 2;
+
+    /**
+     * All allowed tokens on the boards.
+     */
+    private final Set<Token> boardTokens;
+
+    /**
+     * The ordinals of the allowed tokens on the boards.
+     */
+    private final TokenPalette palette;
+
+    /**
+     * The amount of columns of every board.
+     */
+    private final int columnCount;
+
+    /**
+     * The amount of rows of every board.
+     */
+    private final int rowCount;
+
+    /**
+     * The amount of boards in the batch.
+     */
+    private final int boardCount;
+
+    /**
+     * The fields of all boards.
+     * <p>
+     * The entrys have to be ordinals of tokens specified in the
+     * {@link BoardBatch#palette} field or {@link TokenPalette#EMPTY}.
+     * </p>
+     */
+    private final byte[] fields;
+
+    /**
+     * The filling strategies of the boards, {@code null} if a board has none.
+     */
+    private final FillingStrategy[] fillingStrategies;
+
+    /**
+     * Creates a new batch of empty boards.
+     *
+     * @param tokens
+     *         a set of all tokens that are allowed on the boards.
+     * @param columnCount
+     *         the amount of columns of every board (min. 2).
+     * @param rowCount
+     *         the amount of rows of every board (min. 2).
+     * @param boardCount
+     *         the amount of boards in the batch (min. 1).
+     *
+     * @throws BoardDimensionException
+     *         if the boards would be to small.
+     * @throws IllegalArgumentException
+     *         if there are less than two tokens, no boards or the batch is to large.
+     */
+    public BoardBatch(final Set<Token> tokens, final int columnCount, final int rowCount, final int boardCount) {
+        if (columnCount < MIN_BOARD_SIZE || rowCount < MIN_BOARD_SIZE) {
+            throw new BoardDimensionException("Board is to small!");
+        }
+        Objects.requireNonNull(tokens, "Tokens is null!");
+        if (tokens.size() < 2) {
+            throw new IllegalArgumentException("Missing tokens! At least two tokens are required!");
+        }
+        if (boardCount < 1) {
+            throw new IllegalArgumentException("A batch needs at least one board!");
+        }
+        if ((long) columnCount * rowCount * boardCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Batch is to large!");
+        }
+        this.boardTokens = tokens;
+        this.palette = new TokenPalette(tokens);
+        this.columnCount = columnCount;
+        this.rowCount = rowCount;
+        this.boardCount = boardCount;
+        this.fields = new byte[columnCount * rowCount * boardCount];
+        this.fillingStrategies = new FillingStrategy[boardCount];
+    }
+
+    /**
+     * Returns the amount of boards in the batch.
+     *
+     * @return the amount of boards.
+     */
+    public int getBoardCount() {
+        return this.boardCount;
+    }
+
+    /**
+     * Returns a board of the batch.
+     * <p>
+     * The returned board has no state of its own, all changes are made directly in the batch.
+     * </p>
+     *
+     * @param index
+     *         the index of the board, {@literal 0 <= index < getBoardCount()}.
+     *
+     * @return the board with the given index.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if there is no board with the given index.
+     */
+    public Board getBoard(final int index) {
+        if (index < 0 || index >= this.boardCount) {
+            throw new IndexOutOfBoundsException(String.format("No board with index %d!", index));
+        }
+        return new BatchBoard(index);
+    }
+
+    /**
+     * Moves the tokens of all boards to the bottom.
+     * <p>
+     * Has the same effect as calling {@link Board#moveTokensToBottom()} for every board.
+     * </p>
+     */
+    public void moveTokensToBottom() {
+        int[] writeRows = new int[this.boardCount];
+        for (int x = 0; x < this.columnCount; x++) {
+            Arrays.fill(writeRows, this.rowCount - 1);
+            for (int y = this.rowCount - 1; y >= 0; y--) {
+                int base = (y * this.columnCount + x) * this.boardCount;
+                for (int b = 0; b < this.boardCount; b++) {
+                    byte ordinal = this.fields[base + b];
+                    if (ordinal != TokenPalette.EMPTY) {
+                        int writeRow = writeRows[b];
+                        if (writeRow != y) {
+                            this.fields[(writeRow * this.columnCount + x) * this.boardCount + b] = ordinal;
+                            this.fields[base + b] = TokenPalette.EMPTY;
+                        }
+                        writeRows[b] = writeRow - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Fills the empty fields of all boards with the given strategy.
+     * <p>
+     * The fields are traversed column by column from the bottom row to the top row,
+     * all boards are filled at once. So a strategy, that depends on the order of the
+     * requested fields, is shared between all boards.
+     * </p>
+     *
+     * @param strategy
+     *         the strategy to fill the boards with, must not be {@code null}.
+     *
+     * @throws IllegalTokenException
+     *         if the strategy returns a token that isn't valid for the boards.
+     */
+    public void fillWithTokens(final CellFillingStrategy strategy) {
+        Objects.requireNonNull(strategy, "Filling strategy is null!");
+        Board[] boards = new Board[this.boardCount];
+        for (int b = 0; b < this.boardCount; b++) {
+            boards[b] = new BatchBoard(b);
+        }
+        for (int x = 0; x < this.columnCount; x++) {
+            for (int y = this.rowCount - 1; y >= 0; y--) {
+                Position position = new Position(x, y);
+                int base = (y * this.columnCount + x) * this.boardCount;
+                for (int b = 0; b < this.boardCount; b++) {
+                    if (this.fields[base + b] == TokenPalette.EMPTY) {
+                        this.fields[base + b] = ordinalOf(strategy.nextToken(boards[b], position));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Swaps the tokens at the given positions on all boards.
+     *
+     * @param positionA
+     *         the first position to swap.
+     * @param positionB
+     *         the second position to swap.
+     *
+     * @throws BoardDimensionException
+     *         if either of the positions is not contained in the boards.
+     */
+    public void swapTokens(final Position positionA, final Position positionB) throws BoardDimensionException {
+        int baseA = indexOf(positionA) * this.boardCount;
+        int baseB = indexOf(positionB) * this.boardCount;
+        for (int b = 0; b < this.boardCount; b++) {
+            byte ordinal = this.fields[baseA + b];
+            this.fields[baseA + b] = this.fields[baseB + b];
+            this.fields[baseB + b] = ordinal;
+        }
+    }
+
+    /**
+     * Returns the ordinal of a token of the boards.
+     *
+     * @param token
+     *         the token, must not be {@code null}.
+     *
+     * @return the ordinal of the token.
+     *
+     * @throws IllegalTokenException
+     *         if the token isn't valid for the boards.
+     */
+    private byte ordinalOf(final Token token) {
+        int ordinal = this.palette.ordinalOf(Objects.requireNonNull(token, "Token is null!"));
+        if (ordinal < 0) {
+            throw new IllegalTokenException(String.format("Unknown token \"%s\"!", token.toString()));
+        }
+        return (byte) ordinal;
+    }
+
+    /**
+     * Returns the row major index of a position on the boards.
+     *
+     * @param position
+     *         a position, must not be {@code null}.
+     *
+     * @return the index of the position.
+     *
+     * @throws BoardDimensionException
+     *         if the position is not on the boards.
+     */
+    private int indexOf(final Position position) {
+        Objects.requireNonNull(position, "Position is null!");
+        if (!containsPosition(position)) {
+            throw new BoardDimensionException(String.format("Position \"%s\" is not on the board!"
+                    , position.toString()));
+        }
+        return position.y * this.columnCount + position.x;
+    }
+
+    /**
+     * Indicates whether the given position is contained in the boards.
+     *
+     * @param position
+     *         the position to check, must not be {@code null}.
+     *
+     * @return {@code true} iff the position is on the boards.
+     */
+    private boolean containsPosition(final Position position) {
+        return position.x >= 0 && position.x < this.columnCount
+                && position.y >= 0 && position.y < this.rowCount;
+    }
+
+    /**
+     * A single board of the batch.
+     */
+    private final class BatchBoard implements Board {
+
+        /**
+         * The index of the board in the batch.
+         */
+        private final int boardIndex;
+
+        /**
+         * Creates a new board of the batch.
+         *
+         * @param boardIndex
+         *         the index of the board in the batch.
+         */
+        private BatchBoard(final int boardIndex) {
+            this.boardIndex = boardIndex;
+        }
+
+        @Override
+        public Set<Token> getAllValidTokens() {
+            return boardTokens;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return columnCount;
+        }
+
+        @Override
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        @Override
+        public Token getTokenAt(final Position position) throws BoardDimensionException {
+            return palette.tokenOf(fields[indexOf(position) * boardCount + this.boardIndex] & 0xFF);
+        }
+
+        @Override
+        public void setTokenAt(final Position position, final Token newToken)
+                throws BoardDimensionException, IllegalTokenException {
+            int ordinal = palette.ordinalOf(newToken);
+            if (ordinal < 0) {
+                throw new IllegalTokenException(String.format("Unknown token \"%s\"!", newToken.toString()));
+            }
+            if (position == null) {
+                throw new NullPointerException("Position is null!");
+            }
+            fields[indexOf(position) * boardCount + this.boardIndex] = (byte) ordinal;
+        }
+
+        @Override
+        public boolean containsPosition(final Position position) {
+            if (position == null) {
+                throw new NullPointerException("Position is null!");
+            }
+            return BoardBatch.this.containsPosition(position);
+        }
+
+        @Override
+        public Set<Position> moveTokensToBottom() {
+            Set<Position> changedPositions = new LinkedHashSet<>();
+            for (int x = 0; x < columnCount; x++) {
+                int writeRow = rowCount - 1;
+                for (int y = rowCount - 1; y >= 0; y--) {
+                    int index = (y * columnCount + x) * boardCount + this.boardIndex;
+                    byte ordinal = fields[index];
+                    if (ordinal != TokenPalette.EMPTY) {
+                        if (writeRow != y) {
+                            fields[(writeRow * columnCount + x) * boardCount + this.boardIndex] = ordinal;
+                            fields[index] = TokenPalette.EMPTY;
+                            changedPositions.add(new Position(x, writeRow));
+                            changedPositions.add(new Position(x, y));
+                        }
+                        writeRow--;
+                    }
+                }
+            }
+            return changedPositions;
+        }
+
+        @Override
+        public void swapTokens(final Position positionA, final Position positionB) throws BoardDimensionException {
+            int indexA = indexOf(positionA) * boardCount + this.boardIndex;
+            int indexB = indexOf(positionB) * boardCount + this.boardIndex;
+            byte ordinal = fields[indexA];
+            fields[indexA] = fields[indexB];
+            fields[indexB] = ordinal;
+        }
+
+        @Override
+        public void removeTokensAt(final Set<Position> positions) throws BoardDimensionException {
+            for (Position p : positions) {
+                indexOf(p);
+            }
+            for (Position p : positions) {
+                fields[indexOf(p) * boardCount + this.boardIndex] = TokenPalette.EMPTY;
+            }
+        }
+
+        @Override
+        public void setFillingStrategy(final FillingStrategy strategy) {
+            fillingStrategies[this.boardIndex] = Objects.requireNonNull(strategy, "Filling strategy is null!");
+        }
+
+        @Override
+        public void fillWithTokens() throws NoFillingStrategyException {
+            FillingStrategy strategy = fillingStrategies[this.boardIndex];
+            if (strategy == null) {
+                throw new NoFillingStrategyException();
+            }
+            strategy.fill(this);
+        }
+
+        @Override
+        public String toTokenString() {
+            return Boards.toTokenString(this);
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            return obj instanceof Board && Boards.contentEquals(this, (Board) obj);
+        }
+
+        @Override
+        public int hashCode() {
+            return Boards.contentHash(this);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("\"%s\"", toTokenString());
+        }
+    }
+}
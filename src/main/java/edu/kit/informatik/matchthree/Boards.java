@@ -0,0 +1,129 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Implementations of the {@link Board} contract, that only use the methods of the interface.
+ * <p>
+ *     Boards can use those methods when they have no faster way to
+ *     implement the operation.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+final class Boards {
+
+    /**
+     * Utility class.
+     */
+    private Boards() { }
+
+    /**
+     * Compares two boards as specified by {@link Board#equals(Object)}.
+     *
+     * @param board
+     *         the first board, must not be {@code null}.
+     * @param other
+     *         the second board, must not be {@code null}.
+     *
+     * @return {@code true} iff both boards are equal.
+     */
+    static boolean contentEquals(final Board board, final Board other) {
+        if (board.getColumnCount() != other.getColumnCount() || board.getRowCount() != other.getRowCount()
+                || !board.getAllValidTokens().equals(other.getAllValidTokens())) {
+            return false;
+        }
+        for (int y = 0; y < board.getRowCount(); y++) {
+            for (int x = 0; x < board.getColumnCount(); x++) {
+                Position position = new Position(x, y);
+                if (!Objects.equals(board.getTokenAt(position), other.getTokenAt(position))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculates the hash code of a board as specified by {@link Board#hashCode()}.
+     *
+     * @param board
+     *         the board, must not be {@code null}.
+     *
+     * @return the hash code of the board.
+     */
+    static int contentHash(final Board board) {
+        int width = board.getColumnCount();
+        int hash = 31 * width + board.getRowCount();
+        for (int y = 0; y < board.getRowCount(); y++) {
+            for (int x = 0; x < width; x++) {
+                Token token = board.getTokenAt(new Position(x, y));
+                hash += TokenPalette.fieldWeight(y * width + x) * Objects.hashCode(token);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Creates the token string of a board as specified by {@link Board#toTokenString()}.
+     *
+     * @param board
+     *         the board, must not be {@code null}.
+     *
+     * @return the token string of the board.
+     */
+    static String toTokenString(final Board board) {
+        StringBuilder result = new StringBuilder((board.getColumnCount() + 1) * board.getRowCount());
+        for (int y = 0; y < board.getRowCount(); y++) {
+            if (y > 0) {
+                result.append(';');
+            }
+            for (int x = 0; x < board.getColumnCount(); x++) {
+                Token token = board.getTokenAt(new Position(x, y));
+                result.append(token == null ? " " : token.toString());
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns the fields of a board as token ordinals in row-major order.
+     * <p>
+     *     Empty fields are 0, equal tokens have equal ordinals greater than 0.
+     *     {@link MatchThreeBoard MatchThreeBoards} are copied from their ordinal
+     *     array, other boards are read field by field.
+     * </p>
+     *
+     * @param board
+     *         the board, must not be {@code null}.
+     *
+     * @return the ordinal of every field, at the index {@code y * columnCount + x}.
+     */
+    static int[] ordinals(final Board board) {
+        int columns = board.getColumnCount();
+        int[] ordinals = new int[columns * board.getRowCount()];
+        if (board instanceof MatchThreeBoard) {
+            byte[] fields = ((MatchThreeBoard) board).toByteArray();
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = fields[i] & 0xFF;
+            }
+        } else {
+            Map<Token, Integer> tokens = new HashMap<>();
+            for (Token token : board.getAllValidTokens()) {
+                tokens.put(token, tokens.size() + 1);
+            }
+            for (int i = 0; i < ordinals.length; i++) {
+                Token token = board.getTokenAt(new Position(i % columns, i / columns));
+                ordinals[i] = token == null ? 0 : tokens.get(token);
+            }
+        }
+        return ordinals;
+    }
+}
@@ -0,0 +1,259 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.MatchResult;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A CachingMatcher is a {@link Matcher}, which remembers the results of another matcher.
+ * <p>
+ * Results are cached by the board object, its {@link Board#getVersion() version} and
+ * the initial positions. Every change of a field changes the version of the board, so a
+ * cached result is never returned for a changed board. Boards that don't count their
+ * changes are always passed to the decorated matcher.
+ * </p>
+ * <p>
+ * The cache holds at most {@link CachingMatcher#capacity} results and evicts the least
+ * recently used result first. Results are stored as {@link MatchResult MatchResults},
+ * so every call returns new sets that can be changed by the caller. All methods are
+ * thread safe, if the decorated matcher is.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public class CachingMatcher implements Matcher {
+
+    /**
+     * The decorated matcher.
+     */
+    private final Matcher matcher;
+
+    /**
+     * The maximum number of cached results.
+     */
+    private final int capacity;
+
+    /**
+     * The cached results, in least recently used order.
+     */
+    private final Map<Key, MatchResult> cache;
+
+    /**
+     * The number of results returned from the cache.
+     */
+    private long hits = 0;
+
+    /**
+     * The number of results computed by the decorated matcher.
+     */
+    private long misses = 0;
+
+    /**
+     * Creates a new {@link CachingMatcher}.
+     *
+     * @param matcher
+     *         the matcher to decorate.
+     * @param capacity
+     *         the maximum number of cached results. Must be at least 1.
+     *
+     * @throws MatcherInitializationException
+     *         if the capacity is smaller than 1.
+     */
+    public CachingMatcher(final Matcher matcher, final int capacity) throws MatcherInitializationException {
+        this.matcher = Objects.requireNonNull(matcher, "Matcher is null!");
+        if (capacity < 1) {
+            throw new MatcherInitializationException("Capacity is smaller than 1!");
+        }
+        this.capacity = capacity;
+        this.cache = new LinkedHashMap<Key, MatchResult>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Key, MatchResult> eldest) {
+                return size() > CachingMatcher.this.capacity;
+            }
+        };
+    }
+
+    @Override
+    public Set<Set<Position>> match(final Board board, final Position initial) throws BoardDimensionException {
+        return matchAll(board, Collections.singleton(initial));
+    }
+
+    @Override
+    public Set<Set<Position>> matchAll(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        return matchAllCompact(board, initial).toSets();
+    }
+
+    @Override
+    public Set<Set<Position>> matchBoard(final Board board) {
+        return matchBoardCompact(board).toSets();
+    }
+
+    @Override
+    public MatchResult matchAllCompact(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        Objects.requireNonNull(board, "Board is null!");
+        Objects.requireNonNull(initial, "Set of initial positions is null!");
+        long version = board.getVersion();
+        if (version < 0) {
+            countMiss();
+            return this.matcher.matchAllCompact(board, initial);
+        }
+        Key key = new Key(board, version, new HashSet<>(initial));
+        MatchResult result = lookup(key);
+        if (result == null) {
+            result = this.matcher.matchAllCompact(board, initial);
+            store(key, result);
+        }
+        return result;
+    }
+
+    @Override
+    public MatchResult matchBoardCompact(final Board board) {
+        Objects.requireNonNull(board, "Board is null!");
+        long version = board.getVersion();
+        if (version < 0) {
+            countMiss();
+            return this.matcher.matchBoardCompact(board);
+        }
+        Key key = new Key(board, version, null);
+        MatchResult result = lookup(key);
+        if (result == null) {
+            result = this.matcher.matchBoardCompact(board);
+            store(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of results returned from the cache.
+     *
+     * @return the number of cache hits.
+     */
+    public synchronized long getHitCount() {
+        return this.hits;
+    }
+
+    /**
+     * Returns the number of results computed by the decorated matcher.
+     *
+     * @return the number of cache misses.
+     */
+    public synchronized long getMissCount() {
+        return this.misses;
+    }
+
+    /**
+     * Removes all cached results. The counters are not reset.
+     */
+    public synchronized void clear() {
+        this.cache.clear();
+    }
+
+    /**
+     * Looks up a cached result and counts the hit or miss.
+     *
+     * @param key
+     *         the key of the result.
+     *
+     * @return the cached result or {@code null}.
+     */
+    private synchronized MatchResult lookup(final Key key) {
+        MatchResult result = this.cache.get(key);
+        if (result == null) {
+            this.misses++;
+        } else {
+            this.hits++;
+        }
+        return result;
+    }
+
+    /**
+     * Caches a result.
+     *
+     * @param key
+     *         the key of the result.
+     * @param result
+     *         the result.
+     */
+    private synchronized void store(final Key key, final MatchResult result) {
+        this.cache.put(key, result);
+    }
+
+    /**
+     * Counts a result that couldn't be cached.
+     */
+    private synchronized void countMiss() {
+        this.misses++;
+    }
+
+    /**
+     * The key of a cached result.
+     * <p>
+     * Boards are compared by identity, because only the versions of the same
+     * board object are comparable.
+     * </p>
+     */
+    private static final class Key {
+
+        /**
+         * The board the result was found on.
+         */
+        private final Board board;
+
+        /**
+         * The version of the board.
+         */
+        private final long version;
+
+        /**
+         * The initial positions or {@code null} for all positions.
+         */
+        private final Set<Position> initial;
+
+        /**
+         * Creates a new key.
+         *
+         * @param board
+         *         the board the result was found on.
+         * @param version
+         *         the version of the board.
+         * @param initial
+         *         the initial positions or {@code null} for all positions.
+         */
+        private Key(final Board board, final long version, final Set<Position> initial) {
+            this.board = board;
+            this.version = version;
+            this.initial = initial;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.board == other.board && this.version == other.version
+                    && Objects.equals(this.initial, other.initial);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * System.identityHashCode(this.board) + Long.hashCode(this.version)) * 31
+                    + Objects.hashCode(this.initial);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Matcher to combine the results of any number of matchers
+ * and use all results as matched positions.
+ * <p>
+ * Unlike a stack of {@link MultiMatcher MultiMatchers}, the board is read only
+ * once per call into a snapshot of the token ordinals, other matchers than
+ * {@link MaximumDeltaMatcher MaximumDeltaMatchers} are called as usual.
+ * </p>
+ * <p>
+ * {@link CompositeMatcher#matchBoard(Board)} visits every field of the snapshot
+ * once and checks the neighbours of all {@link MaximumDeltaMatcher MaximumDeltaMatchers}
+ * there, joining the fields in one {@link UnionFind} per matcher.
+ * {@link CompositeMatcher#matchAll(Board, Set)} only shares the snapshot, it runs one
+ * flood fill per matcher and initial position, because the flood fills of different
+ * matchers reach different fields.
+ * </p>
+ * <p>
+ * A match found by several matchers is only added once, which is decided by comparing
+ * the sorted field indices of matches with the same smallest index and size instead
+ * of hashing sets of positions.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public class CompositeMatcher implements Matcher {
+
+    /**
+     * The matchers that run on the shared snapshot of the board.
+     */
+    private final List<MaximumDeltaMatcher> deltaMatchers;
+
+    /**
+     * The matchers that read the board themselves.
+     */
+    private final List<Matcher> otherMatchers;
+
+    /**
+     * Creates a new composite matcher.
+     *
+     * @param matchers
+     *         the matchers to combine. Must contain at least one matcher and no {@code null}.
+     *
+     * @throws MatcherInitializationException
+     *         if no matcher or {@code null} is given.
+     */
+    public CompositeMatcher(final Matcher... matchers) throws MatcherInitializationException {
+        Objects.requireNonNull(matchers, "Matchers are null!");
+        if (matchers.length == 0) {
+            throw new MatcherInitializationException("No matchers given!");
+        }
+        this.deltaMatchers = new ArrayList<>();
+        this.otherMatchers = new ArrayList<>();
+        for (Matcher matcher : matchers) {
+            if (matcher == null) {
+                throw new MatcherInitializationException("Matchers contain null!");
+            } else if (matcher instanceof MaximumDeltaMatcher) {
+                this.deltaMatchers.add((MaximumDeltaMatcher) matcher);
+            } else {
+                this.otherMatchers.add(matcher);
+            }
+        }
+    }
+
+    @Override
+    public Set<Set<Position>> match(final Board board, final Position initial) throws BoardDimensionException {
+        return matchAll(board, Collections.singleton(initial));
+    }
+
+    @Override
+    public Set<Set<Position>> matchAll(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        Objects.requireNonNull(board, "Board is null!");
+        Objects.requireNonNull(initial, "Set of initial positions is null!");
+        for (Position p : initial) {
+            if (!board.containsPosition(p)) {
+                throw new BoardDimensionException(String.format("the position \"%s\" isn't on the board!", p));
+            }
+        }
+        int columns = board.getColumnCount();
+        Components components = new Components();
+        if (!this.deltaMatchers.isEmpty()) {
+            int[] cells = Boards.ordinals(board);
+            int[] frontier = new int[cells.length];
+            for (MaximumDeltaMatcher matcher : this.deltaMatchers) {
+                BitSet visited = new BitSet(cells.length);
+                for (Position p : initial) {
+                    int index = p.y * columns + p.x;
+                    if (cells[index] == 0) {
+                        components.addEmpty();
+                    } else if (!visited.get(index)) {
+                        components.add(frontier, matcher.floodCells(cells, columns, index, visited, frontier));
+                    }
+                }
+            }
+        }
+        for (Matcher matcher : this.otherMatchers) {
+            components.addAll(matcher.matchAll(board, initial), columns);
+        }
+        return components.toSets(columns);
+    }
+
+    @Override
+    public Set<Set<Position>> matchBoard(final Board board) {
+        Objects.requireNonNull(board, "Board is null!");
+        int columns = board.getColumnCount();
+        int rows = board.getRowCount();
+        Components components = new Components();
+        if (!this.deltaMatchers.isEmpty()) {
+            int[] cells = Boards.ordinals(board);
+            int[][] roots = joinAll(cells, columns, rows);
+            int[] sorted = new int[cells.length];
+            int[] offsets = new int[cells.length + 1];
+            for (int m = 0; m < roots.length; m++) {
+                Arrays.fill(offsets, 0);
+                for (int i = 0; i < cells.length; i++) {
+                    if (cells[i] == 0) {
+                        components.addEmpty();
+                    } else {
+                        offsets[roots[m][i] + 1]++;
+                    }
+                }
+                for (int i = 0; i < cells.length; i++) {
+                    offsets[i + 1] += offsets[i];
+                }
+                int[] next = Arrays.copyOf(offsets, cells.length);
+                for (int i = 0; i < cells.length; i++) {
+                    if (cells[i] != 0) {
+                        sorted[next[roots[m][i]]++] = i;
+                    }
+                }
+                for (int root = 0; root < cells.length; root++) {
+                    if (offsets[root + 1] > offsets[root]) {
+                        components.add(Arrays.copyOfRange(sorted, offsets[root], offsets[root + 1]));
+                    }
+                }
+            }
+        }
+        for (Matcher matcher : this.otherMatchers) {
+            components.addAll(matcher.matchBoard(board), columns);
+        }
+        return components.toSets(columns);
+    }
+
+    /**
+     * Labels the components of all {@link MaximumDeltaMatcher MaximumDeltaMatchers} in one
+     * pass over the snapshot.
+     * <p>
+     * Every field is visited once, its token is compared with the neighbours of the
+     * deltas of every matcher and equal neighbours are joined in the {@link UnionFind}
+     * of that matcher.
+     * </p>
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param columns
+     *         the number of columns of the board.
+     * @param rows
+     *         the number of rows of the board.
+     *
+     * @return the root of the component of every field, per matcher.
+     */
+    private int[][] joinAll(final int[] cells, final int columns, final int rows) {
+        int count = this.deltaMatchers.size();
+        NeighbourTable[] tables = new NeighbourTable[count];
+        UnionFind[] joined = new UnionFind[count];
+        for (int m = 0; m < count; m++) {
+            tables[m] = this.deltaMatchers.get(m).tableOf(cells, columns);
+            joined[m] = new UnionFind(cells.length);
+        }
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                int index = y * columns + x;
+                int token = cells[index];
+                if (token == 0) {
+                    continue;
+                }
+                for (int m = 0; m < count; m++) {
+                    NeighbourTable table = tables[m];
+                    for (int w = 0; w < table.words(); w++) {
+                        for (long valid = table.valid(x, y, w); valid != 0; valid &= valid - 1) {
+                            int next = index + table.offset((w << 6) + Long.numberOfTrailingZeros(valid));
+                            if (cells[next] == token) {
+                                joined[m].union(index, next);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        int[][] roots = new int[count][];
+        for (int m = 0; m < count; m++) {
+            roots[m] = joined[m].roots();
+        }
+        return roots;
+    }
+
+    /**
+     * The distinct matches found by all matchers, as sorted field indices.
+     * <p>
+     * Matches are grouped by a key of their smallest index and their size, so
+     * only matches with the same key are compared field by field.
+     * </p>
+     */
+    private static final class Components {
+
+        /**
+         * The matches by their key.
+         */
+        private final Map<Long, List<int[]>> matches = new HashMap<>();
+
+        /**
+         * Whether the empty match has been found.
+         */
+        private boolean empty;
+
+        /**
+         * Adds the empty match.
+         */
+        private void addEmpty() {
+            this.empty = true;
+        }
+
+        /**
+         * Adds a match given by unsorted field indices.
+         *
+         * @param indices
+         *         the array containing the field indices.
+         * @param count
+         *         the number of field indices at the start of the array.
+         */
+        private void add(final int[] indices, final int count) {
+            int[] cells = Arrays.copyOf(indices, count);
+            Arrays.sort(cells);
+            add(cells);
+        }
+
+        /**
+         * Adds a match given by sorted field indices, if it's not already contained.
+         *
+         * @param cells
+         *         the sorted field indices of the match, must not be empty.
+         */
+        private void add(final int[] cells) {
+            long key = ((long) cells[0] << Integer.SIZE) | cells.length;
+            List<int[]> candidates = this.matches.computeIfAbsent(key, k -> new ArrayList<>(1));
+            for (int[] candidate : candidates) {
+                if (Arrays.equals(candidate, cells)) {
+                    return;
+                }
+            }
+            candidates.add(cells);
+        }
+
+        /**
+         * Adds the matches of a {@link Matcher}.
+         *
+         * @param found
+         *         the matches.
+         * @param columns
+         *         the number of columns of the board.
+         */
+        private void addAll(final Set<Set<Position>> found, final int columns) {
+            for (Set<Position> match : found) {
+                if (match.isEmpty()) {
+                    addEmpty();
+                    continue;
+                }
+                int[] cells = new int[match.size()];
+                int i = 0;
+                for (Position p : match) {
+                    cells[i++] = p.y * columns + p.x;
+                }
+                add(cells, cells.length);
+            }
+        }
+
+        /**
+         * Converts the matches to the result of the {@link Matcher} interface.
+         *
+         * @param columns
+         *         the number of columns of the board.
+         *
+         * @return the matches.
+         */
+        private Set<Set<Position>> toSets(final int columns) {
+            Set<Set<Position>> result = new HashSet<>();
+            for (List<int[]> candidates : this.matches.values()) {
+                for (int[] cells : candidates) {
+                    Set<Position> match = new HashSet<>(cells.length * 2);
+                    for (int cell : cells) {
+                        match.add(new Position(cell % columns, cell / columns));
+                    }
+                    result.add(match);
+                }
+            }
+            if (this.empty) {
+                result.add(new HashSet<>());
+            }
+            return result;
+        }
+    }
+}
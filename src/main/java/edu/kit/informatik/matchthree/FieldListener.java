@@ -0,0 +1,27 @@
+package edu.kit.informatik.matchthree;
+
+/**
+ * Receives every change of a field of a {@link MatchThreeBoard}.
+ * <p>
+ * Listeners are called synchronously after the field changed and must not change
+ * the board. A lazily filled field is reported when it gets its token, not when
+ * {@link MatchThreeBoard#fillWithTokens()} is called.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ * @see MatchThreeBoard#addFieldListener(FieldListener)
+ */
+@FunctionalInterface
+public interface FieldListener {
+
+    /**
+     * Called after a field of the board changed.
+     *
+     * @param index
+     *         the row-major index of the field.
+     * @param ordinal
+     *         the new ordinal of the field, see {@link MatchThreeBoard#toByteArray()}.
+     */
+    void fieldChanged(int index, byte ordinal);
+}
@@ -0,0 +1,152 @@
+package edu.kit.informatik.matchthree;
+
+/**
+ * An event of a {@link MatchThreeGame}, as received by a {@link GameListener}.
+ * <p>
+ * Events are preallocated by the game and reused for later events, so they only
+ * contain primitive values and are only valid during the call of
+ * {@link GameListener#onEvent(GameEvent)}. Listeners that need an event later have
+ * to copy its values.
+ * </p>
+ * <p>
+ * The meaning of {@link GameEvent#getValue()} depends on the {@link Type} of the event.
+ * The chain depth is {@code 1} for the matches caused directly by a move and is
+ * increased for every chain reaction.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public final class GameEvent {
+
+    /**
+     * The type of the event.
+     */
+    private Type type;
+
+    /**
+     * The number of the event, counted from {@code 0} for every game.
+     */
+    private long sequence;
+
+    /**
+     * The chain depth of the event.
+     */
+    private int chainDepth;
+
+    /**
+     * The value of the event.
+     */
+    private int value;
+
+    /**
+     * Creates a new event, only called by {@link GameEventRing}.
+     */
+    GameEvent() {
+    }
+
+    /**
+     * Sets all values of the event.
+     *
+     * @param type
+     *         the type of the event.
+     * @param sequence
+     *         the number of the event.
+     * @param chainDepth
+     *         the chain depth of the event.
+     * @param value
+     *         the value of the event.
+     */
+    void set(final Type type, final long sequence, final int chainDepth, final int value) {
+        this.type = type;
+        this.sequence = sequence;
+        this.chainDepth = chainDepth;
+        this.value = value;
+    }
+
+    /**
+     * Returns the type of the event.
+     *
+     * @return the type.
+     */
+    public Type getType() {
+        return this.type;
+    }
+
+    /**
+     * Returns the number of the event, counted from {@code 0} for every game.
+     *
+     * @return the number of the event.
+     */
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Returns the chain depth of the event, {@code 0} for events that don't belong to a
+     * round of matches.
+     *
+     * @return the chain depth.
+     */
+    public int getChainDepth() {
+        return this.chainDepth;
+    }
+
+    /**
+     * Returns the value of the event, see {@link Type}.
+     *
+     * @return the value.
+     */
+    public int getValue() {
+        return this.value;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d %s depth=%d value=%d", this.sequence, this.type, this.chainDepth, this.value);
+    }
+
+    /**
+     * The types of events.
+     */
+    public enum Type {
+
+        /**
+         * A move was applied to the board, the value is the number of affected positions.
+         */
+        MOVE_ACCEPTED,
+
+        /**
+         * A match was found, the value is the number of fields of the match.
+         */
+        MATCH_FOUND,
+
+        /**
+         * The matches of a round were removed, the value is the number of fields of all matches.
+         */
+        TOKENS_REMOVED,
+
+        /**
+         * The tokens above the removed fields were moved to the bottom, the value is the
+         * number of moved tokens.
+         */
+        GRAVITY_SHIFT,
+
+        /**
+         * The board was filled, the value is the number of removed fields that were filled.
+         */
+        REFILL,
+
+        /**
+         * The score of a round was added to the score of the move, the value is the score of
+         * the round including the chain multiplier.
+         */
+        SCORE_DELTA,
+
+        /**
+         * All chain reactions of a move are done, the chain depth is the number of rounds with
+         * matches and the value is the score of the move.
+         */
+        CASCADE_FINISHED
+    }
+}
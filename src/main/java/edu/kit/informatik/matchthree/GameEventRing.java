@@ -0,0 +1,143 @@
+package edu.kit.informatik.matchthree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A preallocated ring buffer of {@link GameEvent GameEvents} and the listeners they are
+ * passed to.
+ * <p>
+ * Publishing an event only sets the values of the next event of the ring. When the ring
+ * is full or {@link GameEventRing#flush()} is called, all buffered events are passed to
+ * the listeners, so the events of a move don't allocate any objects. Without listeners
+ * events aren't buffered at all.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+final class GameEventRing {
+
+    /**
+     * The events of the ring.
+     */
+    private final GameEvent[] events;
+
+    /**
+     * The listeners the events are passed to.
+     */
+    private final List<GameListener> listeners = new ArrayList<>();
+
+    /**
+     * The index of the oldest buffered event.
+     */
+    private int head;
+
+    /**
+     * The number of buffered events.
+     */
+    private int size;
+
+    /**
+     * The number of the next event.
+     */
+    private long sequence;
+
+    /**
+     * Creates a new ring.
+     *
+     * @param capacity
+     *         the number of events of the ring.
+     *
+     * @throws IllegalArgumentException
+     *         if the capacity is less than {@code 1}.
+     */
+    GameEventRing(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1!");
+        }
+        this.events = new GameEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            this.events[i] = new GameEvent();
+        }
+    }
+
+    /**
+     * Adds a listener.
+     *
+     * @param listener
+     *         the listener to add.
+     */
+    void addListener(final GameListener listener) {
+        this.listeners.add(Objects.requireNonNull(listener, "Listener is null!"));
+    }
+
+    /**
+     * Removes a listener, after the buffered events were passed to it.
+     *
+     * @param listener
+     *         the listener to remove.
+     */
+    void removeListener(final GameListener listener) {
+        flush();
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Checks whether events are passed to any listener.
+     *
+     * @return {@code true} iff there are listeners.
+     */
+    boolean isActive() {
+        return !this.listeners.isEmpty();
+    }
+
+    /**
+     * Buffers an event, if there are listeners.
+     *
+     * @param type
+     *         the type of the event.
+     * @param chainDepth
+     *         the chain depth of the event.
+     * @param value
+     *         the value of the event.
+     */
+    void publish(final GameEvent.Type type, final int chainDepth, final int value) {
+        if (this.listeners.isEmpty()) {
+            return;
+        }
+        if (this.size == this.events.length) {
+            flush();
+        }
+        this.events[(this.head + this.size) % this.events.length].set(type, this.sequence++, chainDepth, value);
+        this.size++;
+    }
+
+    /**
+     * Passes all buffered events to the listeners.
+     */
+    void flush() {
+        while (this.size > 0) {
+            GameEvent event = this.events[this.head];
+            this.head = (this.head + 1) % this.events.length;
+            this.size--;
+            for (int i = 0; i < this.listeners.size(); i++) {
+                this.listeners.get(i).onEvent(event);
+            }
+        }
+    }
+
+    /**
+     * Drops all buffered events without passing them to the listeners.
+     * <p>
+     * Used when a move fails, so its events aren't passed to the listeners with the
+     * events of the next move. Events that were already passed because the ring was
+     * full stay passed.
+     * </p>
+     */
+    void clear() {
+        this.head = 0;
+        this.size = 0;
+    }
+}
@@ -0,0 +1,26 @@
+package edu.kit.informatik.matchthree;
+
+/**
+ * Receives the events of a {@link MatchThreeGame}.
+ * <p>
+ * The events of a move are collected in a buffer and passed to the listeners in the
+ * order they happened, at the latest when the move is done. Listeners are called in
+ * the thread of the game and must not change the game or its board. The received
+ * {@link GameEvent} is reused after the call, so it must not be kept.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ * @see MatchThreeGame#addGameListener(GameListener)
+ */
+@FunctionalInterface
+public interface GameListener {
+
+    /**
+     * Called for every event of the game.
+     *
+     * @param event
+     *         the event, only valid during this call.
+     */
+    void onEvent(GameEvent event);
+}
@@ -0,0 +1,270 @@
+package edu.kit.informatik.matchthree;
+
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The metrics of the moves of one or more {@link MatchThreeGame MatchThreeGames}.
+ * <p>
+ * Counters are striped {@link LongAdder LongAdders} and durations are recorded in
+ * lock-free histograms, so games on different threads can share one instance, e.g.
+ * for a pool of games. Recording a move costs a few atomic additions and two calls
+ * of {@link System#nanoTime()} per matcher call.
+ * </p>
+ * <p>
+ * The metrics can be published as a platform MBean with
+ * {@link GameMetrics#register(String)}.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ * @see MatchThreeGame#setMetrics(GameMetrics)
+ */
+public final class GameMetrics implements GameMetricsMBean {
+
+    /**
+     * The domain of the object names of the MBeans.
+     */
+    private static final String DOMAIN = "edu.kit.informatik.matchthree";
+
+    /**
+     * The percentile published over JMX.
+     */
+    private static final double PERCENTILE = 99.0;
+
+    /**
+     * The number of accepted moves.
+     */
+    private final LongAdder moves = new LongAdder();
+
+    /**
+     * The number of thrown exceptions.
+     */
+    private final LongAdder exceptions = new LongAdder();
+
+    /**
+     * The number of rounds of matches.
+     */
+    private final LongAdder cascadeRounds = new LongAdder();
+
+    /**
+     * The deepest cascade.
+     */
+    private final LongAccumulator maxCascadeDepth = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * The number of removed tokens.
+     */
+    private final LongAdder tokensRemoved = new LongAdder();
+
+    /**
+     * The number of refilled tokens.
+     */
+    private final LongAdder refills = new LongAdder();
+
+    /**
+     * The sum of the scores.
+     */
+    private final LongAdder score = new LongAdder();
+
+    /**
+     * The durations of the moves.
+     */
+    private final LatencyHistogram applyLatency = new LatencyHistogram();
+
+    /**
+     * The durations of the matcher calls.
+     */
+    private final LatencyHistogram matcherLatency = new LatencyHistogram();
+
+    /**
+     * The name the metrics are registered with, or {@code null}.
+     */
+    private ObjectName objectName;
+
+    /**
+     * Records an accepted move.
+     */
+    void recordMove() {
+        this.moves.increment();
+    }
+
+    /**
+     * Records the duration of a move, whether it was accepted or failed.
+     *
+     * @param nanos
+     *         the duration of the move including its chain reactions.
+     */
+    void recordApply(final long nanos) {
+        this.applyLatency.record(nanos);
+    }
+
+    /**
+     * Records a call of a matcher.
+     *
+     * @param nanos
+     *         the duration of the call.
+     */
+    void recordMatcher(final long nanos) {
+        this.matcherLatency.record(nanos);
+    }
+
+    /**
+     * Records the chain reactions of a move or of the start of a game.
+     *
+     * @param depth
+     *         the number of rounds with matches.
+     * @param removed
+     *         the number of removed fields.
+     * @param refilled
+     *         the number of refilled fields.
+     * @param scoreDelta
+     *         the score of the chain reactions.
+     */
+    void recordCascade(final int depth, final int removed, final int refilled, final int scoreDelta) {
+        this.cascadeRounds.add(depth);
+        this.maxCascadeDepth.accumulate(depth);
+        this.tokensRemoved.add(removed);
+        this.refills.add(refilled);
+        this.score.add(scoreDelta);
+    }
+
+    /**
+     * Records a thrown exception.
+     */
+    void recordException() {
+        this.exceptions.increment();
+    }
+
+    /**
+     * Publishes the metrics as a MBean of the platform MBean server.
+     * <p>
+     * The object name is {@code edu.kit.informatik.matchthree:type=GameMetrics,name=<name>}.
+     * </p>
+     *
+     * @param name
+     *         the name of the game or pool of games.
+     *
+     * @return the object name of the MBean.
+     *
+     * @throws JMException
+     *         if the name is not valid or already registered.
+     * @throws IllegalStateException
+     *         if the metrics are already registered.
+     */
+    public synchronized ObjectName register(final String name) throws JMException {
+        Objects.requireNonNull(name, "Name is null!");
+        if (this.objectName != null) {
+            throw new IllegalStateException("The metrics are already registered!");
+        }
+        ObjectName candidate = new ObjectName(DOMAIN + ":type=GameMetrics,name=" + ObjectName.quote(name));
+        this.objectName = ManagementFactory.getPlatformMBeanServer().registerMBean(this, candidate).getObjectName();
+        return this.objectName;
+    }
+
+    /**
+     * Removes the MBean of the metrics, if they are registered.
+     *
+     * @throws JMException
+     *         if the MBean can't be removed.
+     */
+    public synchronized void unregister() throws JMException {
+        if (this.objectName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(this.objectName)) {
+            server.unregisterMBean(this.objectName);
+        }
+        this.objectName = null;
+    }
+
+    @Override
+    public long getMoveCount() {
+        return this.moves.sum();
+    }
+
+    @Override
+    public long getExceptionCount() {
+        return this.exceptions.sum();
+    }
+
+    @Override
+    public long getCascadeRounds() {
+        return this.cascadeRounds.sum();
+    }
+
+    @Override
+    public long getMaxCascadeDepth() {
+        return this.maxCascadeDepth.get();
+    }
+
+    @Override
+    public long getTokensRemoved() {
+        return this.tokensRemoved.sum();
+    }
+
+    @Override
+    public long getRefillCount() {
+        return this.refills.sum();
+    }
+
+    @Override
+    public long getScoreTotal() {
+        return this.score.sum();
+    }
+
+    @Override
+    public long getApplyLatencyMean() {
+        return this.applyLatency.getMean();
+    }
+
+    @Override
+    public long getApplyLatencyP99() {
+        return this.applyLatency.getPercentile(PERCENTILE);
+    }
+
+    @Override
+    public long getApplyLatencyMax() {
+        return this.applyLatency.getMax();
+    }
+
+    @Override
+    public long getMatcherCalls() {
+        return this.matcherLatency.getCount();
+    }
+
+    @Override
+    public long getMatcherLatencyMean() {
+        return this.matcherLatency.getMean();
+    }
+
+    @Override
+    public long getMatcherLatencyP99() {
+        return this.matcherLatency.getPercentile(PERCENTILE);
+    }
+
+    @Override
+    public long getMatcherLatencyMax() {
+        return this.matcherLatency.getMax();
+    }
+
+    @Override
+    public void reset() {
+        this.moves.reset();
+        this.exceptions.reset();
+        this.cascadeRounds.reset();
+        this.maxCascadeDepth.reset();
+        this.tokensRemoved.reset();
+        this.refills.reset();
+        this.score.reset();
+        this.applyLatency.reset();
+        this.matcherLatency.reset();
+    }
+}
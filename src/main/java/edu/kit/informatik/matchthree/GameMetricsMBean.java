@@ -0,0 +1,116 @@
+package edu.kit.informatik.matchthree;
+
+/**
+ * The management interface of {@link GameMetrics}, as published over JMX.
+ * <p>
+ * All durations are in nanoseconds, percentiles are estimated by powers of two.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public interface GameMetricsMBean {
+
+    /**
+     * Returns the number of accepted moves.
+     *
+     * @return the number of moves.
+     */
+    long getMoveCount();
+
+    /**
+     * Returns the number of exceptions thrown by the games.
+     *
+     * @return the number of exceptions.
+     */
+    long getExceptionCount();
+
+    /**
+     * Returns the number of rounds of matches of all moves.
+     *
+     * @return the sum of the cascade depths.
+     */
+    long getCascadeRounds();
+
+    /**
+     * Returns the deepest cascade of a move.
+     *
+     * @return the maximum cascade depth.
+     */
+    long getMaxCascadeDepth();
+
+    /**
+     * Returns the number of removed fields of all matches.
+     *
+     * @return the number of removed tokens.
+     */
+    long getTokensRemoved();
+
+    /**
+     * Returns the number of filled fields.
+     *
+     * @return the number of refilled tokens.
+     */
+    long getRefillCount();
+
+    /**
+     * Returns the sum of the scores of all moves.
+     *
+     * @return the total score.
+     */
+    long getScoreTotal();
+
+    /**
+     * Returns the mean duration of a move, including its chain reactions and failed moves.
+     *
+     * @return the mean duration.
+     */
+    long getApplyLatencyMean();
+
+    /**
+     * Returns the 99th percentile of the duration of a move.
+     *
+     * @return the estimated percentile.
+     */
+    long getApplyLatencyP99();
+
+    /**
+     * Returns the longest duration of a move.
+     *
+     * @return the longest duration.
+     */
+    long getApplyLatencyMax();
+
+    /**
+     * Returns the number of calls of the matchers.
+     *
+     * @return the number of calls.
+     */
+    long getMatcherCalls();
+
+    /**
+     * Returns the mean duration of a call of a matcher.
+     *
+     * @return the mean duration.
+     */
+    long getMatcherLatencyMean();
+
+    /**
+     * Returns the 99th percentile of the duration of a call of a matcher.
+     *
+     * @return the estimated percentile.
+     */
+    long getMatcherLatencyP99();
+
+    /**
+     * Returns the longest duration of a call of a matcher.
+     *
+     * @return the longest duration.
+     */
+    long getMatcherLatencyMax();
+
+    /**
+     * Clears all metrics.
+     */
+    void reset();
+}
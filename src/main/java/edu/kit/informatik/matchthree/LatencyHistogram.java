@@ -0,0 +1,160 @@
+package edu.kit.informatik.matchthree;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds.
+ * <p>
+ * Durations are counted in buckets of powers of two, the bucket {@code i} counts the
+ * durations from {@code 2^i} to {@code 2^(i + 1) - 1} nanoseconds and the bucket
+ * {@code 0} also counts the duration {@code 0}. Recording a duration only increments
+ * atomic counters, so any number of threads can record at the same time. Percentiles
+ * are estimated by the upper bound of their bucket.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+final class LatencyHistogram {
+
+    /**
+     * The number of buckets, one per bit of a {@code long}.
+     */
+    private static final int BUCKETS = Long.SIZE;
+
+    /**
+     * The number of durations per bucket.
+     */
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    /**
+     * The number of recorded durations.
+     */
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * The sum of the recorded durations.
+     */
+    private final LongAdder sum = new LongAdder();
+
+    /**
+     * The longest recorded duration.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Records a duration, negative durations are recorded as {@code 0}.
+     *
+     * @param nanos
+     *         the duration in nanoseconds.
+     */
+    void record(final long nanos) {
+        long value = Math.max(0L, nanos);
+        this.buckets.incrementAndGet(bucketOf(value));
+        this.count.increment();
+        this.sum.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     *
+     * @return the number of durations.
+     */
+    long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded durations.
+     *
+     * @return the mean in nanoseconds or {@code 0} if no duration was recorded.
+     */
+    long getMean() {
+        long n = this.count.sum();
+        return n == 0 ? 0L : this.sum.sum() / n;
+    }
+
+    /**
+     * Returns the longest recorded duration.
+     *
+     * @return the longest duration in nanoseconds.
+     */
+    long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Estimates a percentile of the recorded durations.
+     *
+     * @param percentile
+     *         the percentile, between {@code 0} and {@code 100}.
+     *
+     * @return the upper bound of the bucket containing the percentile in nanoseconds,
+     *         or {@code 0} if no duration was recorded.
+     *
+     * @throws IllegalArgumentException
+     *         if the percentile is not between {@code 0} and {@code 100}.
+     */
+    long getPercentile(final double percentile) {
+        if (!(percentile >= 0.0 && percentile <= 100.0)) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100!");
+        }
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Clears all recorded durations.
+     */
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets.set(i, 0L);
+        }
+        this.count.reset();
+        this.sum.reset();
+        this.max.reset();
+    }
+
+    /**
+     * Returns the bucket of a duration.
+     *
+     * @param nanos
+     *         the non-negative duration in nanoseconds.
+     *
+     * @return the index of the bucket.
+     */
+    private static int bucketOf(final long nanos) {
+        return nanos == 0 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     * Returns the longest duration counted by a bucket.
+     *
+     * @param bucket
+     *         the index of the bucket.
+     *
+     * @return the upper bound in nanoseconds.
+     */
+    private static long upperBoundOf(final int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+    }
+}
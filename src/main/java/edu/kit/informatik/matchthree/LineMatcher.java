@@ -0,0 +1,271 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A LineMatcher is a {@link Matcher} for the classic three-in-a-row rules.
+ * <p>
+ * A match consists of horizontal and vertical runs of equal {@link Token Tokens}
+ * that are at least {@link LineMatcher#minRunLength} fields long. Runs that share
+ * a field are merged into one match. Runs are found with a single run-length scan
+ * of each row and column, and only the rows and columns of the initial positions
+ * and of the runs reached from them are scanned.
+ * </p>
+ * <p>
+ * For boards where every connected group of equal tokens consists of such runs,
+ * the result is the same as the result of a {@link MaximumDeltaMatcher} with the
+ * deltas {@literal (1,0)} and {@literal (0,1)}, except that shorter runs and
+ * empty fields produce no match at all.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public class LineMatcher implements Matcher {
+
+    /**
+     * The minimum number of equal tokens in a row or column to form a match.
+     */
+    private final int minRunLength;
+
+    /**
+     * Creates a new {@link LineMatcher}.
+     *
+     * @param minRunLength
+     *         the minimum length of a run. Must be at least 2.
+     *
+     * @throws MatcherInitializationException
+     *         if the minimum length is smaller than 2.
+     */
+    public LineMatcher(final int minRunLength) throws MatcherInitializationException {
+        if (minRunLength < 2) {
+            throw new MatcherInitializationException("Minimum run length is smaller than 2!");
+        }
+        this.minRunLength = minRunLength;
+    }
+
+    @Override
+    public Set<Set<Position>> match(final Board board, final Position initial) throws BoardDimensionException {
+        return matchAll(board, Collections.singleton(initial));
+    }
+
+    @Override
+    public Set<Set<Position>> matchAll(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        Objects.requireNonNull(board, "Board is null!");
+        Objects.requireNonNull(initial, "Set of initial positions is null!");
+        for (Position p : initial) {
+            if (!board.containsPosition(p)) {
+                throw new BoardDimensionException(String.format("the position \"%s\" isn't on the board!", p));
+            }
+        }
+        Runs runs = new Runs(board);
+        BitSet covered = new BitSet(board.getColumnCount() * board.getRowCount());
+        Set<Set<Position>> matches = new HashSet<>();
+        for (Position p : initial) {
+            if (!covered.get(runs.indexOf(p.x, p.y))) {
+                Set<Position> match = runs.collect(p.x, p.y, covered);
+                if (!match.isEmpty()) {
+                    matches.add(match);
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * The runs of the scanned rows and columns of one board.
+     * <p>
+     * A row or column is scanned the first time one of its fields is looked at.
+     * For every field of a scanned line the first and the last field of the run
+     * containing it are stored.
+     * </p>
+     */
+    private final class Runs {
+
+        /**
+         * The board the runs are found on.
+         */
+        private final Board board;
+
+        /**
+         * The number of columns of the board.
+         */
+        private final int columns;
+
+        /**
+         * The number of rows of the board.
+         */
+        private final int rows;
+
+        /**
+         * The first and last column of the run of every field, per scanned row.
+         */
+        private final int[][] rowRuns;
+
+        /**
+         * The first and last row of the run of every field, per scanned column.
+         */
+        private final int[][] columnRuns;
+
+        /**
+         * The queue of fields to visit, shared by all calls of {@link Runs#collect(int, int, BitSet)}.
+         * <p>
+         * Every field is added at most once after it's covered, plus the initial field of a call,
+         * so one field more than the board has is enough.
+         * </p>
+         */
+        private int[] queue;
+
+        /**
+         * Creates the runs of a board, without scanning any line.
+         *
+         * @param board
+         *         the board to find runs on.
+         */
+        private Runs(final Board board) {
+            this.board = board;
+            this.columns = board.getColumnCount();
+            this.rows = board.getRowCount();
+            this.rowRuns = new int[this.rows][];
+            this.columnRuns = new int[this.columns][];
+        }
+
+        /**
+         * Returns the row-major index of a field.
+         *
+         * @param x
+         *         the column of the field.
+         * @param y
+         *         the row of the field.
+         *
+         * @return the index of the field.
+         */
+        private int indexOf(final int x, final int y) {
+            return y * this.columns + x;
+        }
+
+        /**
+         * Collects all fields of the runs that are connected to the given field.
+         *
+         * @param x
+         *         the column of the initial field.
+         * @param y
+         *         the row of the initial field.
+         * @param covered
+         *         the fields that are already part of a match. All collected fields are added.
+         *
+         * @return the match or an empty set, if the field is not part of a long enough run.
+         */
+        private Set<Position> collect(final int x, final int y, final BitSet covered) {
+            Set<Position> match = new HashSet<>();
+            if (this.queue == null) {
+                this.queue = new int[this.columns * this.rows + 1];
+            }
+            int[] queue = this.queue;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = indexOf(x, y);
+            while (head < tail) {
+                int cx = queue[head] % this.columns;
+                int cy = queue[head++] / this.columns;
+                int[] row = rowRun(cy);
+                if (row[2 * cx + 1] - row[2 * cx] + 1 >= LineMatcher.this.minRunLength) {
+                    for (int i = row[2 * cx]; i <= row[2 * cx + 1]; i++) {
+                        if (!covered.get(indexOf(i, cy))) {
+                            covered.set(indexOf(i, cy));
+                            match.add(new Position(i, cy));
+                            queue[tail++] = indexOf(i, cy);
+                        }
+                    }
+                }
+                int[] column = columnRun(cx);
+                if (column[2 * cy + 1] - column[2 * cy] + 1 >= LineMatcher.this.minRunLength) {
+                    for (int i = column[2 * cy]; i <= column[2 * cy + 1]; i++) {
+                        if (!covered.get(indexOf(cx, i))) {
+                            covered.set(indexOf(cx, i));
+                            match.add(new Position(cx, i));
+                            queue[tail++] = indexOf(cx, i);
+                        }
+                    }
+                }
+            }
+            return match;
+        }
+
+        /**
+         * Returns the runs of a row, scanning it if necessary.
+         *
+         * @param y
+         *         the row.
+         *
+         * @return the first and last column of the run of every field of the row.
+         */
+        private int[] rowRun(final int y) {
+            if (this.rowRuns[y] == null) {
+                Token[] line = new Token[this.columns];
+                for (int x = 0; x < this.columns; x++) {
+                    line[x] = this.board.getTokenAt(new Position(x, y));
+                }
+                this.rowRuns[y] = scan(line);
+            }
+            return this.rowRuns[y];
+        }
+
+        /**
+         * Returns the runs of a column, scanning it if necessary.
+         *
+         * @param x
+         *         the column.
+         *
+         * @return the first and last row of the run of every field of the column.
+         */
+        private int[] columnRun(final int x) {
+            if (this.columnRuns[x] == null) {
+                Token[] line = new Token[this.rows];
+                for (int y = 0; y < this.rows; y++) {
+                    line[y] = this.board.getTokenAt(new Position(x, y));
+                }
+                this.columnRuns[x] = scan(line);
+            }
+            return this.columnRuns[x];
+        }
+
+        /**
+         * Finds the runs of equal tokens in a line.
+         * <p>
+         * An empty field is a run of length 0, so it's never part of a match.
+         * </p>
+         *
+         * @param line
+         *         the tokens of the line.
+         *
+         * @return the first and last index of the run of every field, at {@code 2 * i} and {@code 2 * i + 1}.
+         */
+        private int[] scan(final Token[] line) {
+            int[] runs = new int[2 * line.length];
+            int start = 0;
+            for (int i = 1; i <= line.length; i++) {
+                if (i == line.length || line[i] == null || !line[i].equals(line[start])) {
+                    for (int j = start; j < i; j++) {
+                        runs[2 * j] = start;
+                        runs[2 * j + 1] = line[start] == null ? start - 1 : i - 1;
+                    }
+                    start = i;
+                }
+            }
+            return runs;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.MatchQuery;
+import edu.kit.informatik.matchthree.framework.MatchResult;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A MatchIndex holds the current matches of a {@link MaximumDeltaMatcher} with at least
+ * {@link MatchIndex#minSize} fields on one {@link MatchThreeBoard}.
+ * <p>
+ * The index is a {@link FieldListener} of the board and keeps its own copy of the
+ * token ordinals. Changed fields are only marked. Before the next query, every indexed
+ * component that contains a changed field is removed, and the components are flood
+ * filled again from the changed fields and the fields of the removed components. So a
+ * component is split or merged only where fields changed, and components far away
+ * from all changes stay as they are.
+ * </p>
+ * <p>
+ * As a {@link Matcher}, the index answers {@link MatchQuery queries} for its board with
+ * a minimum size of at least {@link MatchIndex#minSize} from the indexed components,
+ * e.g. the queries of {@link MatchThreeGame}. All other calls are passed to the
+ * decorated matcher, because they may ask for smaller matches or other boards.
+ * The index isn't synchronized.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public class MatchIndex implements Matcher {
+
+    /**
+     * The indexed board.
+     */
+    private final MatchThreeBoard board;
+
+    /**
+     * The matcher that defines the components.
+     */
+    private final MaximumDeltaMatcher matcher;
+
+    /**
+     * The minimum number of fields of an indexed component.
+     */
+    private final int minSize;
+
+    /**
+     * The number of columns of the board.
+     */
+    private final int columns;
+
+    /**
+     * The token ordinals of the board, updated by the {@link MatchIndex#listener}.
+     */
+    private final int[] cells;
+
+    /**
+     * The id of the indexed component of every field, {@code -1} if the field is in no indexed component.
+     */
+    private final int[] componentOf;
+
+    /**
+     * The fields of the indexed components by their id.
+     */
+    private final Map<Integer, int[]> components = new HashMap<>();
+
+    /**
+     * The fields that changed since the last update of the components.
+     */
+    private final BitSet changed;
+
+    /**
+     * The fields visited while updating the components.
+     */
+    private final BitSet visited;
+
+    /**
+     * The queue of the flood fills.
+     */
+    private final int[] frontier;
+
+    /**
+     * The listener registered at the board.
+     */
+    private final FieldListener listener = this::fieldChanged;
+
+    /**
+     * The id of the next indexed component.
+     */
+    private int nextId = 0;
+
+    /**
+     * Creates a new index and registers it at the board.
+     *
+     * @param board
+     *         the board to index.
+     * @param matcher
+     *         the matcher that defines the components.
+     * @param minSize
+     *         the minimum number of fields of an indexed component. Must be at least 1.
+     *
+     * @throws MatcherInitializationException
+     *         if the minimum size is smaller than 1.
+     */
+    public MatchIndex(final MatchThreeBoard board, final MaximumDeltaMatcher matcher, final int minSize)
+            throws MatcherInitializationException {
+        this.board = Objects.requireNonNull(board, "Board is null!");
+        this.matcher = Objects.requireNonNull(matcher, "Matcher is null!");
+        if (minSize < 1) {
+            throw new MatcherInitializationException("Minimum match size is smaller than 1!");
+        }
+        this.minSize = minSize;
+        this.columns = board.getColumnCount();
+        byte[] ordinals = board.toByteArray();
+        this.cells = new int[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            this.cells[i] = ordinals[i] & 0xFF;
+        }
+        this.componentOf = new int[ordinals.length];
+        Arrays.fill(this.componentOf, -1);
+        this.changed = new BitSet(ordinals.length);
+        this.changed.set(0, ordinals.length);
+        this.visited = new BitSet(ordinals.length);
+        this.frontier = new int[ordinals.length];
+        board.addFieldListener(this.listener);
+    }
+
+    /**
+     * Unregisters the index from the board. The index must not be used afterwards.
+     */
+    public void detach() {
+        this.board.removeFieldListener(this.listener);
+    }
+
+    /**
+     * Returns all current components with at least {@link MatchIndex#minSize} fields.
+     *
+     * @return the indexed matches.
+     */
+    public MatchResult getMatches() {
+        update();
+        MatchResult.Builder matches = new MatchResult.Builder(this.columns);
+        for (int[] component : this.components.values()) {
+            matches.addCells(component, component.length).endMatch();
+        }
+        return matches.build();
+    }
+
+    @Override
+    public Set<Set<Position>> match(final Board board, final Position initial) throws BoardDimensionException {
+        return this.matcher.match(board, initial);
+    }
+
+    @Override
+    public Set<Set<Position>> matchAll(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        return this.matcher.matchAll(board, initial);
+    }
+
+    @Override
+    public Set<Set<Position>> matchBoard(final Board board) {
+        return this.matcher.matchBoard(board);
+    }
+
+    @Override
+    public MatchResult matchAllCompact(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        return this.matcher.matchAllCompact(board, initial);
+    }
+
+    @Override
+    public MatchResult matchBoardCompact(final Board board) {
+        return this.matcher.matchBoardCompact(board);
+    }
+
+    @Override
+    public MatchResult matchAllCompact(final Board board, final Set<Position> initial, final MatchQuery query)
+            throws BoardDimensionException {
+        Objects.requireNonNull(initial, "Set of initial positions is null!");
+        Objects.requireNonNull(query, "Query is null!");
+        if (board != this.board || query.getMinSize() < this.minSize) {
+            return this.matcher.matchAllCompact(board, initial, query);
+        }
+        for (Position p : initial) {
+            if (!board.containsPosition(p)) {
+                throw new BoardDimensionException(String.format("the position \"%s\" isn't on the board!", p));
+            }
+        }
+        update();
+        MatchResult.Builder matches = new MatchResult.Builder(this.columns);
+        BitSet added = new BitSet(this.cells.length);
+        for (Position p : initial) {
+            int id = this.componentOf[p.y * this.columns + p.x];
+            if (id >= 0 && !added.get(this.components.get(id)[0])) {
+                int[] component = this.components.get(id);
+                added.set(component[0]);
+                matches.addCells(component, component.length).endMatch();
+            }
+        }
+        return query.apply(matches.build());
+    }
+
+    @Override
+    public MatchResult matchBoardCompact(final Board board, final MatchQuery query) {
+        Objects.requireNonNull(query, "Query is null!");
+        if (board != this.board || query.getMinSize() < this.minSize) {
+            return this.matcher.matchBoardCompact(board, query);
+        }
+        return query.apply(getMatches());
+    }
+
+    /**
+     * Records the change of a field.
+     *
+     * @param index
+     *         the row-major index of the field.
+     * @param ordinal
+     *         the new ordinal of the field.
+     */
+    private void fieldChanged(final int index, final byte ordinal) {
+        this.cells[index] = ordinal & 0xFF;
+        this.changed.set(index);
+    }
+
+    /**
+     * Updates the components around all changed fields.
+     */
+    private void update() {
+        this.board.materializeAll();
+        if (this.changed.isEmpty()) {
+            return;
+        }
+        BitSet seeds = (BitSet) this.changed.clone();
+        for (int i = this.changed.nextSetBit(0); i >= 0; i = this.changed.nextSetBit(i + 1)) {
+            if (this.componentOf[i] >= 0) {
+                for (int cell : remove(this.componentOf[i])) {
+                    seeds.set(cell);
+                }
+            }
+        }
+        this.changed.clear();
+        this.visited.clear();
+        for (int seed = seeds.nextSetBit(0); seed >= 0; seed = seeds.nextSetBit(seed + 1)) {
+            if (this.cells[seed] == 0 || this.visited.get(seed)) {
+                continue;
+            }
+            int count = this.matcher.floodCells(this.cells, this.columns, seed, this.visited, this.frontier);
+            for (int j = 0; j < count; j++) {
+                if (this.componentOf[this.frontier[j]] >= 0) {
+                    remove(this.componentOf[this.frontier[j]]);
+                }
+            }
+            if (count >= this.minSize) {
+                int id = this.nextId++;
+                int[] component = Arrays.copyOf(this.frontier, count);
+                for (int cell : component) {
+                    this.componentOf[cell] = id;
+                }
+                this.components.put(id, component);
+            }
+        }
+    }
+
+    /**
+     * Removes an indexed component.
+     *
+     * @param id
+     *         the id of the component.
+     *
+     * @return the fields of the removed component.
+     */
+    private int[] remove(final int id) {
+        int[] component = this.components.remove(id);
+        for (int cell : component) {
+            this.componentOf[cell] = -1;
+        }
+        return component;
+    }
+}
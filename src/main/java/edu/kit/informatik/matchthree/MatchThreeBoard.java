@@ -1,6 +1,9 @@
 package edu.kit.informatik.matchthree;
 
+import edu.kit.informatik.matchthree.framework.AccessStatus;
+import edu.kit.informatik.matchthree.framework.CellFillingStrategy;
 import edu.kit.informatik.matchthree.framework.FillingStrategy;
+import edu.kit.informatik.matchthree.framework.MatchResult;
 import edu.kit.informatik.matchthree.framework.Position;
 import edu.kit.informatik.matchthree.framework.Token;
 import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
@@ -10,6 +13,8 @@ import edu.kit.informatik.matchthree.framework.exceptions.TokenStringParseExcept
 import edu.kit.informatik.matchthree.framework.interfaces.Board;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.IntStream;
 
 /**
@@ -18,9 +23,20 @@ import java.util.stream.IntStream;
  *     This board can only be filled with tokens
  *     allowed during the constructor.
  * </p>
+ * <p>
+ *     The fields are stored row by row as ordinals of a {@link TokenPalette}.
+ *     The token string and the hash code of the board are maintained
+ *     alongside, so repeated serialization and comparison of a unchanged board
+ *     are free.
+ * </p>
+ * <p>
+ *     In {@link MatchThreeBoard#setLazyFilling(boolean) lazy filling mode} the board
+ *     asks a {@link CellFillingStrategy} for the token of a empty field only when
+ *     the field is read for the first time.
+ * </p>
  *
  * @author David Oberacker
- * @version 1.0.1
+ * @version 1.2.0
  */
 public class MatchThreeBoard implements Board {
 
@@ -29,24 +45,80 @@ public class MatchThreeBoard implements Board {
      */
     private static final Integer MIN_BOARD_SIZE = 2;
 
+    /**
+     * The minimum number of columns to collapse on a pool,
+     * see {@link MatchThreeBoard#collapse(MatchResult, ForkJoinPool)}.
+     */
+    private static final int PARALLEL_COLUMNS = 32;
+
+    /**
+     * The number of tasks per thread of the pool to collapse columns on, to balance uneven columns.
+     */
+    private static final int TASKS_PER_THREAD = 4;
+
     /**
      * All allowed tokens on the board.
      */
     private final Set<Token> boardTokens;
 
+    /**
+     * The ordinals of the allowed tokens on the board.
+     */
+    private final TokenPalette palette;
+
+    /**
+     * The amount of columns on the board.
+     */
+    private final int columnCount;
+
+    /**
+     * The amount of rows on the board.
+     */
+    private final int rowCount;
+
     /**
      * The field that contains the board.
      * <p>
-     * All keys for this map have to be set in the constructor.
-     * If a position is not on the board after its initial construction
-     * this position is invalid.
+     * The field at the position {@literal (x, y)} is stored at the index
+     * {@literal y * columnCount + x}.
+     * </p>
+     * <p>
+     * The entrys have to be ordinals of tokens specified in the
+     * {@link MatchThreeBoard#palette} field or {@link TokenPalette#EMPTY}.
      * </p>
+     */
+    private final byte[] board;
+
+    /**
+     * The sum of the weighted token hashes of all fields.
+     * <p>
+     *     It's updated everytime a field changes, see {@link Board#hashCode()}.
+     * </p>
+     */
+    private int fieldHash;
+
+    /**
+     * The number of fields that are {@link TokenPalette#EMPTY}, including the lazily filled fields.
+     */
+    private int emptyFieldCount;
+
+    /**
+     * The cached token string of the board.
      * <p>
-     * The entrys have to be optionals of tokens specified in the
-     * {@link MatchThreeBoard#boardTokens} field.
+     *     This parameter is {@code null} if the board changed since the last call
+     *     of {@link MatchThreeBoard#toTokenString()}.
      * </p>
      */
-    private final TreeMap<Position, Optional<Token>> board;
+    private String tokenString = null;
+
+    /**
+     * The number of changes of the board, see {@link Board#getVersion()}.
+     * <p>
+     *     Giving a lazily filled field its token doesn't change the version, because
+     *     the field counts as filled since the call of {@link MatchThreeBoard#fillWithTokens()}.
+     * </p>
+     */
+    private long version = 0;
 
     /**
      * The filling strategy for the board.
@@ -56,6 +128,38 @@ public class MatchThreeBoard implements Board {
      */
     private FillingStrategy boardFillingStrategy = null;
 
+    /**
+     * Indicates if the board is filled lazily.
+     */
+    private boolean lazyFilling = false;
+
+    /**
+     * The fields that are filled but didn't get their token yet.
+     * <p>
+     * The field at the position {@literal (x, y)} is stored at the index
+     * {@literal x * rowCount + y}, so the fields of one column are adjacent.
+     * Those fields are {@link TokenPalette#EMPTY} in the {@link MatchThreeBoard#board} array.
+     * </p>
+     */
+    private final BitSet pendingFields = new BitSet();
+
+    /**
+     * The number of tokens moved to the bottom by the last call of
+     * {@link MatchThreeBoard#collapse(MatchResult, ForkJoinPool)}.
+     */
+    private int movedTokenCount;
+
+    /**
+     * The number of fields filled by the last call of
+     * {@link MatchThreeBoard#collapse(MatchResult, ForkJoinPool)}, including the lazily filled fields.
+     */
+    private int filledFieldCount;
+
+    /**
+     * The listeners that are called on every change of a field.
+     */
+    private final List<FieldListener> fieldListeners = new ArrayList<>();
+
     /**
      * Creates a new MatchThreeBoard with a specified amount of columns and rows.
      * <p>
@@ -67,7 +171,15 @@ public class MatchThreeBoard implements Board {
      * @param rowCount the amount of rows on the board (min. 2).
      */
     public MatchThreeBoard(Set<Token> tokens, int columnCount, int rowCount) {
-        this(tokens, createEmptyStringRepresentation(columnCount, rowCount));
+        if (columnCount < MIN_BOARD_SIZE || rowCount < MIN_BOARD_SIZE) {
+            throw new BoardDimensionException("Board is to small!");
+        }
+        this.boardTokens = checkTokens(tokens);
+        this.palette = new TokenPalette(tokens);
+        this.columnCount = columnCount;
+        this.rowCount = rowCount;
+        this.board = new byte[columnCount * rowCount];
+        this.emptyFieldCount = this.board.length;
     }
 
     /**
@@ -82,11 +194,21 @@ public class MatchThreeBoard implements Board {
      * @param tokenString the token string the board should be build with.
      */
     public MatchThreeBoard(Set<Token> tokens, String tokenString) {
-        this.boardTokens = Objects.requireNonNull(tokens, "Tokens is null!");
-        if (this.boardTokens.size() < 2) {
-            throw new IllegalArgumentException("Missing tokens! At least two tokens are required!");
+        this.boardTokens = checkTokens(tokens);
+        this.palette = new TokenPalette(tokens);
+        List<byte[]> rows = getBoardFromString(this.palette, tokenString);
+        this.rowCount = rows.size();
+        this.columnCount = rows.get(0).length;
+        this.board = new byte[this.columnCount * this.rowCount];
+        for (int i = 0; i < this.rowCount; i++) {
+            System.arraycopy(rows.get(i), 0, this.board, i * this.columnCount, this.columnCount);
+        }
+        for (int i = 0; i < this.board.length; i++) {
+            this.fieldHash += TokenPalette.fieldWeight(i) * this.palette.hashOf(this.board[i] & 0xFF);
+            if (this.board[i] == TokenPalette.EMPTY) {
+                this.emptyFieldCount++;
+            }
         }
-        this.board = getBoardFromString(tokens, tokenString);
     }
 
     @Override
@@ -96,14 +218,12 @@ public class MatchThreeBoard implements Board {
 
     @Override
     public int getColumnCount() {
-        return this.board.descendingKeySet().parallelStream()
-                .flatMapToInt(position -> IntStream.of(position.x)).max().getAsInt() + 1;
+        return this.columnCount;
     }
 
     @Override
     public int getRowCount() {
-        return this.board.descendingKeySet().parallelStream()
-                .flatMapToInt(position -> IntStream.of(position.y)).max().getAsInt() + 1;
+        return this.rowCount;
     }
 
     @Override
@@ -113,12 +233,14 @@ public class MatchThreeBoard implements Board {
             throw new BoardDimensionException(String.format("Position \"%s\" is not on the board!"
                     , position.toString()));
         }
-        return this.board.get(position).orElse(null);
+        materializeField(position.x, position.y);
+        return this.palette.tokenOf(this.board[indexOf(position)] & 0xFF);
     }
 
     @Override
     public void setTokenAt(Position position, Token newToken) throws BoardDimensionException, IllegalTokenException {
-        if (newToken != null && !(this.boardTokens.contains(newToken))) {
+        int ordinal = this.palette.ordinalOf(newToken);
+        if (ordinal < 0) {
             throw new IllegalTokenException(String.format("Unknown token \"%s\"!", newToken.toString()));
         }
         if (position == null) {
@@ -129,7 +251,31 @@ public class MatchThreeBoard implements Board {
                     , position.toString()));
         }
 
-        this.board.put(position, Optional.ofNullable(newToken));
+        materializeField(position.x, position.y);
+        setField(indexOf(position), (byte) ordinal);
+    }
+
+    @Override
+    public Token tryGetToken(Position position, Token offBoard) {
+        if (!containsPosition(position)) {
+            return offBoard;
+        }
+        materializeField(position.x, position.y);
+        return this.palette.tokenOf(this.board[indexOf(position)] & 0xFF);
+    }
+
+    @Override
+    public AccessStatus trySetToken(Position position, Token newToken) {
+        int ordinal = this.palette.ordinalOf(newToken);
+        if (ordinal < 0) {
+            return AccessStatus.ILLEGAL_TOKEN;
+        }
+        if (!containsPosition(position)) {
+            return AccessStatus.POSITION_NOT_ON_BOARD;
+        }
+        materializeField(position.x, position.y);
+        setField(indexOf(position), (byte) ordinal);
+        return AccessStatus.OK;
     }
 
     @Override
@@ -137,31 +283,53 @@ public class MatchThreeBoard implements Board {
         if (position == null) {
             throw new NullPointerException("Position is null!");
         }
-        return this.board.containsKey(position);
+        return position.x >= 0 && position.x < this.columnCount
+                && position.y >= 0 && position.y < this.rowCount;
     }
 
     @Override
     public Set<Position> moveTokensToBottom() {
         Set<Position> changedPositions = new LinkedHashSet<>();
-        for (int i = 0; i < getColumnCount(); i++) {
-            for (int k = getRowCount() - 1; k >= 0; k--) {
-                Position cnt = new Position(i, k);
-                if (!(this.board.get(cnt).isPresent())) {
+        moveTokensToBottom(changedPositions);
+        return changedPositions;
+    }
+
+    /**
+     * Moves the tokens of all columns to the bottom, see {@link MatchThreeBoard#moveTokensToBottom()}.
+     *
+     * @param changedPositions
+     *         the changed positions, the positions of the moved tokens are added.
+     *
+     * @return the number of moved tokens.
+     */
+    private int moveTokensToBottom(final Set<Position> changedPositions) {
+        int moved = 0;
+        for (int i = 0; i < this.columnCount; i++) {
+            if (hasPendingFields(i)) {
+                if (!hasEmptyFields(i)) {
+                    continue;
+                }
+                materializeField(i, 0);
+            }
+            for (int k = this.rowCount - 1; k >= 0; k--) {
+                int cnt = k * this.columnCount + i;
+                if (this.board[cnt] == TokenPalette.EMPTY) {
                     for (int j = k; j >= 0; j--) {
-                        Position nxt = new Position(i, j);
-                        Optional<Token> nxtToken = this.board.get(nxt);
-                        if (nxtToken.isPresent()) {
-                            setTokenAt(cnt, nxtToken.get());
-                            setTokenAt(nxt, null);
-                            changedPositions.add(cnt);
-                            changedPositions.add(nxt);
+                        int nxt = j * this.columnCount + i;
+                        byte nxtToken = this.board[nxt];
+                        if (nxtToken != TokenPalette.EMPTY) {
+                            setField(cnt, nxtToken);
+                            setField(nxt, TokenPalette.EMPTY);
+                            changedPositions.add(new Position(i, k));
+                            changedPositions.add(new Position(i, j));
+                            moved++;
                             break;
                         }
                     }
                 }
             }
         }
-        return changedPositions;
+        return moved;
     }
 
     @Override
@@ -179,8 +347,378 @@ public class MatchThreeBoard implements Board {
         }
     }
 
+    @Override
+    public void removeMatches(MatchResult matches) throws BoardDimensionException {
+        Objects.requireNonNull(matches, "Matches are null!");
+        if (matches.getColumnCount() != this.columnCount) {
+            throw new BoardDimensionException("The matches belong to a board with a different number of columns!");
+        }
+        for (int i = 0; i < matches.getCellCount(); i++) {
+            int cell = matches.getCell(i);
+            if (cell < 0 || cell >= this.board.length) {
+                throw new BoardDimensionException(String.format("The field %d isn't on the board!", cell));
+            }
+        }
+        for (int i = 0; i < matches.getCellCount(); i++) {
+            int cell = matches.getCell(i);
+            materializeField(cell % this.columnCount, cell / this.columnCount);
+            setField(cell, TokenPalette.EMPTY);
+        }
+    }
+
+    /**
+     * Removes the matches, moves the tokens above them to the bottom and fills the board.
+     * <p>
+     * Has the same result as {@link MatchThreeBoard#removeMatches(MatchResult)},
+     * {@link MatchThreeBoard#moveTokensToBottom()} and {@link MatchThreeBoard#fillWithTokens()}
+     * called one after another. If the board has no other empty fields than the lazily filled
+     * ones, only the columns containing matched fields are touched, each of them in one pass
+     * from the bottom to the top. With a {@link CellFillingStrategy} the strategy is asked for
+     * the tokens of those columns directly, in the same order as by its
+     * {@link FillingStrategy#fill(Board)} method.
+     * </p>
+     *
+     * @param matches
+     *         the matches to remove.
+     *
+     * @return the removed fields and the fields changed by moving tokens.
+     *
+     * @throws BoardDimensionException
+     *         if the matches don't belong to the board.
+     * @throws NoFillingStrategyException
+     *         if the board has no filling strategy.
+     */
+    Set<Position> collapse(MatchResult matches) throws BoardDimensionException, NoFillingStrategyException {
+        return collapse(matches, null);
+    }
+
+    /**
+     * Removes the matches, moves the tokens above them to the bottom and fills the board,
+     * see {@link MatchThreeBoard#collapse(MatchResult)}.
+     * <p>
+     * If a pool is given and at least {@link MatchThreeBoard#PARALLEL_COLUMNS} columns contain
+     * matched fields, the columns are moved and filled on the pool. This is only done if the
+     * board is filled lazily or its {@link CellFillingStrategy} is
+     * {@link CellFillingStrategy#isColumnIndependent() independent per column}, otherwise the
+     * columns are collapsed one after another.
+     * </p>
+     *
+     * @param matches
+     *         the matches to remove.
+     * @param pool
+     *         the pool to collapse the columns on or {@code null} to collapse them in this thread.
+     *
+     * @return the removed fields and the fields changed by moving tokens.
+     *
+     * @throws BoardDimensionException
+     *         if the matches don't belong to the board.
+     * @throws NoFillingStrategyException
+     *         if the board has no filling strategy.
+     */
+    Set<Position> collapse(MatchResult matches, ForkJoinPool pool)
+            throws BoardDimensionException, NoFillingStrategyException {
+        boolean fused = this.boardFillingStrategy != null
+                && this.emptyFieldCount == this.pendingFields.cardinality();
+        removeMatches(matches);
+        this.movedTokenCount = 0;
+        this.filledFieldCount = 0;
+        int unfilled = this.emptyFieldCount - this.pendingFields.cardinality();
+        Set<Position> changedPositions = moveAndFill(matches, pool, fused);
+        this.filledFieldCount = unfilled - (this.emptyFieldCount - this.pendingFields.cardinality());
+        return changedPositions;
+    }
+
+    /**
+     * Moves the tokens above the removed matches to the bottom and fills the board.
+     *
+     * @param matches
+     *         the removed matches.
+     * @param pool
+     *         the pool to collapse the columns on or {@code null} to collapse them in this thread.
+     * @param fused
+     *         whether the board had no other empty fields than the lazily filled ones before the
+     *         matches were removed.
+     *
+     * @return the removed fields and the fields changed by moving tokens.
+     *
+     * @throws NoFillingStrategyException
+     *         if the board has no filling strategy.
+     */
+    private Set<Position> moveAndFill(final MatchResult matches, final ForkJoinPool pool, final boolean fused)
+            throws NoFillingStrategyException {
+        Set<Position> changedPositions = matches.toPositions();
+        if (!fused) {
+            this.movedTokenCount = moveTokensToBottom(changedPositions);
+            fillWithTokens();
+            return changedPositions;
+        }
+        BitSet columns = new BitSet(this.columnCount);
+        for (int i = 0; i < matches.getCellCount(); i++) {
+            columns.set(matches.getCell(i) % this.columnCount);
+        }
+        int[] emptyRows = new int[this.columnCount];
+        if (pool != null && columns.cardinality() >= PARALLEL_COLUMNS && isColumnParallel()) {
+            for (int column = columns.nextSetBit(0); column >= 0; column = columns.nextSetBit(column + 1)) {
+                materializeField(column, 0);
+            }
+            collapseInParallel(columns.stream().toArray(), pool, emptyRows, changedPositions);
+        } else {
+            for (int column = columns.nextSetBit(0); column >= 0; column = columns.nextSetBit(column + 1)) {
+                materializeField(column, 0);
+                emptyRows[column] = collapseColumn(column, changedPositions);
+            }
+            if (!(this.boardFillingStrategy instanceof CellFillingStrategy)) {
+                fillWithTokens();
+                return changedPositions;
+            } else if (!this.lazyFilling) {
+                for (int column = columns.nextSetBit(0); column >= 0; column = columns.nextSetBit(column + 1)) {
+                    for (int row = emptyRows[column] - 1; row >= 0; row--) {
+                        setField(row * this.columnCount + column, nextOrdinal(column, row));
+                    }
+                }
+                return changedPositions;
+            }
+        }
+        if (this.lazyFilling) {
+            for (int column = columns.nextSetBit(0); column >= 0; column = columns.nextSetBit(column + 1)) {
+                this.pendingFields.set(column * this.rowCount, column * this.rowCount + emptyRows[column]);
+                this.version++;
+            }
+        }
+        return changedPositions;
+    }
+
+    /**
+     * Returns the number of tokens moved to the bottom by the last call of
+     * {@link MatchThreeBoard#collapse(MatchResult, ForkJoinPool)}.
+     * <p>
+     * Every token that ended up in a lower field counts once, no matter how many rows it fell.
+     * </p>
+     *
+     * @return the number of moved tokens.
+     */
+    int getMovedTokenCount() {
+        return this.movedTokenCount;
+    }
+
+    /**
+     * Returns the number of fields filled by the last call of
+     * {@link MatchThreeBoard#collapse(MatchResult, ForkJoinPool)}.
+     * <p>
+     * Lazily filled fields count as filled, even if they didn't get their token yet.
+     * </p>
+     *
+     * @return the number of filled fields.
+     */
+    int getFilledFieldCount() {
+        return this.filledFieldCount;
+    }
+
+    /**
+     * Moves the tokens of a column to the bottom in one pass, keeping their order.
+     * <p>
+     * The column must not contain lazily filled fields. The moved tokens are counted in
+     * {@link MatchThreeBoard#movedTokenCount}.
+     * </p>
+     *
+     * @param column
+     *         the column.
+     * @param changedPositions
+     *         the changed positions, the positions of the moved tokens are added.
+     *
+     * @return the number of empty fields at the top of the column.
+     */
+    private int collapseColumn(final int column, final Set<Position> changedPositions) {
+        int write = this.rowCount - 1;
+        for (int read = this.rowCount - 1; read >= 0; read--) {
+            byte token = this.board[read * this.columnCount + column];
+            if (token == TokenPalette.EMPTY) {
+                continue;
+            }
+            if (read != write) {
+                setField(write * this.columnCount + column, token);
+                setField(read * this.columnCount + column, TokenPalette.EMPTY);
+                changedPositions.add(new Position(column, write));
+                changedPositions.add(new Position(column, read));
+                this.movedTokenCount++;
+            }
+            write--;
+        }
+        return write + 1;
+    }
+
+    /**
+     * Checks if the columns of the board can be collapsed in parallel.
+     *
+     * @return {@code true} iff the board is filled by a {@link CellFillingStrategy} that is
+     *         filled lazily or independent per column.
+     */
+    private boolean isColumnParallel() {
+        return this.boardFillingStrategy instanceof CellFillingStrategy
+                && (this.lazyFilling || ((CellFillingStrategy) this.boardFillingStrategy).isColumnIndependent());
+    }
+
+    /**
+     * Moves the tokens of the given columns to the bottom and fills them on a pool.
+     * <p>
+     * The tasks write the fields of their columns directly and collect the changes. When all
+     * tasks are done, the hash code, version and empty fields of the board are updated and the
+     * field listeners are called in this thread. If a task fails, the affected columns are
+     * reported to the listeners with the fields they have at that point.
+     * </p>
+     *
+     * @param columns
+     *         the columns to collapse, none of them contains lazily filled fields.
+     * @param pool
+     *         the pool to run the tasks on.
+     * @param emptyRows
+     *         the number of empty fields at the top of every column, set for the given columns.
+     * @param changedPositions
+     *         the changed positions, the positions of the moved tokens are added.
+     */
+    private void collapseInParallel(final int[] columns, final ForkJoinPool pool, final int[] emptyRows,
+                                    final Set<Position> changedPositions) {
+        CellFillingStrategy strategy = this.lazyFilling ? null : (CellFillingStrategy) this.boardFillingStrategy;
+        int chunk = Math.max(1, columns.length / (pool.getParallelism() * TASKS_PER_THREAD));
+        List<ForkJoinTask<ColumnChanges>> tasks = new ArrayList<>();
+        for (int from = 0; from < columns.length; from += chunk) {
+            final int start = from;
+            final int end = Math.min(columns.length, from + chunk);
+            tasks.add(pool.submit(() -> collapseColumns(columns, start, end, strategy, emptyRows)));
+        }
+        List<ColumnChanges> results = new ArrayList<>(tasks.size());
+        try {
+            for (ForkJoinTask<ColumnChanges> task : tasks) {
+                results.add(task.join());
+            }
+        } catch (RuntimeException e) {
+            for (ForkJoinTask<ColumnChanges> task : tasks) {
+                task.quietlyJoin();
+            }
+            resynchronize(columns);
+            throw e;
+        }
+        for (ColumnChanges changes : results) {
+            this.fieldHash += changes.hashDelta;
+            this.emptyFieldCount -= changes.filled;
+            this.version += changes.count;
+            this.movedTokenCount += changes.moveCount / 2;
+            if (changes.count > 0) {
+                this.tokenString = null;
+            }
+            for (int i = 0; i < changes.moveCount; i++) {
+                changedPositions.add(new Position(changes.moved[i] % this.columnCount,
+                        changes.moved[i] / this.columnCount));
+            }
+            for (int i = 0; i < changes.count && !this.fieldListeners.isEmpty(); i++) {
+                for (int j = 0; j < this.fieldListeners.size(); j++) {
+                    this.fieldListeners.get(j).fieldChanged(changes.cells[i], changes.ordinals[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the tokens of some columns to the bottom and fills them, without updating the
+     * state of the board.
+     *
+     * @param columns
+     *         the columns.
+     * @param from
+     *         the first index in the columns array, inclusive.
+     * @param to
+     *         the last index in the columns array, exclusive.
+     * @param strategy
+     *         the strategy to fill the columns or {@code null} to leave them empty.
+     * @param emptyRows
+     *         the number of empty fields at the top of every column, set for the given columns.
+     *
+     * @return the changes of the fields.
+     */
+    private ColumnChanges collapseColumns(final int[] columns, final int from, final int to,
+                                         final CellFillingStrategy strategy, final int[] emptyRows) {
+        ColumnChanges changes = new ColumnChanges();
+        for (int i = from; i < to; i++) {
+            int column = columns[i];
+            int write = this.rowCount - 1;
+            for (int read = this.rowCount - 1; read >= 0; read--) {
+                byte token = this.board[read * this.columnCount + column];
+                if (token == TokenPalette.EMPTY) {
+                    continue;
+                }
+                if (read != write) {
+                    changes.set(write * this.columnCount + column, token);
+                    changes.set(read * this.columnCount + column, TokenPalette.EMPTY);
+                    changes.move(write * this.columnCount + column, read * this.columnCount + column);
+                }
+                write--;
+            }
+            emptyRows[column] = write + 1;
+            if (strategy != null) {
+                for (int row = write; row >= 0; row--) {
+                    changes.set(row * this.columnCount + column, nextOrdinal(column, row));
+                    changes.filled++;
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Recomputes the hash code and empty fields of the board and reports the fields of the
+     * given columns to the field listeners.
+     *
+     * @param columns
+     *         the columns that were changed without updating the board.
+     */
+    private void resynchronize(final int[] columns) {
+        this.fieldHash = 0;
+        this.emptyFieldCount = 0;
+        for (int i = 0; i < this.board.length; i++) {
+            this.fieldHash += TokenPalette.fieldWeight(i) * this.palette.hashOf(this.board[i] & 0xFF);
+            if (this.board[i] == TokenPalette.EMPTY) {
+                this.emptyFieldCount++;
+            }
+        }
+        this.tokenString = null;
+        this.version++;
+        for (int column : columns) {
+            for (int row = 0; row < this.rowCount; row++) {
+                int index = row * this.columnCount + column;
+                for (int j = 0; j < this.fieldListeners.size(); j++) {
+                    this.fieldListeners.get(j).fieldChanged(index, this.board[index]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Requests the token of an empty field from the {@link CellFillingStrategy} of the board.
+     *
+     * @param column
+     *         the column of the field.
+     * @param row
+     *         the row of the field.
+     *
+     * @return the ordinal of the token.
+     *
+     * @throws IllegalTokenException
+     *         if the token isn't allowed on the board.
+     */
+    private byte nextOrdinal(final int column, final int row) throws IllegalTokenException {
+        CellFillingStrategy strategy = (CellFillingStrategy) this.boardFillingStrategy;
+        Token token = strategy.nextToken(this, new Position(column, row));
+        int ordinal = this.palette.ordinalOf(Objects.requireNonNull(token, "Token is null!"));
+        if (ordinal < 0) {
+            throw new IllegalTokenException(String.format("Unknown token \"%s\"!", token.toString()));
+        }
+        return (byte) ordinal;
+    }
+
     @Override
     public void setFillingStrategy(FillingStrategy strategy) {
+        Objects.requireNonNull(strategy, "Filling strategy is null!");
+        materializeAll();
         this.boardFillingStrategy = Objects.requireNonNull(strategy, "Filling strategy is null!");
     }
 
@@ -188,7 +726,11 @@ public class MatchThreeBoard implements Board {
     public void fillWithTokens() throws NoFillingStrategyException {
         Optional<FillingStrategy> strategy = Optional.ofNullable(this.boardFillingStrategy);
         if (strategy.isPresent()) {
-            strategy.get().fill(this);
+            if (this.lazyFilling && strategy.get() instanceof CellFillingStrategy) {
+                deferFilling();
+            } else {
+                strategy.get().fill(this);
+            }
         } else {
             throw new NoFillingStrategyException();
         }
@@ -196,19 +738,119 @@ public class MatchThreeBoard implements Board {
 
     @Override
     public String toTokenString() {
-        String result = "";
-        for (int i = 0; i < this.getRowCount(); i++) {
-            for (int j = 0; j < this.getColumnCount(); j++) {
-                Optional<Token> tokenOptional = this.board.get(new Position(j, i));
-                if (tokenOptional.isPresent()) {
-                    result += tokenOptional.get().toString();
-                } else {
-                    result += "\u0020";
+        materializeAll();
+        if (this.tokenString == null) {
+            StringBuilder result = new StringBuilder(this.board.length + this.rowCount);
+            for (int i = 0; i < this.rowCount; i++) {
+                if (i > 0) {
+                    result.append(';');
+                }
+                for (int j = 0; j < this.columnCount; j++) {
+                    Token token = this.palette.tokenOf(this.board[i * this.columnCount + j] & 0xFF);
+                    result.append(token == null ? " " : token.toString());
                 }
             }
-            result += ';';
+            this.tokenString = result.toString();
         }
-        return result.substring(0, result.length() - 1);
+        return this.tokenString;
+    }
+
+    /**
+     * Returns the fields of the board as ordinals.
+     * <p>
+     * The field at the position {@literal (x, y)} is stored at the index
+     * {@literal y * getColumnCount() + x}. A empty field is represented by {@code 0},
+     * the tokens of {@link MatchThreeBoard#getAllValidTokens()} are numbered in their natural order
+     * starting with {@code 1}. Ordinals are unsigned, so they have to be read as {@code fields[i] & 0xFF}.
+     * </p>
+     *
+     * @return a copy of the fields of the board.
+     */
+    public byte[] toByteArray() {
+        materializeAll();
+        return this.board.clone();
+    }
+
+    @Override
+    public long getVersion() {
+        return this.version;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        materializeAll();
+        if (obj instanceof MatchThreeBoard) {
+            MatchThreeBoard other = (MatchThreeBoard) obj;
+            other.materializeAll();
+            return this.columnCount == other.columnCount
+                    && this.rowCount == other.rowCount
+                    && this.fieldHash == other.fieldHash
+                    && this.boardTokens.equals(other.boardTokens)
+                    && Arrays.equals(this.board, other.board);
+        }
+        return obj instanceof Board && Boards.contentEquals(this, (Board) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        materializeAll();
+        return 31 * this.columnCount + this.rowCount + this.fieldHash;
+    }
+
+    /**
+     * Adds a listener that is called on every change of a field.
+     *
+     * @param listener
+     *         the listener to add, must not be {@code null}.
+     */
+    public void addFieldListener(FieldListener listener) {
+        this.fieldListeners.add(Objects.requireNonNull(listener, "Listener is null!"));
+    }
+
+    /**
+     * Removes a listener added by {@link MatchThreeBoard#addFieldListener(FieldListener)}.
+     *
+     * @param listener
+     *         the listener to remove.
+     */
+    public void removeFieldListener(FieldListener listener) {
+        this.fieldListeners.remove(listener);
+    }
+
+    /**
+     * Enables or disables the lazy filling mode of the board.
+     * <p>
+     * In lazy filling mode {@link MatchThreeBoard#fillWithTokens()} only marks the empty fields
+     * as filled, if the filling strategy of the board is a {@link CellFillingStrategy}.
+     * The strategy is asked for the token of such a field when the field is read for the first time,
+     * e.g. by {@link MatchThreeBoard#getTokenAt(Position)}, a matcher or the serialization of the board.
+     * The fields of one column are always filled from the bottom to the top, so the board behaves
+     * as if it was filled immediately.
+     * </p>
+     * <p>
+     * Disabling the lazy filling mode fills all remaining fields.
+     * </p>
+     *
+     * @param lazyFilling
+     *         {@code true} to fill the board lazily.
+     */
+    public void setLazyFilling(boolean lazyFilling) {
+        if (!lazyFilling) {
+            materializeAll();
+        }
+        this.lazyFilling = lazyFilling;
+    }
+
+    /**
+     * Indicates if the board is in lazy filling mode.
+     *
+     * @return {@code true} iff the board is filled lazily.
+     */
+    public boolean isLazyFilling() {
+        return this.lazyFilling;
     }
 
     @Override
@@ -217,42 +859,197 @@ public class MatchThreeBoard implements Board {
     }
 
     /**
-     * Returns a string representation of a empty board with a specified amount of columns and rows.
+     * Returns the index of the given position in the {@link MatchThreeBoard#board} array.
+     *
+     * @param position
+     *         a position on the board.
+     *
+     * @return the row major index of the position.
+     */
+    private int indexOf(final Position position) {
+        return position.y * this.columnCount + position.x;
+    }
+
+    /**
+     * Marks all empty fields as filled.
      * <p>
-     * This string representation has the form: {@literal "-columns-;-columns;...;-columns-"}
-     * , where the {@literal "-column-"} token gets repeated as many times as rows are specified.
-     * The {@literal "-columns-"} token consists of the amount of whitespaces as there are columns.
+     * Columns that still have fields of a previous filling get those filled first,
+     * so the fields of one column are always requested from the bottom to the top.
+     * </p>
+     */
+    private void deferFilling() {
+        for (int i = 0; i < this.columnCount; i++) {
+            if (!hasEmptyFields(i)) {
+                continue;
+            }
+            materializeField(i, 0);
+            for (int k = 0; k < this.rowCount; k++) {
+                if (this.board[k * this.columnCount + i] == TokenPalette.EMPTY) {
+                    this.pendingFields.set(i * this.rowCount + k);
+                }
+            }
+            this.version++;
+        }
+    }
+
+    /**
+     * Gives the field at the given position its token, if it's filled lazily.
+     * <p>
+     * All lazily filled fields underneath the position get their tokens first.
+     * </p>
+     *
+     * @param column
+     *         the column of the field.
+     * @param row
+     *         the row of the field.
+     */
+    private void materializeField(final int column, final int row) {
+        int first = column * this.rowCount + row;
+        int pending = this.pendingFields.previousSetBit(column * this.rowCount + this.rowCount - 1);
+        if (pending < first) {
+            return;
+        }
+        CellFillingStrategy strategy = (CellFillingStrategy) this.boardFillingStrategy;
+        long filledVersion = this.version;
+        while (pending >= first) {
+            this.pendingFields.clear(pending);
+            int pendingRow = pending - column * this.rowCount;
+            Token token = strategy.nextToken(this, new Position(column, pendingRow));
+            int ordinal = this.palette.ordinalOf(Objects.requireNonNull(token, "Token is null!"));
+            if (ordinal < 0) {
+                throw new IllegalTokenException(String.format("Unknown token \"%s\"!", token.toString()));
+            }
+            setField(pendingRow * this.columnCount + column, (byte) ordinal);
+            pending = this.pendingFields.previousSetBit(pending - 1);
+        }
+        this.version = filledVersion;
+    }
+
+    /**
+     * Returns the ordinal of a field, see {@link TokenPalette}.
+     * <p>
+     * If the field is filled lazily, it and the lazily filled fields underneath it get their
+     * tokens first, all other fields stay untouched.
      * </p>
      *
-     * @param columnCount
-     *         the amount of columns on the board.
-     * @param rowCount
-     *         the amount of rows on the board.
+     * @param index
+     *         the row-major index of the field.
      *
-     * @return a token string representation of a empty board.
+     * @return the ordinal of the token of the field or {@link TokenPalette#EMPTY}.
      */
-    private static String createEmptyStringRepresentation(final int columnCount, final int rowCount) {
-        if (columnCount < MIN_BOARD_SIZE || rowCount < MIN_BOARD_SIZE) {
-            throw new BoardDimensionException("Board is to small!");
+    int ordinalAt(final int index) {
+        int column = index % this.columnCount;
+        int row = index / this.columnCount;
+        if (!this.pendingFields.isEmpty() && this.pendingFields.get(column * this.rowCount + row)) {
+            materializeField(column, row);
         }
-        String tokenString = "";
-        for (int i = 0; i < rowCount; i++) {
-            for (int j = 0; j < columnCount; j++) {
-                tokenString += "\u0020";
+        return this.board[index] & 0xFF;
+    }
+
+    /**
+     * Gives all lazily filled fields their tokens.
+     * <p>
+     * Used by observers of the board that need all fields to be reported to their
+     * {@link FieldListener} before they read their own copy of the fields.
+     * </p>
+     */
+    void materializeAll() {
+        if (this.pendingFields.isEmpty()) {
+            return;
+        }
+        for (int i = 0; i < this.columnCount; i++) {
+            materializeField(i, 0);
+        }
+    }
+
+    /**
+     * Checks if the given column has lazily filled fields without a token.
+     *
+     * @param column
+     *         the column to check.
+     *
+     * @return {@code true} iff the column contains such a field.
+     */
+    private boolean hasPendingFields(final int column) {
+        int next = this.pendingFields.nextSetBit(column * this.rowCount);
+        return next >= 0 && next < (column + 1) * this.rowCount;
+    }
+
+    /**
+     * Checks if the given column has empty fields, which aren't filled lazily.
+     *
+     * @param column
+     *         the column to check.
+     *
+     * @return {@code true} iff the column contains a empty field.
+     */
+    private boolean hasEmptyFields(final int column) {
+        for (int k = 0; k < this.rowCount; k++) {
+            if (this.board[k * this.columnCount + column] == TokenPalette.EMPTY
+                    && !this.pendingFields.get(column * this.rowCount + k)) {
+                return true;
             }
-            tokenString += ";";
         }
-        return tokenString.substring(0, tokenString.length() - 1);
+        return false;
     }
 
     /**
-     * Uses a token string representation of a board to create a tree map of this board with
-     * the tokens at their specified positions.
+     * Sets the ordinal of a field, updates the hash code, token string
+     * and version of the board and calls the field listeners.
+     * <p>
+     * Every change of a field has to use this method.
+     * </p>
      *
+     * @param index
+     *         the row major index of the field.
+     * @param ordinal
+     *         the new ordinal of the field.
+     */
+    private void setField(final int index, final byte ordinal) {
+        byte old = this.board[index];
+        if (old != ordinal) {
+            this.fieldHash += TokenPalette.fieldWeight(index)
+                    * (this.palette.hashOf(ordinal & 0xFF) - this.palette.hashOf(old & 0xFF));
+            this.board[index] = ordinal;
+            this.tokenString = null;
+            this.version++;
+            if (old == TokenPalette.EMPTY) {
+                this.emptyFieldCount--;
+            } else if (ordinal == TokenPalette.EMPTY) {
+                this.emptyFieldCount++;
+            }
+            for (int i = 0; i < this.fieldListeners.size(); i++) {
+                this.fieldListeners.get(i).fieldChanged(index, ordinal);
+            }
+        }
+    }
+
+    /**
+     * Checks the set of allowed tokens of a board.
+     *
+     * @param tokens
+     *         a set of all tokens that are allowed on the field.
+     *
+     * @return the given tokens.
+     */
+    private static Set<Token> checkTokens(final Set<Token> tokens) {
+        Objects.requireNonNull(tokens, "Tokens is null!");
+        if (tokens.size() < 2) {
+            throw new IllegalArgumentException("Missing tokens! At least two tokens are required!");
+        }
+        return tokens;
+    }
+
+    /**
+     * Uses a token string representation of a board to create a list of the rows of this board with
+     * the ordinals of the tokens at their specified positions.
+     *
+     * @param palette
+     *         the ordinals of the tokens allowed on the board.
      * @param tokenString
      *         the token string that should be displayed as a board
      *
-     * @return a tree map representing the token string as a board.
+     * @return a list of the rows of the token string, all rows have the same length.
      *
      * @throws TokenStringParseException
      *         if the token string doesn't match
@@ -261,29 +1058,30 @@ public class MatchThreeBoard implements Board {
      *         if the specified token string defined a board that is smaller than
      *         {@link MatchThreeBoard#MIN_BOARD_SIZE} or the rows hae different sizes this exception is thrown.
      */
-    private static TreeMap<Position, Optional<Token>> getBoardFromString(final Set<Token> boardTokens,
-                                                                  final String tokenString)
+    private static List<byte[]> getBoardFromString(final TokenPalette palette,
+                                                   final String tokenString)
             throws TokenStringParseException, BoardDimensionException {
         Objects.requireNonNull(tokenString, "Token string is null!");
         Scanner semicolonScanner = new Scanner(tokenString);
         semicolonScanner.useDelimiter(";");
-        List<List<Optional<Token>>> board = new LinkedList<>();
+        List<byte[]> board = new ArrayList<>();
 
         // Read all rows from the token string.
         try {
             while (semicolonScanner.hasNext()) {
-                List<Optional<Token>> rowToken = new LinkedList<>();
                 String row = semicolonScanner.next();
-                for (Character c : row.toCharArray()) {
+                byte[] rowToken = new byte[row.length()];
+                for (int i = 0; i < rowToken.length; i++) {
+                    char c = row.charAt(i);
                     //Checks if char is whitespace and iff adds empty field to board
-                    if (c.equals('\u0020')) {
-                        rowToken.add(Optional.empty());
+                    if (c == ' ') {
+                        rowToken[i] = TokenPalette.EMPTY;
                         continue;
                     }
                     //Checks if char is a valid token and iff adds token to board
-                    Token stringToken = new Token(c);
-                    if (boardTokens.parallelStream().anyMatch(stringToken::equals)) {
-                        rowToken.add(Optional.of(stringToken));
+                    int ordinal = palette.ordinalOf(new Token(c));
+                    if (ordinal > 0) {
+                        rowToken[i] = (byte) ordinal;
                     } else {
                         throw new TokenStringParseException(String.format("Unknown token: \"%s\"", c));
                     }
@@ -300,30 +1098,95 @@ public class MatchThreeBoard implements Board {
         }
 
         //Checks if board dimension is correct
-        IntSummaryStatistics boardSummary = board.parallelStream()
-                .flatMapToInt(optionals -> IntStream.of(optionals.size())).summaryStatistics();
+        IntSummaryStatistics boardSummary = board.stream()
+                .flatMapToInt(row -> IntStream.of(row.length)).summaryStatistics();
         if (!(board.size() >= MIN_BOARD_SIZE
                 && (boardSummary.getMax() == boardSummary.getMin())
                 && boardSummary.getMax() >= MIN_BOARD_SIZE)) {
             throw new BoardDimensionException("Token string doesn't match board size requirements!");
         }
+        return board;
+    }
 
-        //Creates the tree map with a comparator for rows.
-        TreeMap<Position, Optional<Token>> result = new TreeMap<>((o1, o2) -> {
-            if (Integer.compare(o1.y, o2.y) != 0) {
-                return Integer.compare(o1.y, o2.y);
-            } else {
-                return Integer.compare(o1.x, o2.x);
+    /**
+     * The changes of the fields made by one task of
+     * {@link MatchThreeBoard#collapseInParallel(int[], ForkJoinPool, int[], Set)}.
+     */
+    private final class ColumnChanges {
+
+        /**
+         * The changed fields, in the order of the changes.
+         */
+        private int[] cells = new int[16];
+
+        /**
+         * The new ordinals of the changed fields.
+         */
+        private byte[] ordinals = new byte[16];
+
+        /**
+         * The number of changes.
+         */
+        private int count;
+
+        /**
+         * The source and target fields of the moved tokens.
+         */
+        private int[] moved = new int[16];
+
+        /**
+         * The number of source and target fields.
+         */
+        private int moveCount;
+
+        /**
+         * The change of the hash code of the board.
+         */
+        private int hashDelta;
+
+        /**
+         * The number of filled fields.
+         */
+        private int filled;
+
+        /**
+         * Sets the ordinal of a field and records the change.
+         *
+         * @param index
+         *         the row major index of the field.
+         * @param ordinal
+         *         the new ordinal of the field.
+         */
+        private void set(final int index, final byte ordinal) {
+            byte old = board[index];
+            if (old == ordinal) {
+                return;
             }
-        });
+            this.hashDelta += TokenPalette.fieldWeight(index)
+                    * (palette.hashOf(ordinal & 0xFF) - palette.hashOf(old & 0xFF));
+            board[index] = ordinal;
+            if (this.count == this.cells.length) {
+                this.cells = Arrays.copyOf(this.cells, this.count * 2);
+                this.ordinals = Arrays.copyOf(this.ordinals, this.count * 2);
+            }
+            this.cells[this.count] = index;
+            this.ordinals[this.count++] = ordinal;
+        }
 
-        //Maps the List of Lists to a TreeMap.
-        for (int i = 0; i < board.size(); i++) {
-            List<Optional<Token>> tokenRow = board.get(i);
-            for (int j = 0; j < tokenRow.size(); j++) {
-                result.put(new Position(j, i), tokenRow.get(j));
+        /**
+         * Records the move of a token.
+         *
+         * @param target
+         *         the row major index of the field the token was moved to.
+         * @param source
+         *         the row major index of the field the token was moved from.
+         */
+        private void move(final int target, final int source) {
+            if (this.moveCount + 2 > this.moved.length) {
+                this.moved = Arrays.copyOf(this.moved, this.moved.length * 2);
             }
+            this.moved[this.moveCount++] = target;
+            this.moved[this.moveCount++] = source;
         }
-        return result;
     }
 }
@@ -1,5 +1,7 @@
 package edu.kit.informatik.matchthree;
 
+import edu.kit.informatik.matchthree.framework.MatchQuery;
+import edu.kit.informatik.matchthree.framework.MatchResult;
 import edu.kit.informatik.matchthree.framework.Position;
 import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
 import edu.kit.informatik.matchthree.framework.interfaces.Board;
@@ -7,9 +9,9 @@ import edu.kit.informatik.matchthree.framework.interfaces.Game;
 import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
 import edu.kit.informatik.matchthree.framework.interfaces.Move;
 
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Class describing a {@link Game} played on a {@link MatchThreeBoard}.
@@ -20,7 +22,7 @@ import java.util.Set;
  * </p>
  *
  * @author David Oberacker
- * @version 1.0.1
+ * @version 1.5.0
  */
 public class MatchThreeGame implements Game {
 
@@ -39,6 +41,16 @@ public class MatchThreeGame implements Game {
      */
     private static final int MIN_MATCH_SIZE = 3;
 
+    /**
+     * The query for all matches with at least {@link MatchThreeGame#MIN_MATCH_SIZE} fields.
+     */
+    private static final MatchQuery MATCH_QUERY = MatchQuery.all(MIN_MATCH_SIZE);
+
+    /**
+     * The number of events buffered before they are passed to the {@link GameListener GameListeners}.
+     */
+    private static final int EVENT_CAPACITY = 256;
+
     /**
      * The board the game takes place on.
      * <p>
@@ -54,10 +66,37 @@ public class MatchThreeGame implements Game {
      */
     private Matcher moveMatcher;
 
+    /**
+     * The pool to collapse the columns of the board on after a match, or {@code null}
+     * to collapse them in the thread of the game.
+     */
+    private ForkJoinPool cascadePool;
+
+    /**
+     * The buffered events and the listeners of the game.
+     */
+    private final GameEventRing events = new GameEventRing(EVENT_CAPACITY);
+
+    /**
+     * The metrics the moves are recorded in, or {@code null}.
+     */
+    private GameMetrics metrics;
+
+    /**
+     * The number of tokens moved to the bottom by the last call of
+     * {@link MatchThreeGame#collapse(MatchResult)}.
+     */
+    private int movedTokens;
+
+    /**
+     * The number of fields filled by the last call of {@link MatchThreeGame#collapse(MatchResult)}.
+     */
+    private int refilledFields;
+
     /**
      * The score of the game.
      * <p>
-     * It's updated everytime the {@link MatchThreeGame#findMatches(Set)} method
+     * It's updated everytime the {@link MatchThreeGame#findMatches(MatchResult)} method
      * is called.
      * </p>
      * <p>
@@ -97,24 +136,53 @@ public class MatchThreeGame implements Game {
 
     @Override
     public void initializeBoardAndStart() {
-        Set<Position> changedPositions = this.gameBoard.moveTokensToBottom();
-        for (int i = 0; i < this.gameBoard.getColumnCount(); i++) {
-            for (int j = 0; j < this.gameBoard.getRowCount(); j++) {
-                changedPositions.add(new Position(i, j));
+        try {
+            this.gameBoard.moveTokensToBottom();
+            this.gameBoard.fillWithTokens();
+            long start = this.metrics == null ? 0L : System.nanoTime();
+            MatchResult matches = this.moveMatcher.matchBoardCompact(this.gameBoard, MATCH_QUERY);
+            if (this.metrics != null) {
+                this.metrics.recordMatcher(System.nanoTime() - start);
+            }
+            findMatches(matches);
+        } catch (RuntimeException e) {
+            if (this.metrics != null) {
+                this.metrics.recordException();
             }
+            this.events.clear();
+            throw e;
         }
-        this.gameBoard.fillWithTokens();
-        findMatches(changedPositions);
+        this.events.flush();
     }
 
     @Override
     public void acceptMove(final Move move) {
-        Objects.requireNonNull(move, "Move is null!");
-        if (!move.canBeApplied(this.gameBoard)) {
-            throw new BoardDimensionException("Move not applicable on this board!");
+        long start = this.metrics == null ? 0L : System.nanoTime();
+        try {
+            Objects.requireNonNull(move, "Move is null!");
+            if (!move.canBeApplied(this.gameBoard)) {
+                throw new BoardDimensionException("Move not applicable on this board!");
+            }
+            move.apply(this.gameBoard);
+            Set<Position> affectedPositions = Objects.requireNonNull(move.getAffectedPositions(gameBoard),
+                    "Set of changed positions is null!");
+            this.events.publish(GameEvent.Type.MOVE_ACCEPTED, 0, affectedPositions.size());
+            findMatches(match(affectedPositions));
+        } catch (RuntimeException e) {
+            if (this.metrics != null) {
+                this.metrics.recordException();
+            }
+            this.events.clear();
+            throw e;
+        } finally {
+            if (this.metrics != null) {
+                this.metrics.recordApply(System.nanoTime() - start);
+            }
+        }
+        if (this.metrics != null) {
+            this.metrics.recordMove();
         }
-        move.apply(this.gameBoard);
-        findMatches(move.getAffectedPositions(gameBoard));
+        this.events.flush();
     }
 
     @Override
@@ -128,8 +196,66 @@ public class MatchThreeGame implements Game {
     }
 
     /**
-     * Checks if the given positions contain any matches for the
-     * {@link MatchThreeGame#moveMatcher} and if so removes them and
+     * Sets the pool to collapse the columns of the board on after a match.
+     * <p>
+     * On a {@link MatchThreeBoard} the removal of the matches, the movement of the tokens
+     * to the bottom and the filling of many columns are then split over the pool, the next
+     * round of matching uses the changed positions of all columns. Boards whose
+     * {@link edu.kit.informatik.matchthree.framework.FillingStrategy} can't fill columns
+     * independently are still collapsed in the thread of the game, as are all other boards.
+     * </p>
+     *
+     * @param pool
+     *         the pool or {@code null} to collapse the columns in the thread of the game.
+     */
+    public void setCascadePool(final ForkJoinPool pool) {
+        this.cascadePool = pool;
+    }
+
+    /**
+     * Sets the metrics the moves of the game are recorded in.
+     * <p>
+     * The metrics record the duration of every move and matcher call, the depth of the
+     * chain reactions, the removed and refilled tokens, the scores and the exceptions
+     * thrown by the game. Several games can share one {@link GameMetrics}.
+     * </p>
+     *
+     * @param metrics
+     *         the metrics or {@code null} to record nothing.
+     */
+    public void setMetrics(final GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Adds a listener for the events of the game.
+     * <p>
+     * The listener receives the accepted moves, the matches, removals, movements of tokens,
+     * refills and scores of every round of a move and the end of the chain reactions, see
+     * {@link GameEvent.Type}. The events are reused, so a listener doesn't cause any
+     * allocations during a move. The buffered events of a move that throws an exception
+     * are dropped.
+     * </p>
+     *
+     * @param listener
+     *         the listener to add.
+     */
+    public void addGameListener(final GameListener listener) {
+        this.events.addListener(listener);
+    }
+
+    /**
+     * Removes a listener for the events of the game.
+     *
+     * @param listener
+     *         the listener to remove.
+     */
+    public void removeGameListener(final GameListener listener) {
+        this.events.removeListener(listener);
+    }
+
+    /**
+     * Removes the given matches of the {@link MatchThreeGame#moveMatcher} and
      * refills and evaluates the board again.
      * <p>
      * Before this methode is called the board has to have a
@@ -145,32 +271,137 @@ public class MatchThreeGame implements Game {
      * of the matcher, it will not be evaluated, even if it would be a match.
      * </p>
      *
-     * @param initialPositions
-     *         Changed positions on the board where the matcher starts its evaluation.
+     * @param initialMatches
+     *         Matches found by the matcher on the changed positions of the board.
      */
-    private void findMatches(Set<Position> initialPositions) {
+    private void findMatches(MatchResult initialMatches) {
         int moveScore = 0;
         int count = 1;
-        Set<Position> changedPositions
-                = Objects.requireNonNull(initialPositions, "Set of changed positions is null!");
-        Set<Set<Position>> matchedPositions
-                = moveMatcher.matchAll(this.gameBoard, changedPositions);
+        Set<Position> changedPositions;
+        int removed = 0;
+        int refilled = 0;
+        MatchResult matchedPositions = initialMatches;
 
         while (!matchedPositions.isEmpty()) {
             int matchScore = 0;
-            matchedPositions.removeIf(positions -> positions.size() < MIN_MATCH_SIZE);
-            changedPositions = new HashSet<>();
-            for (Set<Position> match : matchedPositions) {
-                matchScore += SCORE_CONSTANT_3 + (match.size() - SCORE_CONSTANT_3) * SCORE_CONSTANT_2;
-                this.gameBoard.removeTokensAt(match);
-                changedPositions.addAll(match);
+            for (int i = 0; i < matchedPositions.getMatchCount(); i++) {
+                matchScore += SCORE_CONSTANT_3
+                        + (matchedPositions.getMatchSize(i) - SCORE_CONSTANT_3) * SCORE_CONSTANT_2;
             }
-            moveScore += count * (matchScore * matchedPositions.size());
-            changedPositions.addAll(gameBoard.moveTokensToBottom());
-            gameBoard.fillWithTokens();
-            matchedPositions = moveMatcher.matchAll(this.gameBoard, changedPositions);
+            changedPositions = collapse(matchedPositions);
+            int roundScore = count * (matchScore * matchedPositions.getMatchCount());
+            moveScore += roundScore;
+            removed += matchedPositions.getCellCount();
+            refilled += this.refilledFields;
+            if (this.events.isActive()) {
+                publishRound(matchedPositions, this.movedTokens, this.refilledFields, count, roundScore);
+            }
+            matchedPositions = match(changedPositions);
             count++;
         }
         this.score += moveScore;
+        if (this.metrics != null) {
+            this.metrics.recordCascade(count - 1, removed, refilled, moveScore);
+        }
+        this.events.publish(GameEvent.Type.CASCADE_FINISHED, count - 1, moveScore);
+    }
+
+    /**
+     * Finds the matches of the {@link MatchThreeGame#moveMatcher} on the given positions and
+     * records the duration in the {@link MatchThreeGame#metrics}.
+     *
+     * @param positions
+     *         the positions to start matching at.
+     *
+     * @return the matches with at least {@link MatchThreeGame#MIN_MATCH_SIZE} fields.
+     */
+    private MatchResult match(Set<Position> positions) {
+        if (this.metrics == null) {
+            return this.moveMatcher.matchAllCompact(this.gameBoard, positions, MATCH_QUERY);
+        }
+        long start = System.nanoTime();
+        MatchResult matches = this.moveMatcher.matchAllCompact(this.gameBoard, positions, MATCH_QUERY);
+        this.metrics.recordMatcher(System.nanoTime() - start);
+        return matches;
+    }
+
+    /**
+     * Publishes the events of a round of matches.
+     *
+     * @param matches
+     *         the removed matches.
+     * @param movedCount
+     *         the number of tokens moved to the bottom.
+     * @param refilledCount
+     *         the number of filled fields.
+     * @param chainDepth
+     *         the chain depth of the round.
+     * @param scoreDelta
+     *         the score of the round.
+     */
+    private void publishRound(MatchResult matches, int movedCount, int refilledCount, int chainDepth,
+                              int scoreDelta) {
+        for (int i = 0; i < matches.getMatchCount(); i++) {
+            this.events.publish(GameEvent.Type.MATCH_FOUND, chainDepth, matches.getMatchSize(i));
+        }
+        this.events.publish(GameEvent.Type.TOKENS_REMOVED, chainDepth, matches.getCellCount());
+        this.events.publish(GameEvent.Type.GRAVITY_SHIFT, chainDepth, movedCount);
+        this.events.publish(GameEvent.Type.REFILL, chainDepth, refilledCount);
+        this.events.publish(GameEvent.Type.SCORE_DELTA, chainDepth, scoreDelta);
+    }
+
+    /**
+     * Removes matches from the board, moves the tokens to the bottom and refills the board.
+     * <p>
+     * A {@link MatchThreeBoard} does this in one pass per column containing a match and
+     * leaves all other columns untouched. The number of moved tokens and filled fields are
+     * stored in {@link MatchThreeGame#movedTokens} and {@link MatchThreeGame#refilledFields}.
+     * </p>
+     * <p>
+     * On other boards every moved token leaves one field that wasn't removed, so the moved
+     * tokens are the changed positions that aren't removed fields. The board was full before
+     * the matches were removed, so the filled fields are the removed fields that aren't empty
+     * after the filling. They are only counted if there are listeners or metrics.
+     * </p>
+     *
+     * @param matches
+     *         the matches to remove.
+     *
+     * @return the removed fields and the fields changed by moving tokens.
+     */
+    private Set<Position> collapse(MatchResult matches) {
+        if (this.gameBoard instanceof MatchThreeBoard) {
+            MatchThreeBoard board = (MatchThreeBoard) this.gameBoard;
+            Set<Position> changedPositions = board.collapse(matches, this.cascadePool);
+            this.movedTokens = board.getMovedTokenCount();
+            this.refilledFields = board.getFilledFieldCount();
+            return changedPositions;
+        }
+        this.gameBoard.removeMatches(matches);
+        Set<Position> changedPositions = matches.toPositions();
+        int removedFields = changedPositions.size();
+        changedPositions.addAll(this.gameBoard.moveTokensToBottom());
+        this.movedTokens = changedPositions.size() - removedFields;
+        this.gameBoard.fillWithTokens();
+        this.refilledFields = this.events.isActive() || this.metrics != null
+                ? removedFields - countEmptyFields() : 0;
+        return changedPositions;
+    }
+
+    /**
+     * Counts the empty fields of the board.
+     *
+     * @return the number of fields without a token.
+     */
+    private int countEmptyFields() {
+        int empty = 0;
+        for (int x = 0; x < this.gameBoard.getColumnCount(); x++) {
+            for (int y = 0; y < this.gameBoard.getRowCount(); y++) {
+                if (this.gameBoard.getTokenAt(new Position(x, y)) == null) {
+                    empty++;
+                }
+            }
+        }
+        return empty;
     }
 }
@@ -0,0 +1,321 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates {@link Matcher Matchers} specialized for the deltas of a
+ * {@link MaximumDeltaMatcher} and one board size.
+ * <p>
+ * The flood fill of the matcher is generated as Java source with the field offsets
+ * and the edge checks of every delta as constants, compiled in memory with the
+ * system Java compiler and loaded by its own class loader. The generated class only
+ * uses JDK types and is called through a {@link MethodHandle}. The handle is kept in a
+ * field of the returned matcher, so the JIT doesn't inline the generated method into the
+ * matcher. Every flood fill costs one indirect call, the constants only speed up the loop
+ * over the fields inside the generated method.
+ * </p>
+ * <p>
+ * If no compiler is available at runtime, e.g. on a JRE, or the class can't be
+ * compiled or loaded, the given matcher is returned unchanged. The generated methods
+ * of the recently used combinations of deltas and board size are cached. Evicted
+ * classes and their class loaders can be unloaded as soon as no matcher uses them
+ * anymore. Classes are compiled outside of the lock of the cache, so two threads may
+ * compile the same class at the same time, but only the first result is kept.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public final class MatcherCompiler {
+
+    /**
+     * The name of the generated method.
+     */
+    private static final String METHOD_NAME = "flood";
+
+    /**
+     * The type of the generated method, see {@link SpecializedMatcher}.
+     */
+    private static final MethodType METHOD_TYPE
+            = MethodType.methodType(int.class, int[].class, int.class, BitSet.class, int[].class);
+
+    /**
+     * The maximum number of cached methods.
+     */
+    private static final int CACHE_SIZE = 32;
+
+    /**
+     * The generated methods by the body of their class, empty if the generation failed,
+     * in least recently used order.
+     */
+    private static final Map<String, Optional<MethodHandle>> CACHE
+            = new LinkedHashMap<String, Optional<MethodHandle>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Optional<MethodHandle>> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * The number of generated classes, used for unique class names.
+     */
+    private static final AtomicInteger CLASS_COUNT = new AtomicInteger();
+
+    /**
+     * Utility class, no instances.
+     */
+    private MatcherCompiler() { }
+
+    /**
+     * Returns a matcher that finds the same matches as the given matcher, specialized
+     * for boards of the given size.
+     * <p>
+     * Boards of other sizes are passed to the given matcher.
+     * </p>
+     *
+     * @param matcher
+     *         the matcher to specialize.
+     * @param columns
+     *         the number of columns of the boards.
+     * @param rows
+     *         the number of rows of the boards.
+     *
+     * @return the specialized matcher, or the given matcher if no class could be generated.
+     */
+    public static Matcher specialize(final MaximumDeltaMatcher matcher, final int columns, final int rows) {
+        Objects.requireNonNull(matcher, "Matcher is null!");
+        if (columns < 1 || rows < 1) {
+            return matcher;
+        }
+        String body = generateBody(matcher, columns, rows);
+        Optional<MethodHandle> flood;
+        synchronized (CACHE) {
+            flood = CACHE.get(body);
+        }
+        if (flood == null) {
+            Optional<MethodHandle> compiled = compile(body);
+            synchronized (CACHE) {
+                flood = CACHE.putIfAbsent(body, compiled);
+            }
+            if (flood == null) {
+                flood = compiled;
+            }
+        }
+        if (!flood.isPresent()) {
+            return matcher;
+        }
+        return new SpecializedMatcher(matcher, columns, rows, flood.get());
+    }
+
+    /**
+     * Generates the body of the class, everything after the class name.
+     *
+     * @param matcher
+     *         the matcher to specialize.
+     * @param columns
+     *         the number of columns of the boards.
+     * @param rows
+     *         the number of rows of the boards.
+     *
+     * @return the source of the class body.
+     */
+    private static String generateBody(final MaximumDeltaMatcher matcher, final int columns, final int rows) {
+        StringBuilder source = new StringBuilder();
+        source.append(" {\n")
+                .append("    public static int ").append(METHOD_NAME)
+                .append("(int[] cells, int start, java.util.BitSet visited, int[] frontier) {\n")
+                .append("        int token = cells[start];\n")
+                .append("        int head = 0;\n")
+                .append("        int tail = 1;\n")
+                .append("        frontier[0] = start;\n")
+                .append("        visited.set(start);\n")
+                .append("        while (head < tail) {\n")
+                .append("            int index = frontier[head++];\n")
+                .append("            int x = index % ").append(columns).append(";\n")
+                .append("            int y = index / ").append(columns).append(";\n")
+                .append("            int next;\n");
+        for (int i = 0; i < matcher.deltaCount(); i++) {
+            int dx = matcher.deltaX(i);
+            int dy = matcher.deltaY(i);
+            if (Math.abs(dx) >= columns || Math.abs(dy) >= rows) {
+                continue;
+            }
+            StringBuilder condition = new StringBuilder("true");
+            if (dx > 0) {
+                condition.append(" && x < ").append(columns - dx);
+            } else if (dx < 0) {
+                condition.append(" && x >= ").append(-dx);
+            }
+            if (dy > 0) {
+                condition.append(" && y < ").append(rows - dy);
+            } else if (dy < 0) {
+                condition.append(" && y >= ").append(-dy);
+            }
+            source.append("            if (").append(condition).append(") {\n")
+                    .append("                next = index + ").append(dy * columns + dx).append(";\n")
+                    .append("                if (cells[next] == token && !visited.get(next)) {\n")
+                    .append("                    visited.set(next);\n")
+                    .append("                    frontier[tail++] = next;\n")
+                    .append("                }\n")
+                    .append("            }\n");
+        }
+        source.append("        }\n")
+                .append("        return tail;\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    /**
+     * Compiles and loads a generated class.
+     *
+     * @param body
+     *         the source of the class body.
+     *
+     * @return the generated method, or nothing if the class couldn't be generated.
+     */
+    private static Optional<MethodHandle> compile(final String body) {
+        try {
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            if (compiler == null) {
+                return Optional.empty();
+            }
+            String name = "GeneratedFlood" + CLASS_COUNT.incrementAndGet();
+            JavaFileObject source = new SourceFile(name, "public final class " + name + body);
+            try (MemoryFileManager files
+                         = new MemoryFileManager(compiler.getStandardFileManager(null, null, null))) {
+                boolean compiled = compiler.getTask(new StringWriter(), files, null, Arrays.asList("-g:none"),
+                        null, Collections.singletonList(source)).call();
+                if (!compiled) {
+                    return Optional.empty();
+                }
+                Class<?> generated = new GeneratedClassLoader(files.classes).loadClass(name);
+                return Optional.of(MethodHandles.publicLookup().findStatic(generated, METHOD_NAME, METHOD_TYPE));
+            }
+        } catch (IOException | RuntimeException | ReflectiveOperationException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * A source file in memory.
+     */
+    private static final class SourceFile extends SimpleJavaFileObject {
+
+        /**
+         * The source of the file.
+         */
+        private final String source;
+
+        /**
+         * Creates a new source file.
+         *
+         * @param name
+         *         the name of the class.
+         * @param source
+         *         the source of the class.
+         */
+        private SourceFile(final String name, final String source) {
+            super(URI.create("string:///" + name + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+            return this.source;
+        }
+    }
+
+    /**
+     * A file manager that keeps the compiled classes in memory.
+     */
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<JavaFileManager> {
+
+        /**
+         * The byte code of the compiled classes by their name.
+         */
+        private final Map<String, ByteArrayOutputStream> classes = new HashMap<>();
+
+        /**
+         * Creates a new file manager.
+         *
+         * @param fileManager
+         *         the file manager to read the JDK classes with.
+         */
+        private MemoryFileManager(final JavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(final Location location, final String className,
+                                                   final JavaFileObject.Kind kind, final FileObject sibling) {
+            return new SimpleJavaFileObject(URI.create("bytes:///" + className + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    MemoryFileManager.this.classes.put(className, bytes);
+                    return bytes;
+                }
+            };
+        }
+    }
+
+    /**
+     * A class loader for the classes of one compilation.
+     */
+    private static final class GeneratedClassLoader extends ClassLoader {
+
+        /**
+         * The byte code of the compiled classes by their name.
+         */
+        private final Map<String, ByteArrayOutputStream> classes;
+
+        /**
+         * Creates a new class loader.
+         *
+         * @param classes
+         *         the byte code of the compiled classes by their name.
+         */
+        private GeneratedClassLoader(final Map<String, ByteArrayOutputStream> classes) {
+            super(MatcherCompiler.class.getClassLoader());
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> findClass(final String name) throws ClassNotFoundException {
+            ByteArrayOutputStream bytes = this.classes.get(name);
+            if (bytes == null) {
+                throw new ClassNotFoundException(name);
+            }
+            byte[] code = bytes.toByteArray();
+            return defineClass(name, code, 0, code.length);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package edu.kit.informatik.matchthree;
 
 import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.MatchQuery;
+import edu.kit.informatik.matchthree.framework.MatchResult;
 import edu.kit.informatik.matchthree.framework.Position;
 import edu.kit.informatik.matchthree.framework.Token;
 import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
@@ -8,7 +10,12 @@ import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationE
 import edu.kit.informatik.matchthree.framework.interfaces.Board;
 import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
 
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -22,17 +29,23 @@ import java.util.Set;
  * </p>
  *
  * @author David Oberacker
- * @version 1.0.2
+ * @version 1.5.0
  */
 public class MaximumDeltaMatcher implements Matcher {
 
     /**
-     * The deltas to find the the new matches from existing ones.
+     * The column offsets of the deltas to find the new matches from existing ones.
      * <p>
-     *     Only contains {@link Delta} which aren't {@literal null} or {@literal "(0,0)"}.
+     *     Contains every given {@link Delta} and its negation once, at the same
+     *     index as the matching row offset in {@link MaximumDeltaMatcher#deltaY}.
      * </p>
      */
-    private final Set<Delta> deltas;
+    private final int[] deltaX;
+
+    /**
+     * The row offsets of the deltas to find the new matches from existing ones.
+     */
+    private final int[] deltaY;
 
     /**
      * Creates a new {@link MaximumDeltaMatcher}, with the specified
@@ -56,7 +69,19 @@ public class MaximumDeltaMatcher implements Matcher {
         if (deltas.contains(null) || deltas.contains(new Delta(0, 0))) {
             throw new MatcherInitializationException("Set of deltas contains invalid deltas(null or (0,0))!");
         }
-        this.deltas = deltas;
+        Set<Delta> directions = new LinkedHashSet<>();
+        for (Delta delta : deltas) {
+            directions.add(delta);
+            directions.add(delta.negate());
+        }
+        this.deltaX = new int[directions.size()];
+        this.deltaY = new int[directions.size()];
+        int i = 0;
+        for (Delta delta : directions) {
+            this.deltaX[i] = delta.dx;
+            this.deltaY[i] = delta.dy;
+            i++;
+        }
     }
 
     @Override
@@ -67,44 +92,632 @@ public class MaximumDeltaMatcher implements Matcher {
                     , initial.toString()));
         }
         Set<Set<Position>> result = new HashSet<>();
-        Token tokenType = board.getTokenAt(initial);
-        if (tokenType == null) {
+        int columns = board.getColumnCount();
+        BoardFlood flood = new BoardFlood(board);
+        int start = initial.y * columns + initial.x;
+        if (flood.isEmpty(start)) {
             result.add(new HashSet<>());
             return result;
         }
 
+        int count = flood.fill(start, Integer.MAX_VALUE);
         Set<Position> matchedPositions = new HashSet<>();
-        Set<Position> newMatchedPositions = new HashSet<>();
-        matchedPositions.add(initial);
-
-        do {
-            matchedPositions.addAll(newMatchedPositions);
-            newMatchedPositions.addAll(matchedPositions);
-            for (Delta delta : this.deltas) {
-                for (Position position : matchedPositions) {
-                    Position plusDelta = position.plus(delta);
-                    Position minusDelta = position.plus(delta.scale(-1));
-                    if (board.containsPosition(plusDelta) && tokenType.equals(board.getTokenAt(plusDelta))) {
-                        newMatchedPositions.add(plusDelta);
-                    }
-                    if (board.containsPosition(minusDelta) && tokenType.equals(board.getTokenAt(minusDelta))) {
-                        newMatchedPositions.add(minusDelta);
+        for (int i = 0; i < count; i++) {
+            matchedPositions.add(new Position(flood.frontier[i] % columns, flood.frontier[i] / columns));
+        }
+        result.add(matchedPositions);
+        return result;
+    }
+
+    @Override
+    public Set<Set<Position>> matchAll(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        return matchAllCompact(board, initial).toSets();
+    }
+
+    /**
+     * Returns all matches found on the board starting from the given set of
+     * initial positions.
+     * <p>
+     *     Every field that is already part of a found match is skipped as a
+     *     starting point, because it would only find the same match again.
+     *     So every match is computed only once.
+     * </p>
+     *
+     * @param board
+     *         the board to match on
+     * @param initial
+     *         the positions to start matching from. Must not be null.
+     *
+     * @return all matches found
+     *
+     * @throws BoardDimensionException
+     *         if one of the initial positions is not contained in the board
+     */
+    @Override
+    public MatchResult matchAllCompact(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        return matchFrom(board, initial, 0, false, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the matches asked for by the query, found on the board starting
+     * from the given set of initial positions.
+     * <p>
+     *     Matches with too few fields are never added to the result. If the query
+     *     stops at the first match, no further initial position is looked at after
+     *     the first large enough match. For {@link MatchQuery.Mode#ANY} the flood fill
+     *     itself stops as soon as it reached the minimum size.
+     * </p>
+     *
+     * @param board
+     *         the board to match on
+     * @param initial
+     *         the positions to start matching from. Must not be null.
+     * @param query
+     *         the matches to find. Must not be null.
+     *
+     * @return the matches asked for
+     *
+     * @throws BoardDimensionException
+     *         if one of the initial positions is not contained in the board
+     */
+    @Override
+    public MatchResult matchAllCompact(final Board board, final Set<Position> initial, final MatchQuery query)
+            throws BoardDimensionException {
+        Objects.requireNonNull(query, "Query is null!");
+        return matchFrom(board, initial, query.getMinSize(), query.stopsAtFirstMatch(), limitOf(query));
+    }
+
+    /**
+     * Collects the matches of the initial positions.
+     *
+     * @param board
+     *         the board to match on
+     * @param initial
+     *         the positions to start matching from. Must not be null.
+     * @param minSize
+     *         the minimum number of fields of a match, 0 to also add the empty match.
+     * @param first
+     *         whether to stop after the first match.
+     * @param limit
+     *         the number of fields after which a flood fill may stop.
+     *
+     * @return the matches.
+     *
+     * @throws BoardDimensionException
+     *         if one of the initial positions is not contained in the board
+     */
+    private MatchResult matchFrom(final Board board, final Set<Position> initial, final int minSize,
+                                  final boolean first, final int limit) throws BoardDimensionException {
+        Objects.requireNonNull(board, "Board is null!");
+        Objects.requireNonNull(initial, "Set of initial positions is null!");
+        for (Position p : initial) {
+            if (!board.containsPosition(p)) {
+                throw new BoardDimensionException(String.format("the position \"%s\" isn't on the board!", p));
+            }
+        }
+        int columns = board.getColumnCount();
+        BoardFlood flood = new BoardFlood(board);
+        MatchResult.Builder matches = new MatchResult.Builder(columns);
+        boolean hasEmptyMatch = false;
+        for (Position p : initial) {
+            int start = p.y * columns + p.x;
+            if (flood.visited.get(start)) {
+                continue;
+            }
+            if (flood.isEmpty(start)) {
+                flood.visited.set(start);
+                if (!hasEmptyMatch && minSize == 0) {
+                    hasEmptyMatch = true;
+                    matches.endMatch();
+                }
+                continue;
+            }
+            int count = flood.fill(start, limit);
+            if (count >= minSize) {
+                matches.addCells(flood.frontier, count).endMatch();
+                if (first) {
+                    break;
+                }
+            }
+        }
+        return matches.build();
+    }
+
+    /**
+     * Returns the number of fields after which a flood fill may stop for a query.
+     *
+     * @param query
+     *         the query.
+     *
+     * @return the minimum size for {@link MatchQuery.Mode#ANY}, no limit otherwise.
+     */
+    private static int limitOf(final MatchQuery query) {
+        return query.getMode() == MatchQuery.Mode.ANY ? query.getMinSize() : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Collects the indices of all fields that are delta-connected to the
+     * initial field on a snapshot of the board.
+     * <p>
+     *     Works like {@link MaximumDeltaMatcher#match(Board, Position)}, but
+     *     reads the token ordinals instead of the board.
+     * </p>
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param columns
+     *         the number of columns of the board.
+     * @param start
+     *         the index of the initial field, must not be empty.
+     * @param visited
+     *         the fields that have already been visited. All collected fields are marked.
+     * @param frontier
+     *         a queue with space for every field of the board.
+     *
+     * @return the number of collected fields, their indices are at the start of {@code frontier}.
+     */
+    int floodCells(final int[] cells, final int columns, final int start, final BitSet visited,
+                   final int[] frontier) {
+        return floodCells(cells, columns, start, visited, frontier, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Collects the indices of the fields that are delta-connected to the
+     * initial field on a snapshot of the board, until the given number of
+     * fields is reached.
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param columns
+     *         the number of columns of the board.
+     * @param start
+     *         the index of the initial field, must not be empty.
+     * @param visited
+     *         the fields that have already been visited. All collected fields are marked.
+     * @param frontier
+     *         a queue with space for every field of the board.
+     * @param limit
+     *         the number of fields after which the flood fill stops, even if the match is incomplete.
+     *
+     * @return the number of collected fields, their indices are at the start of {@code frontier}.
+     */
+    int floodCells(final int[] cells, final int columns, final int start, final BitSet visited,
+                   final int[] frontier, final int limit) {
+        return floodCells(tableOf(cells, columns), cells, columns, start, visited, frontier, limit);
+    }
+
+    /**
+     * Collects the indices of the fields that are delta-connected to the
+     * initial field with a neighbour table that was fetched once for all
+     * flood fills on the snapshot.
+     * <p>
+     *     Every field is expanded exactly once. A field that is already marked
+     *     in {@code visited} is not added to the match.
+     * </p>
+     *
+     * @param table
+     *         the neighbour table of the deltas for the size of the board.
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param columns
+     *         the number of columns of the board.
+     * @param start
+     *         the index of the initial field, must not be empty.
+     * @param visited
+     *         the fields that have already been visited. All collected fields are marked.
+     * @param frontier
+     *         a queue with space for every field of the board.
+     * @param limit
+     *         the number of fields after which the flood fill stops, even if the match is incomplete.
+     *
+     * @return the number of collected fields, their indices are at the start of {@code frontier}.
+     */
+    private static int floodCells(final NeighbourTable table, final int[] cells, final int columns,
+                                  final int start, final BitSet visited, final int[] frontier, final int limit) {
+        int head = 0;
+        int tail = 0;
+        frontier[tail++] = start;
+        visited.set(start);
+        while (head < tail && tail < limit) {
+            int index = frontier[head++];
+            for (int w = 0; w < table.words(); w++) {
+                for (long valid = table.valid(index % columns, index / columns, w); valid != 0; valid &= valid - 1) {
+                    int next = index + table.offset((w << 6) + Long.numberOfTrailingZeros(valid));
+                    if (!visited.get(next) && cells[next] == cells[start]) {
+                        visited.set(next);
+                        frontier[tail++] = next;
                     }
                 }
             }
-        } while (!matchedPositions.equals(newMatchedPositions));
+        }
+        return tail;
+    }
 
+    /**
+     * Returns the neighbour table of the deltas for a snapshot of a board.
+     * <p>
+     *     The tables are shared by a synchronized cache, so the table is fetched
+     *     once per call of a matcher and not once per flood fill.
+     * </p>
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param columns
+     *         the number of columns of the board.
+     *
+     * @return the neighbour table.
+     */
+    NeighbourTable tableOf(final int[] cells, final int columns) {
+        return NeighbourTable.of(this.deltaX, this.deltaY, columns, cells.length / columns);
+    }
 
-        result.add(matchedPositions);
-        return result;
+    /**
+     * Labels all delta-connected components of equal tokens on the board in
+     * a single pass.
+     * <p>
+     *     Every field is joined with the fields reachable by one of the deltas
+     *     in a {@link UnionFind}.
+     * </p>
+     *
+     * @param board
+     *         the board to match on
+     *
+     * @return the same matches as {@link #matchAll(Board, Set)} with all positions of the board.
+     */
+    @Override
+    public Set<Set<Position>> matchBoard(final Board board) {
+        return matchBoardCompact(board).toSets();
     }
 
     @Override
-    public Set<Set<Position>> matchAll(Board board, Set<Position> initial) throws BoardDimensionException {
-        Set<Set<Position>> matches = new HashSet<>();
-        for (Position p : initial) {
-            matches.addAll(this.match(board, p));
+    public MatchResult matchBoardCompact(final Board board) {
+        return labelBoard(board, 0);
+    }
+
+    /**
+     * Returns the matches asked for by the query, found on the board starting
+     * from every position of the board.
+     * <p>
+     *     If the query stops at the first match, the board is flood filled field by
+     *     field until a large enough match is found, instead of labeling the whole
+     *     board. Otherwise the board is labeled and only the large enough
+     *     components are added to the result.
+     * </p>
+     *
+     * @param board
+     *         the board to match on
+     * @param query
+     *         the matches to find. Must not be null.
+     *
+     * @return the matches asked for
+     */
+    @Override
+    public MatchResult matchBoardCompact(final Board board, final MatchQuery query) {
+        Objects.requireNonNull(board, "Board is null!");
+        Objects.requireNonNull(query, "Query is null!");
+        if (!query.stopsAtFirstMatch()) {
+            return labelBoard(board, query.getMinSize());
+        }
+        int columns = board.getColumnCount();
+        int[] cells = Boards.ordinals(board);
+        NeighbourTable table = tableOf(cells, columns);
+        int[] frontier = new int[cells.length];
+        BitSet visited = new BitSet(cells.length);
+        MatchResult.Builder matches = new MatchResult.Builder(columns);
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != 0 && !visited.get(i)) {
+                int count = floodCells(table, cells, columns, i, visited, frontier, limitOf(query));
+                if (count >= query.getMinSize()) {
+                    matches.addCells(frontier, count).endMatch();
+                    break;
+                }
+            }
+        }
+        return matches.build();
+    }
+
+    /**
+     * Labels all components of the board and collects the large enough ones.
+     *
+     * @param board
+     *         the board to match on
+     * @param minSize
+     *         the minimum number of fields of a match, 0 to also add the empty match.
+     *
+     * @return the matches.
+     */
+    private MatchResult labelBoard(final Board board, final int minSize) {
+        Objects.requireNonNull(board, "Board is null!");
+        int columns = board.getColumnCount();
+        int rows = board.getRowCount();
+        int[] cells = Boards.ordinals(board);
+        UnionFind components = new UnionFind(cells.length);
+        joinRows(cells, columns, 0, rows, 0, rows, components);
+        int[] roots = components.roots();
+
+        int[] offsets = new int[cells.length + 1];
+        boolean hasEmptyField = false;
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] == 0) {
+                hasEmptyField = true;
+            } else {
+                offsets[roots[i] + 1]++;
+            }
+        }
+        for (int i = 0; i < cells.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] sorted = new int[offsets[cells.length]];
+        int[] next = Arrays.copyOf(offsets, cells.length);
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != 0) {
+                sorted[next[roots[i]]++] = i;
+            }
+        }
+        MatchResult.Builder matches = new MatchResult.Builder(columns);
+        for (int root = 0; root < cells.length; root++) {
+            int size = offsets[root + 1] - offsets[root];
+            if (size > 0 && size >= minSize) {
+                for (int i = offsets[root]; i < offsets[root + 1]; i++) {
+                    matches.addCell(sorted[i]);
+                }
+                matches.endMatch();
+            }
+        }
+        if (hasEmptyField && minSize == 0) {
+            matches.endMatch();
+        }
+        return matches.build();
+    }
+
+    /**
+     * Returns the number of deltas, including the negations of the given deltas.
+     *
+     * @return the number of deltas.
+     */
+    int deltaCount() {
+        return this.deltaX.length;
+    }
+
+    /**
+     * Returns the column offset of a delta.
+     *
+     * @param delta
+     *         the index of the delta.
+     *
+     * @return the column offset.
+     */
+    int deltaX(final int delta) {
+        return this.deltaX[delta];
+    }
+
+    /**
+     * Returns the row offset of a delta.
+     *
+     * @param delta
+     *         the index of the delta.
+     *
+     * @return the row offset.
+     */
+    int deltaY(final int delta) {
+        return this.deltaY[delta];
+    }
+
+    /**
+     * Returns the largest row offset of the deltas.
+     *
+     * @return the largest absolute row offset of all deltas.
+     */
+    int maxRowOffset() {
+        int max = 0;
+        for (int dy : this.deltaY) {
+            max = Math.max(max, Math.abs(dy));
+        }
+        return max;
+    }
+
+    /**
+     * Joins all fields in the given rows with their equal neighbours in the
+     * given neighbour rows.
+     * <p>
+     *     Only the entries of the {@link UnionFind} of the fields in both row ranges
+     *     are changed, so ranges that don't overlap can be joined concurrently.
+     * </p>
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param columns
+     *         the number of columns of the board.
+     * @param fromRow
+     *         the first row of the fields, inclusive.
+     * @param toRow
+     *         the last row of the fields, exclusive.
+     * @param fromNeighbourRow
+     *         the first row of the neighbours, inclusive.
+     * @param toNeighbourRow
+     *         the last row of the neighbours, exclusive. Must not be larger than the number of rows.
+     * @param components
+     *         the components of the board.
+     */
+    void joinRows(final int[] cells, final int columns, final int fromRow, final int toRow,
+                  final int fromNeighbourRow, final int toNeighbourRow, final UnionFind components) {
+        NeighbourTable table = tableOf(cells, columns);
+        for (int y = fromRow; y < toRow; y++) {
+            for (int x = 0; x < columns; x++) {
+                int index = y * columns + x;
+                if (cells[index] == 0) {
+                    continue;
+                }
+                for (int w = 0; w < table.words(); w++) {
+                    for (long valid = table.valid(x, y, w); valid != 0; valid &= valid - 1) {
+                        int delta = (w << 6) + Long.numberOfTrailingZeros(valid);
+                        int ny = y + table.rowOffset(delta);
+                        int next = index + table.offset(delta);
+                        if (ny >= fromNeighbourRow && ny < toNeighbourRow && cells[index] == cells[next]) {
+                            components.union(index, next);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the non-empty fields of a range of indices to the matches of their components.
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param columns
+     *         the number of columns of the board.
+     * @param from
+     *         the first index, inclusive.
+     * @param to
+     *         the last index, exclusive.
+     * @param roots
+     *         the root of the component of every field, see {@link UnionFind#roots()}.
+     * @param selected
+     *         the roots of the components to collect or {@code null} to collect all components.
+     * @param matches
+     *         the matches by the root of their component.
+     */
+    static void collectComponents(final int[] cells, final int columns, final int from, final int to,
+                                  final int[] roots, final BitSet selected, final Map<Integer, Set<Position>> matches) {
+        for (int i = from; i < to; i++) {
+            if (cells[i] != 0 && (selected == null || selected.get(roots[i]))) {
+                matches.computeIfAbsent(roots[i], root -> new HashSet<>())
+                        .add(new Position(i % columns, i / columns));
+            }
+        }
+    }
+
+    /**
+     * A flood fill that reads the fields of a board directly, without copying the board.
+     * <p>
+     *     On a {@link MatchThreeBoard} the ordinals are read from the board, so only the
+     *     lazily filled fields a flood fill reaches get their tokens. Other boards are
+     *     read through {@link Board#getTokenAt(Position)}. The queue and the visited fields
+     *     grow with the reached fields, so a small match doesn't allocate space for the
+     *     whole board. The visited fields are shared by all flood fills of the instance.
+     * </p>
+     */
+    private final class BoardFlood {
+
+        /**
+         * The board to match on.
+         */
+        private final Board board;
+
+        /**
+         * The board if it's a {@link MatchThreeBoard}, otherwise {@code null}.
+         */
+        private final MatchThreeBoard fields;
+
+        /**
+         * The number of columns of the board.
+         */
+        private final int columns;
+
+        /**
+         * The neighbour table of the deltas for the size of the board.
+         */
+        private final NeighbourTable table;
+
+        /**
+         * The fields that have already been visited, indexed by row-major index.
+         */
+        private final BitSet visited = new BitSet();
+
+        /**
+         * The queue of the last flood fill, its fields are at the start.
+         */
+        private int[] frontier = new int[16];
+
+        /**
+         * Creates a new flood fill on a board.
+         *
+         * @param board
+         *         the board to match on.
+         */
+        private BoardFlood(final Board board) {
+            this.board = board;
+            this.fields = board instanceof MatchThreeBoard ? (MatchThreeBoard) board : null;
+            this.columns = board.getColumnCount();
+            this.table = NeighbourTable.of(MaximumDeltaMatcher.this.deltaX, MaximumDeltaMatcher.this.deltaY,
+                    this.columns, board.getRowCount());
+        }
+
+        /**
+         * Checks if a field is empty.
+         *
+         * @param index
+         *         the row-major index of the field.
+         *
+         * @return {@code true} iff the field has no token.
+         */
+        private boolean isEmpty(final int index) {
+            if (this.fields != null) {
+                return this.fields.ordinalAt(index) == 0;
+            }
+            return tokenAt(index) == null;
+        }
+
+        /**
+         * Collects the fields that are delta-connected to the initial field and have its token.
+         * <p>
+         *     Every field is expanded exactly once. A field that is already visited is not
+         *     added to the match. All added fields are marked as visited.
+         * </p>
+         *
+         * @param start
+         *         the index of the initial field, must not be empty.
+         * @param limit
+         *         the number of fields after which the flood fill stops, even if the match is incomplete.
+         *
+         * @return the number of collected fields, their indices are at the start of {@link BoardFlood#frontier}.
+         */
+        private int fill(final int start, final int limit) {
+            int ordinal = this.fields == null ? 0 : this.fields.ordinalAt(start);
+            Token token = this.fields == null ? tokenAt(start) : null;
+            int head = 0;
+            int tail = 0;
+            this.frontier[tail++] = start;
+            this.visited.set(start);
+            while (head < tail && tail < limit) {
+                int index = this.frontier[head++];
+                int x = index % this.columns;
+                int y = index / this.columns;
+                for (int w = 0; w < this.table.words(); w++) {
+                    for (long valid = this.table.valid(x, y, w); valid != 0; valid &= valid - 1) {
+                        int next = index + this.table.offset((w << 6) + Long.numberOfTrailingZeros(valid));
+                        if (this.visited.get(next)) {
+                            continue;
+                        }
+                        if (this.fields != null ? this.fields.ordinalAt(next) == ordinal
+                                : token.equals(tokenAt(next))) {
+                            this.visited.set(next);
+                            if (tail == this.frontier.length) {
+                                this.frontier = Arrays.copyOf(this.frontier, tail * 2);
+                            }
+                            this.frontier[tail++] = next;
+                        }
+                    }
+                }
+            }
+            return tail;
+        }
+
+        /**
+         * Reads the token of a field of a board that isn't a {@link MatchThreeBoard}.
+         *
+         * @param index
+         *         the row-major index of the field.
+         *
+         * @return the token or {@code null} if the field is empty.
+         */
+        private Token tokenAt(final int index) {
+            return this.board.getTokenAt(new Position(index % this.columns, index / this.columns));
         }
-        return matches;
     }
 }
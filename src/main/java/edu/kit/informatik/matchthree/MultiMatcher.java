@@ -13,7 +13,7 @@ import java.util.Set;
  * and use both results as matched positions.
  *
  * @author David Oberacker
- * @version 1.0.1
+ * @version 1.2.0
  */
 public class MultiMatcher implements Matcher {
 
@@ -80,14 +80,29 @@ public class MultiMatcher implements Matcher {
      *
      * @throws BoardDimensionException
      *         if one of the initial positions is not contained in the board
-     * @see #match(Board, Position)
+     * @see Matcher#matchAll(Board, Set)
      */
     @Override
     public Set<Set<Position>> matchAll(final Board board, final Set<Position> initial) {
         Set<Set<Position>> matches = new HashSet<>();
-        for (Position p : initial) {
-            matches.addAll(this.match(board, p));
-        }
+        matches.addAll(matcherA.matchAll(board, initial));
+        matches.addAll(matcherB.matchAll(board, initial));
+        return matches;
+    }
+
+    /**
+     * Returns all matches of both matchers starting from every position of the board.
+     *
+     * @param board
+     *         the board to match on
+     *
+     * @return all matches found
+     */
+    @Override
+    public Set<Set<Position>> matchBoard(final Board board) {
+        Set<Set<Position>> matches = new HashSet<>();
+        matches.addAll(matcherA.matchBoard(board));
+        matches.addAll(matcherB.matchBoard(board));
         return matches;
     }
 }
@@ -0,0 +1,232 @@
+package edu.kit.informatik.matchthree;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The neighbour offsets of a set of deltas, compiled for one board size.
+ * <p>
+ *     Every delta is stored as the offset of the row-major field index. Instead
+ *     of checking the coordinates of every neighbour, the deltas that stay on the
+ *     board are looked up in bit masks per column and per row: the delta {@code i}
+ *     can be applied to the field {@code (x,y)} iff bit {@code i} is set in both
+ *     masks of {@code x} and {@code y}.
+ * </p>
+ * <p>
+ *     Tables are cached by deltas and board size, so matchers with the same deltas
+ *     share them.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+final class NeighbourTable {
+
+    /**
+     * The maximum number of cached tables.
+     */
+    private static final int CACHE_SIZE = 64;
+
+    /**
+     * The cached tables, in least recently used order.
+     */
+    private static final Map<Key, NeighbourTable> CACHE = new LinkedHashMap<Key, NeighbourTable>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, NeighbourTable> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * The field index offset of every delta.
+     */
+    private final int[] offsets;
+
+    /**
+     * The row offset of every delta.
+     */
+    private final int[] rowOffsets;
+
+    /**
+     * The number of mask words per column and row.
+     */
+    private final int words;
+
+    /**
+     * The deltas that stay on the board in x direction, {@link NeighbourTable#words} words per column.
+     */
+    private final long[] columnMasks;
+
+    /**
+     * The deltas that stay on the board in y direction, {@link NeighbourTable#words} words per row.
+     */
+    private final long[] rowMasks;
+
+    /**
+     * Compiles a table.
+     *
+     * @param deltaX
+     *         the column offsets of the deltas.
+     * @param deltaY
+     *         the row offsets of the deltas.
+     * @param columns
+     *         the number of columns of the board.
+     * @param rows
+     *         the number of rows of the board.
+     */
+    private NeighbourTable(final int[] deltaX, final int[] deltaY, final int columns, final int rows) {
+        this.offsets = new int[deltaX.length];
+        this.rowOffsets = deltaY.clone();
+        this.words = (deltaX.length + 63) >>> 6;
+        this.columnMasks = new long[columns * this.words];
+        this.rowMasks = new long[rows * this.words];
+        for (int i = 0; i < deltaX.length; i++) {
+            this.offsets[i] = deltaY[i] * columns + deltaX[i];
+            for (int x = Math.max(0, -deltaX[i]); x < Math.min(columns, columns - deltaX[i]); x++) {
+                this.columnMasks[x * this.words + (i >>> 6)] |= 1L << i;
+            }
+            for (int y = Math.max(0, -deltaY[i]); y < Math.min(rows, rows - deltaY[i]); y++) {
+                this.rowMasks[y * this.words + (i >>> 6)] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Returns the table for the given deltas and board size.
+     *
+     * @param deltaX
+     *         the column offsets of the deltas.
+     * @param deltaY
+     *         the row offsets of the deltas.
+     * @param columns
+     *         the number of columns of the board.
+     * @param rows
+     *         the number of rows of the board.
+     *
+     * @return the compiled table.
+     */
+    static NeighbourTable of(final int[] deltaX, final int[] deltaY, final int columns, final int rows) {
+        Key key = new Key(deltaX, deltaY, columns, rows);
+        synchronized (CACHE) {
+            NeighbourTable table = CACHE.get(key);
+            if (table == null) {
+                table = new NeighbourTable(deltaX, deltaY, columns, rows);
+                CACHE.put(key, table);
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Returns the number of mask words per field.
+     *
+     * @return the number of words.
+     */
+    int words() {
+        return this.words;
+    }
+
+    /**
+     * Returns the deltas that can be applied to a field.
+     *
+     * @param x
+     *         the column of the field.
+     * @param y
+     *         the row of the field.
+     * @param word
+     *         the index of the mask word.
+     *
+     * @return the bits of the deltas {@code 64 * word} to {@code 64 * word + 63} that stay on the board.
+     */
+    long valid(final int x, final int y, final int word) {
+        return this.columnMasks[x * this.words + word] & this.rowMasks[y * this.words + word];
+    }
+
+    /**
+     * Returns the field index offset of a delta.
+     *
+     * @param delta
+     *         the index of the delta.
+     *
+     * @return the field index offset.
+     */
+    int offset(final int delta) {
+        return this.offsets[delta];
+    }
+
+    /**
+     * Returns the row offset of a delta.
+     *
+     * @param delta
+     *         the index of the delta.
+     *
+     * @return the row offset.
+     */
+    int rowOffset(final int delta) {
+        return this.rowOffsets[delta];
+    }
+
+    /**
+     * The key of a cached table.
+     */
+    private static final class Key {
+
+        /**
+         * The column offsets of the deltas.
+         */
+        private final int[] deltaX;
+
+        /**
+         * The row offsets of the deltas.
+         */
+        private final int[] deltaY;
+
+        /**
+         * The number of columns of the board.
+         */
+        private final int columns;
+
+        /**
+         * The number of rows of the board.
+         */
+        private final int rows;
+
+        /**
+         * Creates a new key.
+         *
+         * @param deltaX
+         *         the column offsets of the deltas.
+         * @param deltaY
+         *         the row offsets of the deltas.
+         * @param columns
+         *         the number of columns of the board.
+         * @param rows
+         *         the number of rows of the board.
+         */
+        private Key(final int[] deltaX, final int[] deltaY, final int columns, final int rows) {
+            this.deltaX = deltaX;
+            this.deltaY = deltaY;
+            this.columns = columns;
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.columns == other.columns && this.rows == other.rows
+                    && Arrays.equals(this.deltaX, other.deltaX) && Arrays.equals(this.deltaY, other.deltaY);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * (31 * this.columns + this.rows) + Arrays.hashCode(this.deltaX)) * 31
+                    + Arrays.hashCode(this.deltaY);
+        }
+    }
+}
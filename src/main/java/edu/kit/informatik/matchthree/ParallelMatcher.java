@@ -0,0 +1,546 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.MatchQuery;
+import edu.kit.informatik.matchthree.framework.MatchResult;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A ParallelMatcher is a {@link Matcher}, which labels the components of a
+ * {@link MaximumDeltaMatcher} on large boards in parallel.
+ * <p>
+ * The board is split into bands of rows. The components inside each band are
+ * joined in a {@link UnionFind} on a {@link ForkJoinPool}, and the components
+ * crossing the seam between two bands are joined when both bands are done.
+ * The result is the same as the result of the decorated matcher.
+ * </p>
+ * <p>
+ * Small boards, single positions and small sets of initial positions are
+ * passed to the decorated matcher, because a flood fill from a few positions
+ * is faster than labeling the whole board.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public class ParallelMatcher implements Matcher {
+
+    /**
+     * The minimum number of fields of a board to label it in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    /**
+     * The minimum fraction ({@code 1 / INITIAL_FRACTION}) of the fields of a board
+     * that must be initial positions of {@link ParallelMatcher#matchAll(Board, Set)}
+     * to label the whole board.
+     */
+    private static final int INITIAL_FRACTION = 4;
+
+    /**
+     * The number of bands per thread of the pool, to balance uneven bands.
+     */
+    private static final int BANDS_PER_THREAD = 4;
+
+    /**
+     * The decorated matcher.
+     */
+    private final MaximumDeltaMatcher matcher;
+
+    /**
+     * The pool to label the bands on.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a new {@link ParallelMatcher} using the common pool.
+     *
+     * @param matcher
+     *         the matcher to decorate.
+     */
+    public ParallelMatcher(final MaximumDeltaMatcher matcher) {
+        this(matcher, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new {@link ParallelMatcher}.
+     *
+     * @param matcher
+     *         the matcher to decorate.
+     * @param pool
+     *         the pool to label the bands on.
+     */
+    public ParallelMatcher(final MaximumDeltaMatcher matcher, final ForkJoinPool pool) {
+        this.matcher = Objects.requireNonNull(matcher, "Matcher is null!");
+        this.pool = Objects.requireNonNull(pool, "Pool is null!");
+    }
+
+    @Override
+    public Set<Set<Position>> match(final Board board, final Position initial) throws BoardDimensionException {
+        return this.matcher.match(board, initial);
+    }
+
+    @Override
+    public Set<Set<Position>> matchAll(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        Objects.requireNonNull(board, "Board is null!");
+        Objects.requireNonNull(initial, "Set of initial positions is null!");
+        int columns = board.getColumnCount();
+        int size = columns * board.getRowCount();
+        if (size < PARALLEL_THRESHOLD || initial.size() < size / INITIAL_FRACTION) {
+            return this.matcher.matchAll(board, initial);
+        }
+        for (Position p : initial) {
+            if (!board.containsPosition(p)) {
+                throw new BoardDimensionException(String.format("the position \"%s\" isn't on the board!", p));
+            }
+        }
+        int[] cells = Boards.ordinals(board);
+        int[] roots = label(cells, columns, board.getRowCount());
+        BitSet selected = new BitSet(size);
+        boolean hasEmptyField = false;
+        for (Position p : initial) {
+            int index = p.y * columns + p.x;
+            hasEmptyField |= cells[index] == 0;
+            selected.set(roots[index]);
+        }
+        return collect(cells, columns, roots, selected, hasEmptyField);
+    }
+
+    @Override
+    public MatchResult matchAllCompact(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        return matchAllCompact(board, initial, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Queries that stop at the first match are passed to the decorated matcher,
+     * which stops flooding as soon as the query is answered.
+     * </p>
+     */
+    @Override
+    public MatchResult matchAllCompact(final Board board, final Set<Position> initial, final MatchQuery query)
+            throws BoardDimensionException {
+        Objects.requireNonNull(query, "Query is null!");
+        if (query.stopsAtFirstMatch()) {
+            return this.matcher.matchAllCompact(board, initial, query);
+        }
+        return matchAllCompact(board, initial, query.getMinSize());
+    }
+
+    @Override
+    public MatchResult matchBoardCompact(final Board board) {
+        return matchBoardCompact(board, 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Queries that stop at the first match are passed to the decorated matcher,
+     * which stops flooding as soon as the query is answered.
+     * </p>
+     */
+    @Override
+    public MatchResult matchBoardCompact(final Board board, final MatchQuery query) {
+        Objects.requireNonNull(query, "Query is null!");
+        if (query.stopsAtFirstMatch()) {
+            return this.matcher.matchBoardCompact(board, query);
+        }
+        return matchBoardCompact(board, query.getMinSize());
+    }
+
+    /**
+     * Finds the matches containing the initial positions, labeling large boards in parallel.
+     *
+     * @param board
+     *         the board to match on.
+     * @param initial
+     *         the positions to start matching from.
+     * @param minSize
+     *         the minimum number of fields of a match, 0 to also add the empty match.
+     *
+     * @return the matches.
+     *
+     * @throws BoardDimensionException
+     *         if one of the initial positions is not contained in the board.
+     */
+    private MatchResult matchAllCompact(final Board board, final Set<Position> initial, final int minSize)
+            throws BoardDimensionException {
+        Objects.requireNonNull(board, "Board is null!");
+        Objects.requireNonNull(initial, "Set of initial positions is null!");
+        int columns = board.getColumnCount();
+        int size = columns * board.getRowCount();
+        if (size < PARALLEL_THRESHOLD || initial.size() < size / INITIAL_FRACTION) {
+            MatchResult matches = this.matcher.matchAllCompact(board, initial);
+            return minSize == 0 ? matches : matches.withMinSize(minSize);
+        }
+        for (Position p : initial) {
+            if (!board.containsPosition(p)) {
+                throw new BoardDimensionException(String.format("the position \"%s\" isn't on the board!", p));
+            }
+        }
+        int[] cells = Boards.ordinals(board);
+        int[] roots = label(cells, columns, board.getRowCount());
+        BitSet selected = new BitSet(size);
+        boolean hasEmptyField = false;
+        for (Position p : initial) {
+            int index = p.y * columns + p.x;
+            hasEmptyField |= cells[index] == 0;
+            selected.set(roots[index]);
+        }
+        return toResult(cells, columns, roots, selected, minSize, hasEmptyField);
+    }
+
+    /**
+     * Finds all matches of the board, labeling large boards in parallel.
+     *
+     * @param board
+     *         the board to match on.
+     * @param minSize
+     *         the minimum number of fields of a match, 0 to also add the empty match.
+     *
+     * @return the matches.
+     */
+    private MatchResult matchBoardCompact(final Board board, final int minSize) {
+        Objects.requireNonNull(board, "Board is null!");
+        int columns = board.getColumnCount();
+        if (columns * board.getRowCount() < PARALLEL_THRESHOLD) {
+            return minSize == 0 ? this.matcher.matchBoardCompact(board)
+                    : this.matcher.matchBoardCompact(board, MatchQuery.all(minSize));
+        }
+        int[] cells = Boards.ordinals(board);
+        boolean hasEmptyField = false;
+        for (int cell : cells) {
+            hasEmptyField |= cell == 0;
+        }
+        return toResult(cells, columns, label(cells, columns, board.getRowCount()), null, minSize, hasEmptyField);
+    }
+
+    @Override
+    public Set<Set<Position>> matchBoard(final Board board) {
+        Objects.requireNonNull(board, "Board is null!");
+        int columns = board.getColumnCount();
+        if (columns * board.getRowCount() < PARALLEL_THRESHOLD) {
+            return this.matcher.matchBoard(board);
+        }
+        int[] cells = Boards.ordinals(board);
+        boolean hasEmptyField = false;
+        for (int cell : cells) {
+            hasEmptyField |= cell == 0;
+        }
+        return collect(cells, columns, label(cells, columns, board.getRowCount()), null, hasEmptyField);
+    }
+
+    /**
+     * Joins the components of the board in parallel.
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param columns
+     *         the number of columns of the board.
+     * @param rows
+     *         the number of rows of the board.
+     *
+     * @return the root of the component of every field.
+     */
+    private int[] label(final int[] cells, final int columns, final int rows) {
+        UnionFind components = new UnionFind(cells.length);
+        int bandRows = Math.max(1, rows / (this.pool.getParallelism() * BANDS_PER_THREAD));
+        this.pool.invoke(new LabelTask(cells, columns, 0, rows, bandRows, components));
+        return components.roots();
+    }
+
+    /**
+     * Collects the selected components in parallel.
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param columns
+     *         the number of columns of the board.
+     * @param roots
+     *         the root of the component of every field.
+     * @param selected
+     *         the roots of the components to collect or {@code null} to collect all components.
+     * @param hasEmptyField
+     *         whether the result contains the empty match.
+     *
+     * @return the matches.
+     */
+    private Set<Set<Position>> collect(final int[] cells, final int columns, final int[] roots,
+                                       final BitSet selected, final boolean hasEmptyField) {
+        int chunk = Math.max(columns, cells.length / (this.pool.getParallelism() * BANDS_PER_THREAD));
+        Set<Set<Position>> result
+                = new HashSet<>(this.pool.invoke(new CollectTask(cells, columns, 0, cells.length, chunk, roots,
+                selected)).values());
+        if (hasEmptyField) {
+            result.add(new HashSet<>());
+        }
+        return result;
+    }
+
+    /**
+     * Builds the result of the selected components directly from the roots.
+     * <p>
+     * The fields are sorted by the root of their component with a counting sort,
+     * so no sets of positions are built.
+     * </p>
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param columns
+     *         the number of columns of the board.
+     * @param roots
+     *         the root of the component of every field.
+     * @param selected
+     *         the roots of the components to collect or {@code null} to collect all components.
+     * @param minSize
+     *         the minimum number of fields of a match, 0 to also add the empty match.
+     * @param hasEmptyField
+     *         whether the empty match was found.
+     *
+     * @return the matches.
+     */
+    private static MatchResult toResult(final int[] cells, final int columns, final int[] roots,
+                                        final BitSet selected, final int minSize, final boolean hasEmptyField) {
+        int[] offsets = new int[cells.length + 1];
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != 0 && (selected == null || selected.get(roots[i]))) {
+                offsets[roots[i] + 1]++;
+            }
+        }
+        for (int i = 0; i < cells.length; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] sorted = new int[offsets[cells.length]];
+        int[] next = Arrays.copyOf(offsets, cells.length);
+        for (int i = 0; i < cells.length; i++) {
+            if (cells[i] != 0 && (selected == null || selected.get(roots[i]))) {
+                sorted[next[roots[i]]++] = i;
+            }
+        }
+        MatchResult.Builder matches = new MatchResult.Builder(columns);
+        for (int root = 0; root < cells.length; root++) {
+            int size = offsets[root + 1] - offsets[root];
+            if (size > 0 && size >= minSize) {
+                for (int i = offsets[root]; i < offsets[root + 1]; i++) {
+                    matches.addCell(sorted[i]);
+                }
+                matches.endMatch();
+            }
+        }
+        if (hasEmptyField && minSize == 0) {
+            matches.endMatch();
+        }
+        return matches.build();
+    }
+
+    /**
+     * Joins the components of a range of rows.
+     * <p>
+     * The range is split in half until it's at most one band high. After both
+     * halves are joined, the fields close enough to the seam are joined with
+     * their neighbours in the other half. Concurrent tasks work on disjoint
+     * rows, so they never change the same entries of the {@link UnionFind}.
+     * </p>
+     */
+    private final class LabelTask extends RecursiveAction {
+
+        /**
+         * Serial version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The token ordinals of the board in row-major order.
+         */
+        private final int[] cells;
+
+        /**
+         * The number of columns of the board.
+         */
+        private final int columns;
+
+        /**
+         * The first row of the range, inclusive.
+         */
+        private final int fromRow;
+
+        /**
+         * The last row of the range, exclusive.
+         */
+        private final int toRow;
+
+        /**
+         * The maximum number of rows of a band.
+         */
+        private final int bandRows;
+
+        /**
+         * The components of the board.
+         */
+        private final UnionFind components;
+
+        /**
+         * Creates a new task.
+         *
+         * @param cells
+         *         the token ordinals of the board in row-major order.
+         * @param columns
+         *         the number of columns of the board.
+         * @param fromRow
+         *         the first row of the range, inclusive.
+         * @param toRow
+         *         the last row of the range, exclusive.
+         * @param bandRows
+         *         the maximum number of rows of a band.
+         * @param components
+         *         the components of the board.
+         */
+        private LabelTask(final int[] cells, final int columns, final int fromRow, final int toRow,
+                          final int bandRows, final UnionFind components) {
+            this.cells = cells;
+            this.columns = columns;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.bandRows = bandRows;
+            this.components = components;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.toRow - this.fromRow <= this.bandRows) {
+                matcher.joinRows(this.cells, this.columns, this.fromRow, this.toRow, this.fromRow, this.toRow,
+                        this.components);
+                return;
+            }
+            int seam = (this.fromRow + this.toRow) >>> 1;
+            invokeAll(new LabelTask(this.cells, this.columns, this.fromRow, seam, this.bandRows, this.components),
+                    new LabelTask(this.cells, this.columns, seam, this.toRow, this.bandRows, this.components));
+            matcher.joinRows(this.cells, this.columns, Math.max(this.fromRow, seam - matcher.maxRowOffset()), seam,
+                    seam, this.toRow, this.components);
+        }
+    }
+
+    /**
+     * Collects the fields of a range of indices by the root of their component.
+     */
+    private static final class CollectTask extends RecursiveTask<Map<Integer, Set<Position>>> {
+
+        /**
+         * Serial version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The token ordinals of the board in row-major order.
+         */
+        private final int[] cells;
+
+        /**
+         * The number of columns of the board.
+         */
+        private final int columns;
+
+        /**
+         * The first index of the range, inclusive.
+         */
+        private final int from;
+
+        /**
+         * The last index of the range, exclusive.
+         */
+        private final int to;
+
+        /**
+         * The maximum number of indices collected by one task.
+         */
+        private final int chunk;
+
+        /**
+         * The root of the component of every field.
+         */
+        private final int[] roots;
+
+        /**
+         * The roots of the components to collect or {@code null} to collect all components.
+         */
+        private final BitSet selected;
+
+        /**
+         * Creates a new task.
+         *
+         * @param cells
+         *         the token ordinals of the board in row-major order.
+         * @param columns
+         *         the number of columns of the board.
+         * @param from
+         *         the first index of the range, inclusive.
+         * @param to
+         *         the last index of the range, exclusive.
+         * @param chunk
+         *         the maximum number of indices collected by one task.
+         * @param roots
+         *         the root of the component of every field.
+         * @param selected
+         *         the roots of the components to collect or {@code null} to collect all components.
+         */
+        private CollectTask(final int[] cells, final int columns, final int from, final int to, final int chunk,
+                            final int[] roots, final BitSet selected) {
+            this.cells = cells;
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.roots = roots;
+            this.selected = selected;
+        }
+
+        @Override
+        protected Map<Integer, Set<Position>> compute() {
+            if (this.to - this.from <= this.chunk) {
+                Map<Integer, Set<Position>> matches = new HashMap<>();
+                MaximumDeltaMatcher.collectComponents(this.cells, this.columns, this.from, this.to, this.roots,
+                        this.selected, matches);
+                return matches;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            CollectTask left = new CollectTask(this.cells, this.columns, this.from, middle, this.chunk, this.roots,
+                    this.selected);
+            left.fork();
+            Map<Integer, Set<Position>> matches = new CollectTask(this.cells, this.columns, middle, this.to,
+                    this.chunk, this.roots, this.selected).compute();
+            Map<Integer, Set<Position>> other = left.join();
+            if (other.size() > matches.size()) {
+                Map<Integer, Set<Position>> tmp = matches;
+                matches = other;
+                other = tmp;
+            }
+            for (Map.Entry<Integer, Set<Position>> entry : other.entrySet()) {
+                matches.merge(entry.getKey(), entry.getValue(), (a, b) -> {
+                    if (a.size() < b.size()) {
+                        b.addAll(a);
+                        return b;
+                    }
+                    a.addAll(b);
+                    return a;
+                });
+            }
+            return matches;
+        }
+    }
+}
@@ -0,0 +1,418 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A PatternMatcher is a {@link Matcher}, which finds matches defined by shapes.
+ * <p>
+ * A shape is a set of {@link Delta Deltas} relative to an anchor field. A shape
+ * matches at an anchor, if all its fields are on the board and hold the same
+ * token. Only placements of the shapes that cover one of the initial positions
+ * are tested. Matching placements that share a field are merged into one match.
+ * </p>
+ * <p>
+ * The shapes are compiled into one flat array of field index offsets for the
+ * width of the board, so testing a placement only reads the token ordinals of
+ * the board and allocates nothing. The compiled shapes are reused as long as the
+ * width of the boards doesn't change.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public class PatternMatcher implements Matcher {
+
+    /**
+     * An L of three fields down and two fields to the right.
+     */
+    public static final Set<Delta> L_SHAPE = shape(0, 0, 0, 1, 0, 2, 1, 2, 2, 2);
+
+    /**
+     * A T of three fields to the right and two fields down from the middle.
+     */
+    public static final Set<Delta> T_SHAPE = shape(0, 0, 1, 0, 2, 0, 1, 1, 1, 2);
+
+    /**
+     * A plus of five fields.
+     */
+    public static final Set<Delta> PLUS_SHAPE = shape(1, 0, 0, 1, 1, 1, 2, 1, 1, 2);
+
+    /**
+     * A square of two by two fields.
+     */
+    public static final Set<Delta> SQUARE_SHAPE = shape(0, 0, 1, 0, 0, 1, 1, 1);
+
+    /**
+     * The shapes of the matcher.
+     */
+    private final List<Delta[]> shapes;
+
+    /**
+     * The shapes compiled for the last board width.
+     */
+    private volatile CompiledShapes compiled;
+
+    /**
+     * Creates a new {@link PatternMatcher}.
+     *
+     * @param shapes
+     *         the shapes to match. Each shape must contain at least 2 deltas and no {@code null}.
+     *         The shapes are moved so that their smallest column and row offsets are 0, which
+     *         doesn't change the matches.
+     *
+     * @throws MatcherInitializationException
+     *         if no shape is given or one of the shapes is invalid.
+     */
+    public PatternMatcher(final Set<Set<Delta>> shapes) throws MatcherInitializationException {
+        Objects.requireNonNull(shapes, "Set of shapes is null!");
+        if (shapes.isEmpty()) {
+            throw new MatcherInitializationException("Set of shapes contains no shapes!");
+        }
+        this.shapes = new ArrayList<>();
+        for (Set<Delta> shape : shapes) {
+            if (shape == null || shape.size() < 2 || shape.contains(null)) {
+                throw new MatcherInitializationException("Set of shapes contains invalid shapes!");
+            }
+            Set<Delta> normalized = normalize(shape);
+            this.shapes.add(normalized.toArray(new Delta[normalized.size()]));
+        }
+    }
+
+    /**
+     * Returns the shape and its rotations by 90, 180 and 270 degrees.
+     *
+     * @param shape
+     *         the shape to rotate. Must not be {@code null}.
+     *
+     * @return the distinct rotations of the shape, normalized to start at {@literal (0,0)}.
+     */
+    public static Set<Set<Delta>> rotations(final Set<Delta> shape) {
+        Objects.requireNonNull(shape, "Shape is null!");
+        Set<Set<Delta>> rotations = new LinkedHashSet<>();
+        Set<Delta> current = shape;
+        for (int i = 0; i < 4; i++) {
+            rotations.add(normalize(current));
+            Set<Delta> rotated = new HashSet<>();
+            for (Delta delta : current) {
+                rotated.add(new Delta(-delta.dy, delta.dx));
+            }
+            current = rotated;
+        }
+        return rotations;
+    }
+
+    @Override
+    public Set<Set<Position>> match(final Board board, final Position initial) throws BoardDimensionException {
+        return matchAll(board, Collections.singleton(initial));
+    }
+
+    @Override
+    public Set<Set<Position>> matchAll(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        Objects.requireNonNull(board, "Board is null!");
+        Objects.requireNonNull(initial, "Set of initial positions is null!");
+        for (Position p : initial) {
+            if (!board.containsPosition(p)) {
+                throw new BoardDimensionException(String.format("the position \"%s\" isn't on the board!", p));
+            }
+        }
+        int columns = board.getColumnCount();
+        int rows = board.getRowCount();
+        CompiledShapes shapes = compile(columns);
+        int[] cells = Boards.ordinals(board);
+
+        long[] placements = new long[16];
+        int count = 0;
+        for (Position p : initial) {
+            if (cells[p.y * columns + p.x] == 0) {
+                continue;
+            }
+            for (int s = 0; s < shapes.count(); s++) {
+                for (int f = shapes.start[s]; f < shapes.start[s + 1]; f++) {
+                    int anchorX = p.x - shapes.deltaX[f];
+                    int anchorY = p.y - shapes.deltaY[f];
+                    if (shapes.matches(cells, columns, rows, s, anchorX, anchorY)) {
+                        if (count == placements.length) {
+                            placements = Arrays.copyOf(placements, count * 2);
+                        }
+                        placements[count++] = ((long) s << Integer.SIZE)
+                                | ((anchorY * columns + anchorX) & 0xFFFFFFFFL);
+                    }
+                }
+            }
+        }
+        Arrays.sort(placements, 0, count);
+        return merge(shapes, placements, count, columns);
+    }
+
+    /**
+     * Merges the fields of placements that share a field.
+     *
+     * @param shapes
+     *         the compiled shapes.
+     * @param placements
+     *         the sorted matching placements, as shape index in the upper and anchor index in the lower half.
+     * @param count
+     *         the number of placements at the start of the array.
+     * @param columns
+     *         the number of columns of the board.
+     *
+     * @return the matches.
+     */
+    private static Set<Set<Position>> merge(final CompiledShapes shapes, final long[] placements, final int count,
+                                            final int columns) {
+        Map<Integer, Set<Integer>> matchOfField = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            long placement = placements[i];
+            if (i > 0 && placement == placements[i - 1]) {
+                continue;
+            }
+            int shape = (int) (placement >>> Integer.SIZE);
+            int anchor = (int) placement;
+            Set<Integer> match = new HashSet<>();
+            for (int f = shapes.start[shape]; f < shapes.start[shape + 1]; f++) {
+                int field = anchor + shapes.offsets[f];
+                Set<Integer> other = matchOfField.get(field);
+                if (other != null && other != match) {
+                    if (other.size() > match.size()) {
+                        Set<Integer> tmp = match;
+                        match = other;
+                        other = tmp;
+                    }
+                    match.addAll(other);
+                    for (int moved : other) {
+                        matchOfField.put(moved, match);
+                    }
+                }
+                match.add(field);
+                matchOfField.put(field, match);
+            }
+        }
+
+        Set<Set<Integer>> matches = Collections.newSetFromMap(new IdentityHashMap<>());
+        matches.addAll(matchOfField.values());
+        Set<Set<Position>> result = new HashSet<>();
+        for (Set<Integer> match : matches) {
+            Set<Position> positions = new HashSet<>();
+            for (int field : match) {
+                positions.add(new Position(field % columns, field / columns));
+            }
+            result.add(positions);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the shapes compiled for the given board width.
+     *
+     * @param columns
+     *         the number of columns of the board.
+     *
+     * @return the compiled shapes.
+     */
+    private CompiledShapes compile(final int columns) {
+        CompiledShapes current = this.compiled;
+        if (current == null || current.columns != columns) {
+            current = new CompiledShapes(this.shapes, columns);
+            this.compiled = current;
+        }
+        return current;
+    }
+
+    /**
+     * Creates a shape from pairs of column and row offsets.
+     *
+     * @param offsets
+     *         the column and row offset of every field.
+     *
+     * @return the shape.
+     */
+    private static Set<Delta> shape(final int... offsets) {
+        Set<Delta> shape = new LinkedHashSet<>();
+        for (int i = 0; i < offsets.length; i += 2) {
+            shape.add(new Delta(offsets[i], offsets[i + 1]));
+        }
+        return Collections.unmodifiableSet(shape);
+    }
+
+    /**
+     * Moves a shape so that its smallest column and row offsets are 0.
+     *
+     * @param shape
+     *         the shape.
+     *
+     * @return the moved shape.
+     */
+    private static Set<Delta> normalize(final Set<Delta> shape) {
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        for (Delta delta : shape) {
+            minX = Math.min(minX, delta.dx);
+            minY = Math.min(minY, delta.dy);
+        }
+        Set<Delta> normalized = new HashSet<>();
+        for (Delta delta : shape) {
+            normalized.add(new Delta(delta.dx - minX, delta.dy - minY));
+        }
+        return Collections.unmodifiableSet(normalized);
+    }
+
+    /**
+     * The shapes of a {@link PatternMatcher} compiled for one board width.
+     * <p>
+     * The fields of all shapes are stored in flat arrays, the fields of the shape
+     * {@code s} are at the indices {@code start[s]} to {@code start[s + 1] - 1}.
+     * </p>
+     */
+    private static final class CompiledShapes {
+
+        /**
+         * The board width the shapes are compiled for.
+         */
+        private final int columns;
+
+        /**
+         * The index of the first field of every shape, and the total number of fields at the end.
+         */
+        private final int[] start;
+
+        /**
+         * The column offset of every field.
+         */
+        private final int[] deltaX;
+
+        /**
+         * The row offset of every field.
+         */
+        private final int[] deltaY;
+
+        /**
+         * The field index offset of every field.
+         */
+        private final int[] offsets;
+
+        /**
+         * The smallest column offset of every shape.
+         */
+        private final int[] minX;
+
+        /**
+         * The largest column offset of every shape.
+         */
+        private final int[] maxX;
+
+        /**
+         * The smallest row offset of every shape.
+         */
+        private final int[] minY;
+
+        /**
+         * The largest row offset of every shape.
+         */
+        private final int[] maxY;
+
+        /**
+         * Compiles the shapes.
+         *
+         * @param shapes
+         *         the shapes.
+         * @param columns
+         *         the board width.
+         */
+        private CompiledShapes(final List<Delta[]> shapes, final int columns) {
+            this.columns = columns;
+            this.start = new int[shapes.size() + 1];
+            for (int s = 0; s < shapes.size(); s++) {
+                this.start[s + 1] = this.start[s] + shapes.get(s).length;
+            }
+            int fields = this.start[shapes.size()];
+            this.deltaX = new int[fields];
+            this.deltaY = new int[fields];
+            this.offsets = new int[fields];
+            this.minX = new int[shapes.size()];
+            this.maxX = new int[shapes.size()];
+            this.minY = new int[shapes.size()];
+            this.maxY = new int[shapes.size()];
+            for (int s = 0; s < shapes.size(); s++) {
+                this.minX[s] = Integer.MAX_VALUE;
+                this.minY[s] = Integer.MAX_VALUE;
+                this.maxX[s] = Integer.MIN_VALUE;
+                this.maxY[s] = Integer.MIN_VALUE;
+                int f = this.start[s];
+                for (Delta delta : shapes.get(s)) {
+                    this.deltaX[f] = delta.dx;
+                    this.deltaY[f] = delta.dy;
+                    this.offsets[f] = delta.dy * columns + delta.dx;
+                    this.minX[s] = Math.min(this.minX[s], delta.dx);
+                    this.maxX[s] = Math.max(this.maxX[s], delta.dx);
+                    this.minY[s] = Math.min(this.minY[s], delta.dy);
+                    this.maxY[s] = Math.max(this.maxY[s], delta.dy);
+                    f++;
+                }
+            }
+        }
+
+        /**
+         * Returns the number of shapes.
+         *
+         * @return the number of shapes.
+         */
+        private int count() {
+            return this.start.length - 1;
+        }
+
+        /**
+         * Tests a placement of a shape.
+         *
+         * @param cells
+         *         the token ordinals of the board in row-major order.
+         * @param columns
+         *         the number of columns of the board.
+         * @param rows
+         *         the number of rows of the board.
+         * @param shape
+         *         the index of the shape.
+         * @param anchorX
+         *         the column of the anchor.
+         * @param anchorY
+         *         the row of the anchor.
+         *
+         * @return {@code true} iff all fields of the placement are on the board and hold the same token.
+         */
+        private boolean matches(final int[] cells, final int columns, final int rows, final int shape,
+                                final int anchorX, final int anchorY) {
+            if (anchorX + this.minX[shape] < 0 || anchorX + this.maxX[shape] >= columns
+                    || anchorY + this.minY[shape] < 0 || anchorY + this.maxY[shape] >= rows) {
+                return false;
+            }
+            int anchor = anchorY * columns + anchorX;
+            int token = cells[anchor + this.offsets[this.start[shape]]];
+            if (token == 0) {
+                return false;
+            }
+            for (int f = this.start[shape] + 1; f < this.start[shape + 1]; f++) {
+                if (cells[anchor + this.offsets[f]] != token) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
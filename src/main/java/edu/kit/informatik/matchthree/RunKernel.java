@@ -0,0 +1,57 @@
+package edu.kit.informatik.matchthree;
+
+/**
+ * Finds the starts of runs of equal token ordinals.
+ * <p>
+ * The scalar kernel is always available. On newer JDKs a kernel using the
+ * vector API is loaded from the multi-release part of the jar, if the
+ * {@code jdk.incubator.vector} module is present at runtime.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+interface RunKernel {
+
+    /**
+     * The name of the vector kernel, which is only compiled for newer JDKs.
+     */
+    String VECTOR_KERNEL = "edu.kit.informatik.matchthree.VectorRunKernel";
+
+    /**
+     * Marks every field that is the first field of a run.
+     * <p>
+     * The field {@code i} starts a run iff it's not empty and the fields
+     * {@code i + stride} to {@code i + (runLength - 1) * stride} contain the same
+     * ordinal. The caller has to make sure these fields exist for all fields of
+     * the range.
+     * </p>
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order, 0 for an empty field.
+     * @param from
+     *         the first field to check, inclusive.
+     * @param to
+     *         the last field to check, exclusive.
+     * @param stride
+     *         the index distance between two fields of a run.
+     * @param runLength
+     *         the number of fields of a run.
+     * @param starts
+     *         the flags to set for the fields that start a run.
+     */
+    void markRunStarts(int[] cells, int from, int to, int stride, int runLength, boolean[] starts);
+
+    /**
+     * Returns the fastest kernel available at runtime.
+     *
+     * @return the vector kernel if it can be loaded, the scalar kernel otherwise.
+     */
+    static RunKernel available() {
+        try {
+            return (RunKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarRunKernel();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package edu.kit.informatik.matchthree;
+
+/**
+ * The {@link RunKernel} comparing one field at a time.
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+final class ScalarRunKernel implements RunKernel {
+
+    @Override
+    public void markRunStarts(final int[] cells, final int from, final int to, final int stride,
+                              final int runLength, final boolean[] starts) {
+        mark(cells, from, to, stride, runLength, starts);
+    }
+
+    /**
+     * Marks every field of a range that is the first field of a run.
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order, 0 for an empty field.
+     * @param from
+     *         the first field to check, inclusive.
+     * @param to
+     *         the last field to check, exclusive.
+     * @param stride
+     *         the index distance between two fields of a run.
+     * @param runLength
+     *         the number of fields of a run.
+     * @param starts
+     *         the flags to set for the fields that start a run.
+     *
+     * @see RunKernel#markRunStarts(int[], int, int, int, int, boolean[])
+     */
+    static void mark(final int[] cells, final int from, final int to, final int stride, final int runLength,
+                     final boolean[] starts) {
+        for (int i = from; i < to; i++) {
+            boolean run = cells[i] != 0;
+            for (int j = 1; run && j < runLength; j++) {
+                run = cells[i + j * stride] == cells[i];
+            }
+            starts[i] = run;
+        }
+    }
+}
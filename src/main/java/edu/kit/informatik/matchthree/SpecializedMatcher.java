@@ -0,0 +1,254 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.MatchQuery;
+import edu.kit.informatik.matchthree.framework.MatchResult;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+
+import java.lang.invoke.MethodHandle;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link Matcher} that runs a flood fill generated by the {@link MatcherCompiler}.
+ * <p>
+ * The generated method has the signature
+ * {@code int flood(int[] cells, int start, BitSet visited, int[] frontier)} and works
+ * like {@link MaximumDeltaMatcher#floodCells(int[], int, int, BitSet, int[])} for one
+ * board size. Boards of other sizes are passed to the {@link MaximumDeltaMatcher}
+ * the method was generated for.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+final class SpecializedMatcher implements Matcher {
+
+    /**
+     * The matcher the flood fill was generated for.
+     */
+    private final MaximumDeltaMatcher matcher;
+
+    /**
+     * The number of columns of the boards.
+     */
+    private final int columns;
+
+    /**
+     * The number of rows of the boards.
+     */
+    private final int rows;
+
+    /**
+     * The generated flood fill.
+     */
+    private final MethodHandle flood;
+
+    /**
+     * Creates a new specialized matcher.
+     *
+     * @param matcher
+     *         the matcher the flood fill was generated for.
+     * @param columns
+     *         the number of columns of the boards.
+     * @param rows
+     *         the number of rows of the boards.
+     * @param flood
+     *         the generated flood fill.
+     */
+    SpecializedMatcher(final MaximumDeltaMatcher matcher, final int columns, final int rows,
+                       final MethodHandle flood) {
+        this.matcher = matcher;
+        this.columns = columns;
+        this.rows = rows;
+        this.flood = flood;
+    }
+
+    @Override
+    public Set<Set<Position>> match(final Board board, final Position initial) throws BoardDimensionException {
+        return matchAll(board, Collections.singleton(initial));
+    }
+
+    @Override
+    public Set<Set<Position>> matchAll(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        return matchAllCompact(board, initial).toSets();
+    }
+
+    @Override
+    public Set<Set<Position>> matchBoard(final Board board) {
+        return matchBoardCompact(board).toSets();
+    }
+
+    @Override
+    public MatchResult matchAllCompact(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        Objects.requireNonNull(board, "Board is null!");
+        Objects.requireNonNull(initial, "Set of initial positions is null!");
+        if (!fits(board)) {
+            return this.matcher.matchAllCompact(board, initial);
+        }
+        return matchFrom(board, initial, 0, false);
+    }
+
+    @Override
+    public MatchResult matchAllCompact(final Board board, final Set<Position> initial, final MatchQuery query)
+            throws BoardDimensionException {
+        Objects.requireNonNull(board, "Board is null!");
+        Objects.requireNonNull(initial, "Set of initial positions is null!");
+        Objects.requireNonNull(query, "Query is null!");
+        if (!fits(board)) {
+            return this.matcher.matchAllCompact(board, initial, query);
+        }
+        return matchFrom(board, initial, query.getMinSize(), query.stopsAtFirstMatch());
+    }
+
+    @Override
+    public MatchResult matchBoardCompact(final Board board) {
+        Objects.requireNonNull(board, "Board is null!");
+        if (!fits(board)) {
+            return this.matcher.matchBoardCompact(board);
+        }
+        return matchCells(Boards.ordinals(board), 0, false);
+    }
+
+    @Override
+    public MatchResult matchBoardCompact(final Board board, final MatchQuery query) {
+        Objects.requireNonNull(board, "Board is null!");
+        Objects.requireNonNull(query, "Query is null!");
+        if (!fits(board)) {
+            return this.matcher.matchBoardCompact(board, query);
+        }
+        return matchCells(Boards.ordinals(board), query.getMinSize(), query.stopsAtFirstMatch());
+    }
+
+    /**
+     * Collects the matches of the initial positions with the generated flood fill.
+     * <p>
+     *     The generated flood fill can't stop early, so a query for
+     *     {@link MatchQuery.Mode#ANY} gets the complete first match.
+     * </p>
+     *
+     * @param board
+     *         the board to match on, must have the specialized size.
+     * @param initial
+     *         the positions to start matching from.
+     * @param minSize
+     *         the minimum number of fields of a match, 0 to also add the empty match.
+     * @param first
+     *         whether to stop after the first match.
+     *
+     * @return the matches.
+     *
+     * @throws BoardDimensionException
+     *         if one of the initial positions is not contained in the board
+     */
+    private MatchResult matchFrom(final Board board, final Set<Position> initial, final int minSize,
+                                  final boolean first) throws BoardDimensionException {
+        for (Position p : initial) {
+            if (!board.containsPosition(p)) {
+                throw new BoardDimensionException(String.format("the position \"%s\" isn't on the board!", p));
+            }
+        }
+        int[] cells = Boards.ordinals(board);
+        int[] frontier = new int[cells.length];
+        BitSet covered = new BitSet(cells.length);
+        MatchResult.Builder matches = new MatchResult.Builder(this.columns);
+        boolean hasEmptyMatch = false;
+        for (Position p : initial) {
+            int index = p.y * this.columns + p.x;
+            if (cells[index] == 0) {
+                if (!hasEmptyMatch && minSize == 0) {
+                    hasEmptyMatch = true;
+                    matches.endMatch();
+                }
+            } else if (!covered.get(index)) {
+                int count = flood(cells, index, covered, frontier);
+                if (count >= minSize) {
+                    matches.addCells(frontier, count).endMatch();
+                    if (first) {
+                        break;
+                    }
+                }
+            }
+        }
+        return matches.build();
+    }
+
+    /**
+     * Collects the matches of all fields of a snapshot with the generated flood fill.
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param minSize
+     *         the minimum number of fields of a match, 0 to also add the empty match.
+     * @param first
+     *         whether to stop after the first match.
+     *
+     * @return the matches.
+     */
+    private MatchResult matchCells(final int[] cells, final int minSize, final boolean first) {
+        int[] frontier = new int[cells.length];
+        BitSet covered = new BitSet(cells.length);
+        MatchResult.Builder matches = new MatchResult.Builder(this.columns);
+        boolean hasEmptyField = false;
+        for (int index = 0; index < cells.length; index++) {
+            if (cells[index] == 0) {
+                hasEmptyField = true;
+            } else if (!covered.get(index)) {
+                int count = flood(cells, index, covered, frontier);
+                if (count >= minSize) {
+                    matches.addCells(frontier, count).endMatch();
+                    if (first) {
+                        return matches.build();
+                    }
+                }
+            }
+        }
+        if (hasEmptyField && minSize == 0) {
+            matches.endMatch();
+        }
+        return matches.build();
+    }
+
+    /**
+     * Checks if the flood fill was generated for the size of the board.
+     *
+     * @param board
+     *         the board to match on.
+     *
+     * @return {@code true} iff the board has the specialized size.
+     */
+    private boolean fits(final Board board) {
+        return board.getColumnCount() == this.columns && board.getRowCount() == this.rows;
+    }
+
+    /**
+     * Runs the generated flood fill. The handle isn't a constant to the JIT, so this is one
+     * indirect call per flood fill that isn't inlined.
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param start
+     *         the index of the initial field, must not be empty.
+     * @param visited
+     *         the fields that have already been visited. All collected fields are marked.
+     * @param frontier
+     *         a queue with space for every field of the board.
+     *
+     * @return the number of collected fields, their indices are at the start of {@code frontier}.
+     */
+    private int flood(final int[] cells, final int start, final BitSet visited, final int[] frontier) {
+        try {
+            return (int) this.flood.invokeExact(cells, start, visited, frontier);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Generated matcher failed!", e);
+        }
+    }
+}
@@ -0,0 +1,604 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.TokenStringParseException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A StreamingMatcher finds the components of a {@link MaximumDeltaMatcher} on boards
+ * stored in files, without loading the whole board.
+ * <p>
+ * The file is read row by row through a {@link FileChannel}. Only the last rows that
+ * can still be reached by a delta are kept, together with a {@link UnionFind}-like
+ * forest of the components that touch these rows. A component is emitted as soon as
+ * no following row can reach it anymore, so the memory needed only depends on the
+ * width of the board, the largest row offset of the deltas and the size of the open
+ * components.
+ * </p>
+ * <p>
+ * The stream contains the same non-empty matches as
+ * {@link MaximumDeltaMatcher#matchBoard(Board)}. The empty match is never emitted.
+ * The stream has to be closed to close the file.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public class StreamingMatcher {
+
+    /**
+     * The size of the read buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The separator of two rows in a token string.
+     */
+    private static final char ROW_SEPARATOR = ';';
+
+    /**
+     * The matcher whose deltas are used.
+     */
+    private final MaximumDeltaMatcher matcher;
+
+    /**
+     * Creates a new {@link StreamingMatcher}.
+     *
+     * @param matcher
+     *         the matcher whose deltas are used.
+     */
+    public StreamingMatcher(final MaximumDeltaMatcher matcher) {
+        this.matcher = Objects.requireNonNull(matcher, "Matcher is null!");
+    }
+
+    /**
+     * Streams the components of a board stored as token string.
+     * <p>
+     * The file contains a token string as returned by {@link Board#toTokenString()},
+     * encoded in a single byte encoding, so every token has to be a single ASCII
+     * character. Line breaks are ignored.
+     * </p>
+     *
+     * @param file
+     *         the file to read.
+     * @param tokens
+     *         the valid tokens of the board.
+     *
+     * @return the components, in the order they are completed.
+     *
+     * @throws IOException
+     *         if the file can't be opened.
+     * @throws TokenStringParseException
+     *         while streaming, if the file contains an invalid token or rows of different lengths.
+     */
+    public Stream<Set<Position>> matchTokenFile(final Path file, final Set<Token> tokens) throws IOException {
+        Objects.requireNonNull(file, "File is null!");
+        Objects.requireNonNull(tokens, "Tokens is null!");
+        int[] ordinals = new int[1 << Byte.SIZE];
+        Arrays.fill(ordinals, -1);
+        ordinals[' '] = 0;
+        int ordinal = 1;
+        for (Token token : tokens) {
+            String text = token.toString();
+            if (text.length() != 1 || text.charAt(0) >= ordinals.length) {
+                throw new TokenStringParseException(String.format("Token \"%s\" is not a single character!", text));
+            }
+            ordinals[text.charAt(0)] = ordinal++;
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        return stream(new TokenRowReader(channel, ordinals), channel);
+    }
+
+    /**
+     * Streams the components of a board stored as ordinals.
+     * <p>
+     * The file contains one byte per field in row-major order, as returned by
+     * {@link MatchThreeBoard#toByteArray()}.
+     * </p>
+     *
+     * @param file
+     *         the file to read.
+     * @param columns
+     *         the number of columns of the board. Must be at least 1.
+     *
+     * @return the components, in the order they are completed.
+     *
+     * @throws IOException
+     *         if the file can't be opened.
+     * @throws BoardDimensionException
+     *         if the number of columns is smaller than 1, or while streaming, if the last row is incomplete.
+     */
+    public Stream<Set<Position>> matchBinaryFile(final Path file, final int columns) throws IOException {
+        Objects.requireNonNull(file, "File is null!");
+        if (columns < 1) {
+            throw new BoardDimensionException("Number of columns is smaller than 1!");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        return stream(new BinaryRowReader(channel, columns), channel);
+    }
+
+    /**
+     * Creates the stream of the components of the rows of a reader.
+     *
+     * @param reader
+     *         the reader of the rows.
+     * @param channel
+     *         the channel to close with the stream.
+     *
+     * @return the components.
+     */
+    private Stream<Set<Position>> stream(final RowReader reader, final FileChannel channel) {
+        return StreamSupport.stream(new Components(reader), false).onClose(() -> {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Reads the rows of a board from a channel.
+     */
+    private abstract static class RowReader {
+
+        /**
+         * The channel to read from.
+         */
+        private final FileChannel channel;
+
+        /**
+         * The buffer of read bytes.
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        /**
+         * Creates a new reader.
+         *
+         * @param channel
+         *         the channel to read from.
+         */
+        RowReader(final FileChannel channel) {
+            this.channel = channel;
+            this.buffer.flip();
+        }
+
+        /**
+         * Reads the next byte.
+         *
+         * @return the byte as unsigned value, or {@code -1} at the end of the file.
+         */
+        int read() {
+            if (!this.buffer.hasRemaining()) {
+                this.buffer.clear();
+                try {
+                    int count;
+                    do {
+                        count = this.channel.read(this.buffer);
+                    } while (count == 0);
+                    this.buffer.flip();
+                    if (count < 0) {
+                        return -1;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return this.buffer.get() & 0xFF;
+        }
+
+        /**
+         * Reads the next row.
+         *
+         * @return the ordinals of the row, or {@code null} at the end of the file.
+         */
+        abstract int[] next();
+    }
+
+    /**
+     * Reads the rows of a token string.
+     */
+    private static final class TokenRowReader extends RowReader {
+
+        /**
+         * The ordinal of every byte, {@code -1} for invalid bytes.
+         */
+        private final int[] ordinals;
+
+        /**
+         * The number of columns, {@code -1} before the first row.
+         */
+        private int columns = -1;
+
+        /**
+         * The next row.
+         */
+        private int[] row = new int[16];
+
+        /**
+         * Creates a new reader.
+         *
+         * @param channel
+         *         the channel to read from.
+         * @param ordinals
+         *         the ordinal of every byte, {@code -1} for invalid bytes.
+         */
+        private TokenRowReader(final FileChannel channel, final int[] ordinals) {
+            super(channel);
+            this.ordinals = ordinals;
+        }
+
+        @Override
+        int[] next() {
+            int length = 0;
+            int next = read();
+            while (next >= 0 && next != ROW_SEPARATOR) {
+                if (next != '\n' && next != '\r') {
+                    if (this.ordinals[next] < 0) {
+                        throw new TokenStringParseException(String.format("Invalid token \"%c\"!", (char) next));
+                    }
+                    if (length == this.row.length) {
+                        this.row = Arrays.copyOf(this.row, length * 2);
+                    }
+                    this.row[length++] = this.ordinals[next];
+                }
+                next = read();
+            }
+            if (next < 0 && length == 0) {
+                return null;
+            }
+            if (this.columns < 0) {
+                this.columns = length;
+            } else if (length != this.columns) {
+                throw new TokenStringParseException("Rows have different lengths!");
+            }
+            return Arrays.copyOf(this.row, length);
+        }
+    }
+
+    /**
+     * Reads the rows of ordinal bytes.
+     */
+    private static final class BinaryRowReader extends RowReader {
+
+        /**
+         * The number of columns.
+         */
+        private final int columns;
+
+        /**
+         * Creates a new reader.
+         *
+         * @param channel
+         *         the channel to read from.
+         * @param columns
+         *         the number of columns.
+         */
+        private BinaryRowReader(final FileChannel channel, final int columns) {
+            super(channel);
+            this.columns = columns;
+        }
+
+        @Override
+        int[] next() {
+            int[] row = new int[this.columns];
+            for (int x = 0; x < this.columns; x++) {
+                int next = read();
+                if (next < 0) {
+                    if (x == 0) {
+                        return null;
+                    }
+                    throw new BoardDimensionException("The last row is incomplete!");
+                }
+                row[x] = next;
+            }
+            return row;
+        }
+    }
+
+    /**
+     * Labels the rows of a reader and emits the completed components.
+     */
+    private final class Components extends Spliterators.AbstractSpliterator<Set<Position>> {
+
+        /**
+         * The reader of the rows.
+         */
+        private final RowReader reader;
+
+        /**
+         * The number of rows kept, one more than the largest row offset of the deltas.
+         */
+        private final int window;
+
+        /**
+         * The column offsets of the deltas that point to a previous field.
+         */
+        private final int[] backX;
+
+        /**
+         * The row offsets of the deltas that point to a previous field, all {@code <= 0}.
+         */
+        private final int[] backY;
+
+        /**
+         * The ordinals of the kept rows, row {@code y} at index {@code y % window}.
+         */
+        private final int[][] rows;
+
+        /**
+         * The node of every field of the kept rows, {@code -1} for empty fields.
+         */
+        private final int[][] labels;
+
+        /**
+         * The parent of every node.
+         */
+        private int[] parent = new int[64];
+
+        /**
+         * The last row of the component of every root.
+         */
+        private int[] lastRow = new int[64];
+
+        /**
+         * The fields of the component of every root, {@code null} for other nodes.
+         */
+        private List<Set<Position>> fields = new ArrayList<>();
+
+        /**
+         * The roots whose components have been emitted.
+         */
+        private BitSet emitted = new BitSet();
+
+        /**
+         * The number of nodes.
+         */
+        private int nodeCount = 0;
+
+        /**
+         * The number of read rows.
+         */
+        private int rowCount = 0;
+
+        /**
+         * Whether the end of the file has been reached.
+         */
+        private boolean done = false;
+
+        /**
+         * The completed components, which haven't been passed to the stream yet.
+         */
+        private final Deque<Set<Position>> ready = new ArrayDeque<>();
+
+        /**
+         * Creates the components of the rows of a reader.
+         *
+         * @param reader
+         *         the reader of the rows.
+         */
+        private Components(final RowReader reader) {
+            super(Long.MAX_VALUE, Spliterator.NONNULL | Spliterator.DISTINCT);
+            this.reader = reader;
+            this.window = matcher.maxRowOffset() + 1;
+            int count = 0;
+            int[] x = new int[matcher.deltaCount()];
+            int[] y = new int[matcher.deltaCount()];
+            for (int i = 0; i < matcher.deltaCount(); i++) {
+                int dx = matcher.deltaX(i);
+                int dy = matcher.deltaY(i);
+                if (dy < 0 || dy == 0 && dx < 0) {
+                    x[count] = dx;
+                    y[count++] = dy;
+                }
+            }
+            this.backX = Arrays.copyOf(x, count);
+            this.backY = Arrays.copyOf(y, count);
+            this.rows = new int[this.window][];
+            this.labels = new int[this.window][];
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super Set<Position>> action) {
+            while (this.ready.isEmpty() && !this.done) {
+                readRow();
+            }
+            if (this.ready.isEmpty()) {
+                return false;
+            }
+            action.accept(this.ready.poll());
+            return true;
+        }
+
+        /**
+         * Reads and labels the next row, then emits the components that can't be reached anymore.
+         */
+        private void readRow() {
+            int[] row = this.reader.next();
+            if (row == null) {
+                for (int r = Math.max(0, this.rowCount - this.window + 1); r < this.rowCount; r++) {
+                    close(r, true);
+                }
+                this.done = true;
+                return;
+            }
+            int y = this.rowCount;
+            int slot = y % this.window;
+            int columns = row.length;
+            this.rows[slot] = row;
+            this.labels[slot] = new int[columns];
+            for (int x = 0; x < columns; x++) {
+                this.labels[slot][x] = row[x] == 0 ? -1 : newNode(x, y);
+            }
+            for (int i = 0; i < this.backX.length; i++) {
+                int ny = y + this.backY[i];
+                if (ny < 0) {
+                    continue;
+                }
+                int[] other = this.rows[ny % this.window];
+                int[] otherLabels = this.labels[ny % this.window];
+                for (int x = Math.max(0, -this.backX[i]); x < Math.min(columns, columns - this.backX[i]); x++) {
+                    int nx = x + this.backX[i];
+                    if (row[x] != 0 && row[x] == other[nx]) {
+                        union(this.labels[slot][x], otherLabels[nx]);
+                    }
+                }
+            }
+            this.rowCount++;
+            if (y - this.window + 1 >= 0) {
+                close(y - this.window + 1, false);
+            }
+            if (this.nodeCount > 2 * this.window * columns + 64) {
+                compact();
+            }
+        }
+
+        /**
+         * Emits the components of a row that can't be reached by a following row.
+         *
+         * @param r
+         *         the row.
+         * @param force
+         *         {@code true} to emit all components of the row.
+         */
+        private void close(final int r, final boolean force) {
+            int[] rowLabels = this.labels[r % this.window];
+            for (int label : rowLabels) {
+                if (label < 0) {
+                    continue;
+                }
+                int root = find(label);
+                if (!this.emitted.get(root) && (force || this.lastRow[root] <= r)) {
+                    this.emitted.set(root);
+                    this.ready.add(this.fields.set(root, null));
+                }
+            }
+        }
+
+        /**
+         * Creates a node for a field.
+         *
+         * @param x
+         *         the column of the field.
+         * @param y
+         *         the row of the field.
+         *
+         * @return the new node.
+         */
+        private int newNode(final int x, final int y) {
+            if (this.nodeCount == this.parent.length) {
+                this.parent = Arrays.copyOf(this.parent, this.nodeCount * 2);
+                this.lastRow = Arrays.copyOf(this.lastRow, this.nodeCount * 2);
+            }
+            this.parent[this.nodeCount] = this.nodeCount;
+            this.lastRow[this.nodeCount] = y;
+            Set<Position> component = new HashSet<>();
+            component.add(new Position(x, y));
+            this.fields.add(component);
+            return this.nodeCount++;
+        }
+
+        /**
+         * Returns the root of a node.
+         *
+         * @param node
+         *         the node.
+         *
+         * @return the root.
+         */
+        private int find(final int node) {
+            int current = node;
+            while (this.parent[current] != current) {
+                this.parent[current] = this.parent[this.parent[current]];
+                current = this.parent[current];
+            }
+            return current;
+        }
+
+        /**
+         * Joins the components of two nodes. The fields of the smaller component are
+         * added to the larger one.
+         *
+         * @param a
+         *         the first node.
+         * @param b
+         *         the second node.
+         */
+        private void union(final int a, final int b) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return;
+            }
+            if (this.fields.get(rootA).size() < this.fields.get(rootB).size()) {
+                int tmp = rootA;
+                rootA = rootB;
+                rootB = tmp;
+            }
+            this.parent[rootB] = rootA;
+            this.fields.get(rootA).addAll(this.fields.set(rootB, null));
+            this.lastRow[rootA] = Math.max(this.lastRow[rootA], this.lastRow[rootB]);
+        }
+
+        /**
+         * Renumbers the nodes, so only the roots of the open components of the kept rows remain.
+         */
+        private void compact() {
+            int[] map = new int[this.nodeCount];
+            Arrays.fill(map, -1);
+            int count = 0;
+            int[] newLastRow = new int[Math.max(64, this.window * this.labels[0].length)];
+            List<Set<Position>> newFields = new ArrayList<>();
+            for (int r = Math.max(0, this.rowCount - this.window); r < this.rowCount; r++) {
+                int[] rowLabels = this.labels[r % this.window];
+                for (int x = 0; x < rowLabels.length; x++) {
+                    if (rowLabels[x] < 0) {
+                        continue;
+                    }
+                    int root = find(rowLabels[x]);
+                    if (this.emitted.get(root)) {
+                        rowLabels[x] = -1;
+                        continue;
+                    }
+                    if (map[root] < 0) {
+                        map[root] = count;
+                        newLastRow[count++] = this.lastRow[root];
+                        newFields.add(this.fields.get(root));
+                    }
+                    rowLabels[x] = map[root];
+                }
+            }
+            this.parent = new int[newLastRow.length];
+            for (int i = 0; i < count; i++) {
+                this.parent[i] = i;
+            }
+            this.lastRow = newLastRow;
+            this.fields = newFields;
+            this.emitted = new BitSet();
+            this.nodeCount = count;
+        }
+    }
+}
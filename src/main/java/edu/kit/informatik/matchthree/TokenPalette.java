@@ -0,0 +1,135 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.Token;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Maps the valid {@link Token tokens} of a board to compact ordinals.
+ * <p>
+ * The ordinal {@code 0} always represents an empty field, the tokens are numbered
+ * from {@code 1} upwards in their natural order. Two palettes created from equal
+ * token sets therefore always assign the same ordinals.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+final class TokenPalette {
+
+    /**
+     * Ordinal representing a empty field.
+     */
+    static final byte EMPTY = 0;
+
+    /**
+     * Maximal amount of tokens a palette can hold, so every ordinal fits into a byte.
+     * <p>
+     * Ordinals are stored as unsigned bytes and have to be read as {@code ordinal & 0xFF}.
+     * </p>
+     */
+    static final int MAX_TOKENS = 255;
+
+    /**
+     * The tokens in their natural order, index {@code i} holds the token with the ordinal {@code i + 1}.
+     */
+    private final Token[] tokens;
+
+    /**
+     * The hash codes of the tokens, index {@code i} holds the hash of the ordinal {@code i}.
+     * <p>
+     * The empty field has the hash code {@code 0}.
+     * </p>
+     */
+    private final int[] hashes;
+
+    /**
+     * Creates a new palette for the given tokens.
+     *
+     * @param tokens
+     *         the tokens of the palette, must not be {@code null} or contain {@code null}.
+     *
+     * @throws IllegalArgumentException
+     *         if there are more than {@link TokenPalette#MAX_TOKENS} tokens.
+     */
+    TokenPalette(final Set<Token> tokens) {
+        Objects.requireNonNull(tokens, "Tokens is null!");
+        if (tokens.size() > MAX_TOKENS) {
+            throw new IllegalArgumentException(String.format("Too many tokens! At most %d tokens are allowed!",
+                    MAX_TOKENS));
+        }
+        this.tokens = tokens.toArray(new Token[tokens.size()]);
+        Arrays.sort(this.tokens);
+        this.hashes = new int[this.tokens.length + 1];
+        for (int i = 0; i < this.tokens.length; i++) {
+            this.hashes[i + 1] = this.tokens[i].hashCode();
+        }
+    }
+
+    /**
+     * Returns the amount of tokens in the palette.
+     *
+     * @return the amount of tokens, the highest ordinal in use.
+     */
+    int size() {
+        return this.tokens.length;
+    }
+
+    /**
+     * Returns the token for the given ordinal.
+     *
+     * @param ordinal
+     *         the ordinal of the token, {@code 0} for a empty field.
+     *
+     * @return the token or {@code null} for a empty field.
+     */
+    Token tokenOf(final int ordinal) {
+        return ordinal == EMPTY ? null : this.tokens[ordinal - 1];
+    }
+
+    /**
+     * Returns the ordinal of the given token.
+     *
+     * @param token
+     *         the token, {@code null} for a empty field.
+     *
+     * @return the ordinal of the token, {@code 0} for {@code null}
+     * or {@code -1} if the token isn't part of the palette.
+     */
+    int ordinalOf(final Token token) {
+        if (token == null) {
+            return EMPTY;
+        }
+        int index = Arrays.binarySearch(this.tokens, token);
+        return index < 0 ? -1 : index + 1;
+    }
+
+    /**
+     * Returns the hash code of the token with the given ordinal.
+     *
+     * @param ordinal
+     *         the ordinal of the token, {@code 0} for a empty field.
+     *
+     * @return the hash code of the token, {@code 0} for a empty field.
+     */
+    int hashOf(final int ordinal) {
+        return this.hashes[ordinal];
+    }
+
+    /**
+     * Returns the weight of a field in the hash code of a board.
+     * <p>
+     * See {@link edu.kit.informatik.matchthree.framework.interfaces.Board#hashCode()}.
+     * </p>
+     *
+     * @param index
+     *         the row major index of the field.
+     *
+     * @return the weight of the field.
+     */
+    static int fieldWeight(final int index) {
+        return 31 * index + 1;
+    }
+}
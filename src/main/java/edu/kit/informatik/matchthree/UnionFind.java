@@ -0,0 +1,97 @@
+package edu.kit.informatik.matchthree;
+
+/**
+ * A disjoint set forest over the indices {@code 0..size-1}.
+ * <p>
+ *     Uses union by size and path halving, so a sequence of operations runs in
+ *     almost linear time.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+final class UnionFind {
+
+    /**
+     * The parent of every index. A root is its own parent.
+     */
+    private final int[] parent;
+
+    /**
+     * The number of indices in the set of a root. Only valid for roots.
+     */
+    private final int[] size;
+
+    /**
+     * Creates a new forest in which every index is in its own set.
+     *
+     * @param count
+     *         the number of indices.
+     */
+    UnionFind(final int count) {
+        this.parent = new int[count];
+        this.size = new int[count];
+        for (int i = 0; i < count; i++) {
+            this.parent[i] = i;
+            this.size[i] = 1;
+        }
+    }
+
+    /**
+     * Returns the root of the set containing the given index.
+     *
+     * @param index
+     *         the index to look up.
+     *
+     * @return the root of the set.
+     */
+    int find(final int index) {
+        int current = index;
+        while (this.parent[current] != current) {
+            this.parent[current] = this.parent[this.parent[current]];
+            current = this.parent[current];
+        }
+        return current;
+    }
+
+    /**
+     * Merges the sets containing the given indices.
+     *
+     * @param a
+     *         the first index.
+     * @param b
+     *         the second index.
+     */
+    void union(final int a, final int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return;
+        }
+        if (this.size[rootA] < this.size[rootB]) {
+            int tmp = rootA;
+            rootA = rootB;
+            rootB = tmp;
+        }
+        this.parent[rootB] = rootA;
+        this.size[rootA] += this.size[rootB];
+    }
+
+    /**
+     * Returns the root of every index.
+     * <p>
+     *     After this call the forest is flat, so the result can be read by
+     *     several threads without calling {@link UnionFind#find(int)}.
+     * </p>
+     *
+     * @return the root of the set containing each index.
+     */
+    int[] roots() {
+        int[] roots = new int[this.parent.length];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = find(i);
+            this.parent[i] = roots[i];
+        }
+        return roots;
+    }
+}
@@ -0,0 +1,191 @@
+package edu.kit.informatik.matchthree;
+
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A VectorLineMatcher is a {@link Matcher} for the same rules as a {@link LineMatcher},
+ * which always scans the whole board.
+ * <p>
+ * The starts of all horizontal runs are found in one pass over the token ordinals
+ * of the board, comparing every field with the fields {@code 1} to
+ * {@code runLength - 1} to the right, and the starts of all vertical runs in one
+ * pass comparing every row with the rows below. These passes are done by a
+ * {@link RunKernel}, which uses the vector API on newer JDKs and compares one
+ * field at a time otherwise. The runs are then joined in a {@link UnionFind}.
+ * </p>
+ * <p>
+ * This matcher is faster than a {@link LineMatcher} for full-board rescans, while
+ * the {@link LineMatcher} is faster for a few initial positions.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public class VectorLineMatcher implements Matcher {
+
+    /**
+     * The kernel finding the run starts.
+     */
+    private static final RunKernel KERNEL = RunKernel.available();
+
+    /**
+     * The minimum number of equal tokens in a row or column to form a match.
+     */
+    private final int minRunLength;
+
+    /**
+     * Creates a new {@link VectorLineMatcher}.
+     *
+     * @param minRunLength
+     *         the minimum length of a run. Must be at least 2.
+     *
+     * @throws MatcherInitializationException
+     *         if the minimum length is smaller than 2.
+     */
+    public VectorLineMatcher(final int minRunLength) throws MatcherInitializationException {
+        if (minRunLength < 2) {
+            throw new MatcherInitializationException("Minimum run length is smaller than 2!");
+        }
+        this.minRunLength = minRunLength;
+    }
+
+    @Override
+    public Set<Set<Position>> match(final Board board, final Position initial) throws BoardDimensionException {
+        return matchAll(board, Collections.singleton(initial));
+    }
+
+    @Override
+    public Set<Set<Position>> matchAll(final Board board, final Set<Position> initial)
+            throws BoardDimensionException {
+        Objects.requireNonNull(board, "Board is null!");
+        Objects.requireNonNull(initial, "Set of initial positions is null!");
+        for (Position p : initial) {
+            if (!board.containsPosition(p)) {
+                throw new BoardDimensionException(String.format("the position \"%s\" isn't on the board!", p));
+            }
+        }
+        int columns = board.getColumnCount();
+        int[] cells = Boards.ordinals(board);
+        BitSet matched = new BitSet(cells.length);
+        int[] roots = label(cells, columns, board.getRowCount(), matched);
+        BitSet selected = new BitSet(cells.length);
+        for (Position p : initial) {
+            int index = p.y * columns + p.x;
+            if (matched.get(index)) {
+                selected.set(roots[index]);
+            }
+        }
+        return collect(cells, columns, roots, selected);
+    }
+
+    @Override
+    public Set<Set<Position>> matchBoard(final Board board) {
+        Objects.requireNonNull(board, "Board is null!");
+        int columns = board.getColumnCount();
+        int[] cells = Boards.ordinals(board);
+        BitSet matched = new BitSet(cells.length);
+        int[] roots = label(cells, columns, board.getRowCount(), matched);
+        BitSet selected = new BitSet(cells.length);
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            selected.set(roots[i]);
+        }
+        return collect(cells, columns, roots, selected);
+    }
+
+    /**
+     * Joins the fields of all runs of the board.
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param columns
+     *         the number of columns of the board.
+     * @param rows
+     *         the number of rows of the board.
+     * @param matched
+     *         the fields that are part of a run. All fields of runs are added.
+     *
+     * @return the root of the component of every field.
+     */
+    private int[] label(final int[] cells, final int columns, final int rows, final BitSet matched) {
+        int span = this.minRunLength - 1;
+        UnionFind components = new UnionFind(cells.length);
+        if (columns > span) {
+            boolean[] starts = new boolean[cells.length];
+            KERNEL.markRunStarts(cells, 0, cells.length - span, 1, this.minRunLength, starts);
+            for (int y = 0; y < rows; y++) {
+                for (int x = 0; x < columns - span; x++) {
+                    int index = y * columns + x;
+                    if (starts[index]) {
+                        join(components, matched, index, 1, span);
+                    }
+                }
+            }
+        }
+        if (rows > span) {
+            boolean[] starts = new boolean[cells.length];
+            KERNEL.markRunStarts(cells, 0, (rows - span) * columns, columns, this.minRunLength, starts);
+            for (int index = 0; index < (rows - span) * columns; index++) {
+                if (starts[index]) {
+                    join(components, matched, index, columns, span);
+                }
+            }
+        }
+        return components.roots();
+    }
+
+    /**
+     * Joins the fields of one run.
+     *
+     * @param components
+     *         the components of the board.
+     * @param matched
+     *         the fields that are part of a run.
+     * @param start
+     *         the first field of the run.
+     * @param stride
+     *         the index distance between two fields of the run.
+     * @param span
+     *         the number of fields of the run after the first one.
+     */
+    private static void join(final UnionFind components, final BitSet matched, final int start, final int stride,
+                             final int span) {
+        matched.set(start);
+        for (int j = 1; j <= span; j++) {
+            components.union(start, start + j * stride);
+            matched.set(start + j * stride);
+        }
+    }
+
+    /**
+     * Collects the fields of the selected components.
+     *
+     * @param cells
+     *         the token ordinals of the board in row-major order.
+     * @param columns
+     *         the number of columns of the board.
+     * @param roots
+     *         the root of the component of every field.
+     * @param selected
+     *         the roots of the components to collect.
+     *
+     * @return the matches.
+     */
+    private static Set<Set<Position>> collect(final int[] cells, final int columns, final int[] roots,
+                                              final BitSet selected) {
+        Map<Integer, Set<Position>> matches = new HashMap<>();
+        MaximumDeltaMatcher.collectComponents(cells, columns, 0, cells.length, roots, selected, matches);
+        return new HashSet<>(matches.values());
+    }
+}
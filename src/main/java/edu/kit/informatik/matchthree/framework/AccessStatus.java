@@ -0,0 +1,38 @@
+package edu.kit.informatik.matchthree.framework;
+
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Move;
+
+/**
+ * The result of an access to a {@link Board} that doesn't throw exceptions.
+ * <p>
+ * It's returned by {@link Board#trySetToken(Position, Token)} and
+ * {@link Move#tryApply(Board)} instead of throwing an exception.
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public enum AccessStatus {
+    /**
+     * The access succeeded.
+     */
+    OK,
+
+    /**
+     * The access failed, because a position is not contained in the board. The
+     * board has not been changed.
+     */
+    POSITION_NOT_ON_BOARD,
+
+    /**
+     * The access failed, because a token is not valid for the board. The board
+     * has not been changed.
+     */
+    ILLEGAL_TOKEN,
+
+    /**
+     * The access failed, because the board is read only. The board has not
+     * been changed.
+     */
+    READ_ONLY
+}
@@ -0,0 +1,47 @@
+package edu.kit.informatik.matchthree.framework;
+
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+
+/**
+ * A {@link FillingStrategy} that can provide the {@link Token} for a single
+ * empty field of a {@link Board}.
+ * <p>
+ * Boards can use this to fill their fields on demand instead of all at once.
+ * The fields of one column have to be requested from the bottom row to the top
+ * row, just like {@link #fill(Board)} traverses them. If this order is kept,
+ * requesting the fields one by one yields the same result as {@link #fill(Board)}.
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public interface CellFillingStrategy extends FillingStrategy {
+
+    /**
+     * Returns the {@link Token} that should be placed on the given empty
+     * field.
+     * <p>
+     * This method must not read or change any field of the board.
+     *
+     * @param board
+     *            the board to fill with tokens. Must not be {@code null}.
+     * @param position
+     *            the empty position on the board to fill. Must not be
+     *            {@code null}.
+     * @return a valid, non-null {@link Token} of the board.
+     */
+    Token nextToken(Board board, Position position);
+
+    /**
+     * Indicates whether the fields of different columns can be requested
+     * concurrently.
+     * <p>
+     * This is the case if the tokens of a column only depend on the requests
+     * for that column and the strategy can be called from several threads at
+     * once, as long as every column is only requested by one of them.
+     *
+     * @return {@code true} iff the columns are independent of each other.
+     */
+    default boolean isColumnIndependent() {
+        return false;
+    }
+}
@@ -3,6 +3,7 @@ package edu.kit.informatik.matchthree.framework;
 import static edu.kit.informatik.matchthree.framework.Position.at;
 
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
@@ -26,8 +27,11 @@ import edu.kit.informatik.matchthree.framework.interfaces.Board;
  * 
  * @author IPD Koziolek
  */
-public final class DeterministicStrategy implements FillingStrategy {
+public final class DeterministicStrategy implements CellFillingStrategy {
     private final Map<Integer, Supplier<Token>> nextTokenProviders;
+    private final Map<Integer, Iterator<Token>> columnIterators;
+    private final Map<Iterator<Token>, Integer> iteratorColumnCounts;
+    private int sharedIterators;
 
     /**
      * Creates a new instance with the given token iterators.
@@ -45,6 +49,8 @@ public final class DeterministicStrategy implements FillingStrategy {
     @SafeVarargs
     public DeterministicStrategy(Iterator<Token>... tokenIterators) {
         nextTokenProviders = new HashMap<>();
+        columnIterators = new HashMap<>();
+        iteratorColumnCounts = new IdentityHashMap<>();
         for (int iteratorColumn = 0; iteratorColumn < tokenIterators.length; iteratorColumn++) {
             setTokenIteratorForColumn(iteratorColumn, tokenIterators[iteratorColumn]);
         }
@@ -71,6 +77,20 @@ public final class DeterministicStrategy implements FillingStrategy {
         ensureValidColumn(column);
 
         this.nextTokenProviders.put(column, () -> nextTokens.hasNext() ? nextTokens.next() : null);
+        Iterator<Token> previous = this.columnIterators.put(column, nextTokens);
+        if (previous != null) {
+            int count = this.iteratorColumnCounts.remove(previous) - 1;
+            if (count > 0) {
+                this.iteratorColumnCounts.put(previous, count);
+            }
+            if (count == 1) {
+                this.sharedIterators--;
+            }
+        }
+        int count = this.iteratorColumnCounts.merge(nextTokens, 1, Integer::sum);
+        if (count == 2) {
+            this.sharedIterators++;
+        }
     }
 
     @Override
@@ -80,14 +100,36 @@ public final class DeterministicStrategy implements FillingStrategy {
         for (int column = 0; column < board.getColumnCount(); column++) {
             for (int row = board.getRowCount() - 1; row >= 0; row--) {
                 if (board.getTokenAt(at(column, row)) == null) {
-                    Token newToken = getNextTokenForColumn(column);
-                    ensureValidToken(board, newToken);
-                    board.setTokenAt(at(column, row), newToken);
+                    board.setTokenAt(at(column, row), nextToken(board, at(column, row)));
                 }
             }
         }
     }
 
+    @Override
+    public Token nextToken(Board board, Position position) {
+        Objects.requireNonNull(board, "The board to fill must not be null");
+        Objects.requireNonNull(position, "The position to fill must not be null");
+
+        Token newToken = getNextTokenForColumn(position.x);
+        ensureValidToken(board, newToken);
+        return newToken;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Every column takes its tokens from its own iterator, unless the same
+     * iterator is set for several columns. Then the tokens depend on the order
+     * the columns are filled in.
+     * 
+     * @return {@code true} iff no iterator is set for more than one column
+     */
+    @Override
+    public boolean isColumnIndependent() {
+        return sharedIterators == 0;
+    }
+
     private void ensureValidToken(Board board, Token newToken) {
         if (!board.getAllValidTokens().contains(newToken)) {
             throw new IllegalTokenException("Token " + newToken + " is not valid for board.");
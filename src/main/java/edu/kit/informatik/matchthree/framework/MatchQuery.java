@@ -0,0 +1,167 @@
+package edu.kit.informatik.matchthree.framework;
+
+import java.util.Objects;
+
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+
+/**
+ * Describes which matches a {@link Matcher} has to find.
+ * <p>
+ * A query only asks for matches with at least {@link #getMinSize()} fields,
+ * so the empty match is never part of the result. The {@link Mode} tells
+ * whether all such matches are needed, or whether the matcher may stop after
+ * the first one.
+ * <p>
+ * Instances are immutable.
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public final class MatchQuery {
+
+    /**
+     * How many matches a query asks for.
+     */
+    public enum Mode {
+        /**
+         * All matches with enough fields.
+         */
+        ALL,
+
+        /**
+         * One complete match with enough fields, or none if there is no such
+         * match.
+         */
+        FIRST,
+
+        /**
+         * Only whether there is a match with enough fields. The result contains
+         * at most one match, which has at least the minimum number of fields,
+         * but may be missing some fields of the complete match.
+         */
+        ANY
+    }
+
+    /**
+     * The minimum number of fields of a match.
+     */
+    private final int minSize;
+
+    /**
+     * How many matches are asked for.
+     */
+    private final Mode mode;
+
+    /**
+     * Creates a new query.
+     *
+     * @param minSize
+     *            the minimum number of fields of a match
+     * @param mode
+     *            how many matches are asked for
+     */
+    private MatchQuery(int minSize, Mode mode) {
+        if (minSize < 1) {
+            throw new IllegalArgumentException("Minimum match size is smaller than 1!");
+        }
+        this.minSize = minSize;
+        this.mode = Objects.requireNonNull(mode, "Mode is null!");
+    }
+
+    /**
+     * Creates a query for all matches with at least the given number of
+     * fields.
+     *
+     * @param minSize
+     *            the minimum number of fields of a match. Must be at least 1.
+     * @return the query.
+     * @throws IllegalArgumentException
+     *             if the minimum size is smaller than 1
+     */
+    public static MatchQuery all(int minSize) {
+        return new MatchQuery(minSize, Mode.ALL);
+    }
+
+    /**
+     * Creates a query for the first match with at least the given number of
+     * fields.
+     *
+     * @param minSize
+     *            the minimum number of fields of a match. Must be at least 1.
+     * @return the query.
+     * @throws IllegalArgumentException
+     *             if the minimum size is smaller than 1
+     */
+    public static MatchQuery first(int minSize) {
+        return new MatchQuery(minSize, Mode.FIRST);
+    }
+
+    /**
+     * Creates a query whether there is a match with at least the given number
+     * of fields.
+     *
+     * @param minSize
+     *            the minimum number of fields of a match. Must be at least 1.
+     * @return the query.
+     * @throws IllegalArgumentException
+     *             if the minimum size is smaller than 1
+     */
+    public static MatchQuery any(int minSize) {
+        return new MatchQuery(minSize, Mode.ANY);
+    }
+
+    /**
+     * Returns the minimum number of fields of a match.
+     *
+     * @return the minimum size.
+     */
+    public int getMinSize() {
+        return this.minSize;
+    }
+
+    /**
+     * Returns how many matches are asked for.
+     *
+     * @return the mode of the query.
+     */
+    public Mode getMode() {
+        return this.mode;
+    }
+
+    /**
+     * Indicates whether the matcher may stop after the first match with
+     * enough fields.
+     *
+     * @return {@code true} iff the mode is not {@link Mode#ALL}.
+     */
+    public boolean stopsAtFirstMatch() {
+        return this.mode != Mode.ALL;
+    }
+
+    /**
+     * Returns the answer to this query from all matches.
+     * <p>
+     * Used by matchers that can't stop early.
+     *
+     * @param matches
+     *            all matches. Must not be {@code null}.
+     * @return the matches with enough fields, or only the first of them if
+     *         the matcher may stop at the first match.
+     */
+    public MatchResult apply(MatchResult matches) {
+        MatchResult large = Objects.requireNonNull(matches, "Matches are null!").withMinSize(this.minSize);
+        if (!stopsAtFirstMatch() || large.getMatchCount() <= 1) {
+            return large;
+        }
+        MatchResult.Builder builder = new MatchResult.Builder(large.getColumnCount());
+        for (int i = 0; i < large.getMatchSize(0); i++) {
+            builder.addCell(large.getCell(0, i));
+        }
+        return builder.endMatch().build();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(%d)", this.mode, this.minSize);
+    }
+}
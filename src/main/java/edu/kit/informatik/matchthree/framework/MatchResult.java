@@ -0,0 +1,340 @@
+package edu.kit.informatik.matchthree.framework;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+
+/**
+ * The matches found by a {@link Matcher}, stored without boxing.
+ * <p>
+ * All fields of all matches are stored as row-major field indices
+ * ({@code y * columnCount + x}) in one array. The fields of the match
+ * {@code i} are at the indices {@code offsets[i]} to
+ * {@code offsets[i + 1] - 1}. A match without fields is the empty match,
+ * which a {@link Matcher} returns for an empty initial field.
+ * <p>
+ * Instances are immutable. The result of the {@link Matcher} interface is
+ * available through {@link #toSets()}.
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+public final class MatchResult {
+
+    /**
+     * The number of columns of the board the fields belong to.
+     */
+    private final int columnCount;
+
+    /**
+     * The field indices of all matches.
+     */
+    private final int[] cells;
+
+    /**
+     * The index of the first field of every match, and the number of fields at the end.
+     */
+    private final int[] offsets;
+
+    /**
+     * Creates a new result.
+     *
+     * @param columnCount
+     *            the number of columns of the board
+     * @param cells
+     *            the field indices of all matches
+     * @param offsets
+     *            the index of the first field of every match, and the number
+     *            of fields at the end
+     */
+    private MatchResult(int columnCount, int[] cells, int[] offsets) {
+        this.columnCount = columnCount;
+        this.cells = cells;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Creates a result from the result of the {@link Matcher} interface.
+     *
+     * @param matches
+     *            the matches. Must not be {@code null}.
+     * @param columnCount
+     *            the number of columns of the board the matches were found on
+     * @return the result containing the same matches.
+     */
+    public static MatchResult fromSets(Set<Set<Position>> matches, int columnCount) {
+        Objects.requireNonNull(matches, "Set of matches is null!");
+        Builder builder = new Builder(columnCount);
+        for (Set<Position> match : matches) {
+            for (Position p : match) {
+                builder.addCell(p.y * columnCount + p.x);
+            }
+            builder.endMatch();
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of columns of the board the matches belong to.
+     *
+     * @return the number of columns.
+     */
+    public int getColumnCount() {
+        return this.columnCount;
+    }
+
+    /**
+     * Returns the number of matches, including the empty match.
+     *
+     * @return the number of matches.
+     */
+    public int getMatchCount() {
+        return this.offsets.length - 1;
+    }
+
+    /**
+     * Indicates whether the result contains no match at all.
+     *
+     * @return {@code true} iff there are no matches.
+     */
+    public boolean isEmpty() {
+        return getMatchCount() == 0;
+    }
+
+    /**
+     * Returns the number of fields of a match.
+     *
+     * @param match
+     *            the index of the match
+     * @return the number of fields of the match.
+     * @throws IndexOutOfBoundsException
+     *             if there is no match with the index
+     */
+    public int getMatchSize(int match) {
+        checkMatch(match);
+        return this.offsets[match + 1] - this.offsets[match];
+    }
+
+    /**
+     * Returns the number of fields of all matches.
+     *
+     * @return the number of fields.
+     */
+    public int getCellCount() {
+        return this.offsets[this.offsets.length - 1];
+    }
+
+    /**
+     * Returns the field index of a field of a match.
+     *
+     * @param match
+     *            the index of the match
+     * @param field
+     *            the index of the field inside the match
+     * @return the row-major field index.
+     * @throws IndexOutOfBoundsException
+     *             if there is no such match or field
+     */
+    public int getCell(int match, int field) {
+        if (field < 0 || field >= getMatchSize(match)) {
+            throw new IndexOutOfBoundsException(String.format("Field %d is not in match %d!", field, match));
+        }
+        return this.cells[this.offsets[match] + field];
+    }
+
+    /**
+     * Returns the field index of a field of all matches.
+     *
+     * @param index
+     *            the index of the field among the fields of all matches
+     * @return the row-major field index.
+     * @throws IndexOutOfBoundsException
+     *             if there is no such field
+     */
+    public int getCell(int index) {
+        if (index < 0 || index >= getCellCount()) {
+            throw new IndexOutOfBoundsException(String.format("Field %d is not in the result!", index));
+        }
+        return this.cells[index];
+    }
+
+    /**
+     * Returns a result containing only the matches with at least the given
+     * number of fields.
+     *
+     * @param minSize
+     *            the minimum number of fields of a match
+     * @return the filtered result, or this result if all matches are large
+     *         enough.
+     */
+    public MatchResult withMinSize(int minSize) {
+        Builder builder = new Builder(this.columnCount);
+        boolean removed = false;
+        for (int i = 0; i < getMatchCount(); i++) {
+            if (this.offsets[i + 1] - this.offsets[i] >= minSize) {
+                for (int j = this.offsets[i]; j < this.offsets[i + 1]; j++) {
+                    builder.addCell(this.cells[j]);
+                }
+                builder.endMatch();
+            } else {
+                removed = true;
+            }
+        }
+        return removed ? builder.build() : this;
+    }
+
+    /**
+     * Returns the matches as the result of the {@link Matcher} interface.
+     *
+     * @return the matches as sets of positions.
+     */
+    public Set<Set<Position>> toSets() {
+        Set<Set<Position>> result = new HashSet<>();
+        for (int i = 0; i < getMatchCount(); i++) {
+            Set<Position> match = new HashSet<>();
+            for (int j = this.offsets[i]; j < this.offsets[i + 1]; j++) {
+                match.add(new Position(this.cells[j] % this.columnCount, this.cells[j] / this.columnCount));
+            }
+            result.add(match);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the positions of the fields of all matches.
+     *
+     * @return the positions of all matched fields.
+     */
+    public Set<Position> toPositions() {
+        Set<Position> result = new HashSet<>();
+        for (int i = 0; i < getCellCount(); i++) {
+            result.add(new Position(this.cells[i] % this.columnCount, this.cells[i] / this.columnCount));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return toSets().toString();
+    }
+
+    /**
+     * Checks the index of a match.
+     *
+     * @param match
+     *            the index of the match
+     * @throws IndexOutOfBoundsException
+     *             if there is no match with the index
+     */
+    private void checkMatch(int match) {
+        if (match < 0 || match >= getMatchCount()) {
+            throw new IndexOutOfBoundsException(String.format("Match %d is not in the result!", match));
+        }
+    }
+
+    /**
+     * Builds a {@link MatchResult} one field at a time.
+     * <p>
+     * The builder doesn't remove duplicate matches, every match must only be
+     * added once.
+     */
+    public static final class Builder {
+
+        /**
+         * The number of columns of the board.
+         */
+        private final int columnCount;
+
+        /**
+         * The field indices added so far.
+         */
+        private int[] cells = new int[16];
+
+        /**
+         * The number of field indices added so far.
+         */
+        private int cellCount;
+
+        /**
+         * The offsets of the finished matches.
+         */
+        private int[] offsets = new int[8];
+
+        /**
+         * The number of finished matches.
+         */
+        private int matchCount;
+
+        /**
+         * Creates a new builder.
+         *
+         * @param columnCount
+         *            the number of columns of the board the matches belong to
+         */
+        public Builder(int columnCount) {
+            this.columnCount = columnCount;
+        }
+
+        /**
+         * Adds a field to the current match.
+         *
+         * @param cell
+         *            the row-major field index
+         * @return this builder.
+         */
+        public Builder addCell(int cell) {
+            if (this.cellCount == this.cells.length) {
+                this.cells = Arrays.copyOf(this.cells, this.cells.length * 2);
+            }
+            this.cells[this.cellCount++] = cell;
+            return this;
+        }
+
+        /**
+         * Adds fields to the current match.
+         *
+         * @param source
+         *            the array containing the field indices
+         * @param count
+         *            the number of field indices at the start of the array
+         * @return this builder.
+         */
+        public Builder addCells(int[] source, int count) {
+            if (this.cellCount + count > this.cells.length) {
+                this.cells = Arrays.copyOf(this.cells, Math.max(this.cells.length * 2, this.cellCount + count));
+            }
+            System.arraycopy(source, 0, this.cells, this.cellCount, count);
+            this.cellCount += count;
+            return this;
+        }
+
+        /**
+         * Finishes the current match. If no fields were added since the last
+         * match, the empty match is added.
+         *
+         * @return this builder.
+         */
+        public Builder endMatch() {
+            if (this.matchCount + 2 > this.offsets.length) {
+                this.offsets = Arrays.copyOf(this.offsets, this.offsets.length * 2);
+            }
+            this.offsets[++this.matchCount] = this.cellCount;
+            return this;
+        }
+
+        /**
+         * Creates the result. Fields added after the last finished match are
+         * ignored.
+         *
+         * @return the result.
+         */
+        public MatchResult build() {
+            int total = this.offsets[this.matchCount];
+            return new MatchResult(this.columnCount, Arrays.copyOf(this.cells, total),
+                    Arrays.copyOf(this.offsets, this.matchCount + 1));
+        }
+    }
+}
@@ -18,7 +18,7 @@ import edu.kit.informatik.matchthree.framework.interfaces.Board;
  * 
  * @author IPD Koziolek
  */
-public final class RandomStrategy implements FillingStrategy {
+public final class RandomStrategy implements CellFillingStrategy {
     private final Random random = new Random();
 
     @Override
@@ -34,6 +34,25 @@ public final class RandomStrategy implements FillingStrategy {
         }
     }
 
+    @Override
+    public Token nextToken(Board board, Position position) {
+        Objects.requireNonNull(board, "The board to fill must not be null");
+        Objects.requireNonNull(position, "The position to fill must not be null");
+
+        return randomToken(board);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The tokens are random anyway and {@link Random} can be shared between
+     * threads.
+     */
+    @Override
+    public boolean isColumnIndependent() {
+        return true;
+    }
+
     private Token randomToken(Board board) {
         Set<Token> validTokens = board.getAllValidTokens();
         return validTokens.stream().skip(random.nextInt(validTokens.size())).findFirst().get();
@@ -2,7 +2,9 @@ package edu.kit.informatik.matchthree.framework.interfaces;
 
 import java.util.Set;
 
+import edu.kit.informatik.matchthree.framework.AccessStatus;
 import edu.kit.informatik.matchthree.framework.FillingStrategy;
+import edu.kit.informatik.matchthree.framework.MatchResult;
 import edu.kit.informatik.matchthree.framework.Position;
 import edu.kit.informatik.matchthree.framework.Token;
 import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
@@ -105,6 +107,56 @@ public interface Board {
      */
     void setTokenAt(Position position, Token newToken);
 
+    /**
+     * Returns the {@link Token} at the given position or the given default
+     * value, if the position is not contained in the board.
+     * <p>
+     * Unlike {@link #getTokenAt(Position)} this method never throws a
+     * {@link BoardDimensionException}.
+     * 
+     * @param position
+     *            the position of the requested {@link Token}. Must not be
+     *            {@code null}.
+     * @param offBoard
+     *            the value to return if the position is not on the board
+     * @return the {@link Token} at the given {@link Position}, {@code null} if
+     *         the position is empty or {@code offBoard} if the position is not
+     *         on the board.
+     */
+    default Token tryGetToken(Position position, Token offBoard) {
+        return containsPosition(position) ? getTokenAt(position) : offBoard;
+    }
+
+    /**
+     * Sets or removes the {@link Token} at the given position, if possible.
+     * <p>
+     * Unlike {@link #setTokenAt(Position, Token)} this method never throws a
+     * {@link BoardDimensionException} or {@link IllegalTokenException}, the
+     * failure is returned instead.
+     * 
+     * @param position
+     *            the {@link Position} on the board to manipulate. Must not be
+     *            {@code null}.
+     * @param newToken
+     *            the {@link Token} that should be placed on the field or
+     *            {@code null}
+     * @return {@link AccessStatus#OK} if the field was set,
+     *         {@link AccessStatus#ILLEGAL_TOKEN} if the token is not valid for
+     *         this board, {@link AccessStatus#POSITION_NOT_ON_BOARD} if the
+     *         position is not contained in the board or
+     *         {@link AccessStatus#READ_ONLY} if the board rejects all changes.
+     */
+    default AccessStatus trySetToken(Position position, Token newToken) {
+        if (newToken != null && !getAllValidTokens().contains(newToken)) {
+            return AccessStatus.ILLEGAL_TOKEN;
+        }
+        if (!containsPosition(position)) {
+            return AccessStatus.POSITION_NOT_ON_BOARD;
+        }
+        setTokenAt(position, newToken);
+        return AccessStatus.OK;
+    }
+
     /**
      * Indicates whether the given position is contained in the board.
      * 
@@ -166,6 +218,38 @@ public interface Board {
      */
     void removeTokensAt(Set<Position> positions);
 
+    /**
+     * Removes all tokens of the given matches.
+     * <p>
+     * Behaves like {@link #removeTokensAt(Set)} with the positions of all
+     * fields of the matches, but doesn't need to create the positions. If one
+     * of the fields is not contained in the board, a
+     * {@link BoardDimensionException} is thrown and the state of the board is
+     * not changed.
+     * 
+     * @param matches
+     *            the matches whose tokens should be removed. Must not be
+     *            {@code null}.
+     * @throws BoardDimensionException
+     *             if the matches belong to a board with a different number of
+     *             columns or one of the fields is not contained in the board.
+     */
+    default void removeMatches(MatchResult matches) {
+        if (matches.getColumnCount() != getColumnCount()) {
+            throw new BoardDimensionException("The matches belong to a board with a different number of columns!");
+        }
+        for (int i = 0; i < matches.getCellCount(); i++) {
+            int cell = matches.getCell(i);
+            if (!containsPosition(new Position(cell % getColumnCount(), cell / getColumnCount()))) {
+                throw new BoardDimensionException(String.format("The field %d isn't on the board!", cell));
+            }
+        }
+        for (int i = 0; i < matches.getCellCount(); i++) {
+            int cell = matches.getCell(i);
+            setTokenAt(new Position(cell % getColumnCount(), cell / getColumnCount()), null);
+        }
+    }
+
     /**
      * Sets a filling strategy for the board.
      * 
@@ -195,4 +279,103 @@ public interface Board {
      * @return a token string representation of the board.
      */
     String toTokenString();
+
+    /**
+     * Returns a view of this board that rejects all changes.
+     * <p>
+     * The view shares the fields of this board, so every change of this board
+     * is visible through the view. All methods of the view that would change
+     * the board throw an {@link UnsupportedOperationException}.
+     * <p>
+     * The default implementation returns a view that reads the fields
+     * through the methods of this board.
+     * 
+     * @return a read only view of this board.
+     */
+    default Board readOnlyView() {
+        return BoardView.readOnlyViewOf(this);
+    }
+
+    /**
+     * Returns a view of a rectangular region of this board.
+     * <p>
+     * The view shares the fields of this board. The position {@code (0,0)} of
+     * the view is the position {@code (x,y)} of this board. Changes through
+     * the view change this board, unless this board is a read only view.
+     * <p>
+     * The default implementation returns a view that reads and writes the
+     * fields through the methods of this board.
+     * 
+     * @param x
+     *            the first column of the region
+     * @param y
+     *            the first row of the region
+     * @param width
+     *            the number of columns of the region. Must be at least 2.
+     * @param height
+     *            the number of rows of the region. Must be at least 2.
+     * @return a view of the region.
+     * @throws BoardDimensionException
+     *             if the region is smaller than 2 by 2 or not contained in
+     *             the board.
+     */
+    default Board window(int x, int y, int width, int height) {
+        return BoardView.windowOf(this, x, y, width, height);
+    }
+
+    /**
+     * Returns the version of the board.
+     * <p>
+     * A board that counts its changes returns a non-negative number that
+     * changes with every change of a field, so two calls on the same board
+     * that return the same version guarantee the same tokens on all fields.
+     * The default implementation returns {@code -1}, which means that the
+     * board doesn't count its changes.
+     * 
+     * @return the version of the board, or {@code -1} if it's unknown.
+     */
+    default long getVersion() {
+        return -1;
+    }
+
+    /**
+     * Compares the given object with this board for equality.
+     * <p>
+     * Returns {@code true} iff the given object is also a {@link Board}, both
+     * boards have the same valid {@link Token Tokens}, the same number of
+     * columns and rows and equal tokens (or both no token) at every position.
+     * This definition ensures that the method works properly across different
+     * implementations of the {@link Board} interface.
+     *
+     * @param obj
+     *            the object to be compared for equality with this board
+     * @return {@code true} iff the object is equal to this board
+     */
+    @Override
+    boolean equals(Object obj);
+
+    /**
+     * Returns the hash code of this board.
+     * <p>
+     * The hash code of a board is defined to be the result of the following
+     * calculation, where {@code width} and {@code height} are the number of
+     * columns and rows:
+     *
+     * <pre>
+     * {@code
+     * int hash = 31 * width + height;
+     * for (int y = 0; y < height; y++)
+     *     for (int x = 0; x < width; x++)
+     *         hash += (31 * (y * width + x) + 1) * Objects.hashCode(getTokenAt(Position.at(x, y)));
+     * }
+     * </pre>
+     *
+     * This ensures that {@code b1.equals(b2)} implies
+     * {@code b1.hashCode() == b2.hashCode()} for any two boards and allows
+     * implementations to maintain the hash code on every change of a field.
+     *
+     * @return the hash code of this board
+     */
+    @Override
+    int hashCode();
 }
\ No newline at end of file
@@ -0,0 +1,398 @@
+package edu.kit.informatik.matchthree.framework.interfaces;
+
+import edu.kit.informatik.matchthree.framework.AccessStatus;
+import edu.kit.informatik.matchthree.framework.FillingStrategy;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.IllegalTokenException;
+import edu.kit.informatik.matchthree.framework.exceptions.NoFillingStrategyException;
+
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A {@link Board} that shows a rectangular region of another board.
+ * <p>
+ *     The view shares the fields of the underlying board, no tokens are copied.
+ *     The position {@literal (0, 0)} of the view is the position {@literal (offsetX, offsetY)}
+ *     of the underlying board. Every change of the underlying board is visible through the view
+ *     and every change through a writable view changes the underlying board.
+ * </p>
+ * <p>
+ *     A read only view rejects all changes with a {@link UnsupportedOperationException},
+ *     {@link BoardView#trySetToken(Position, Token)} returns {@link AccessStatus#READ_ONLY} instead.
+ *     Reading a field still reads the underlying board, so if the underlying board fills its
+ *     fields lazily, reading a field through the view may give the field its token. This
+ *     doesn't change the tokens that are visible through the board or its version.
+ * </p>
+ * <p>
+ *     The view isn't synchronized. If the underlying board is changed by another thread,
+ *     the access to the board has to be synchronized externally.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+final class BoardView implements Board {
+
+    /**
+     * Minimal amount of rows and columns a view has to have.
+     */
+    private static final int MIN_BOARD_SIZE = 2;
+
+    /**
+     * The board the view shows.
+     */
+    private final Board board;
+
+    /**
+     * The column of the underlying board, that is the first column of the view.
+     */
+    private final int offsetX;
+
+    /**
+     * The row of the underlying board, that is the first row of the view.
+     */
+    private final int offsetY;
+
+    /**
+     * The amount of columns of the view.
+     */
+    private final int columnCount;
+
+    /**
+     * The amount of rows of the view.
+     */
+    private final int rowCount;
+
+    /**
+     * Returns a read only view of the given board.
+     *
+     * @param board
+     *         the board to show, must not be {@code null}.
+     *
+     * @return a view of the whole board that rejects all changes.
+     */
+    static Board readOnlyViewOf(final Board board) {
+        Objects.requireNonNull(board, "Board is null!");
+        return new BoardView(board, 0, 0, board.getColumnCount(), board.getRowCount(), true);
+    }
+
+    /**
+     * Returns a writable view of a region of the given board.
+     *
+     * @param board
+     *         the board to show, must not be {@code null}.
+     * @param x
+     *         the first column of the region.
+     * @param y
+     *         the first row of the region.
+     * @param width
+     *         the amount of columns of the region (min. 2).
+     * @param height
+     *         the amount of rows of the region (min. 2).
+     *
+     * @return a view of the region.
+     *
+     * @throws BoardDimensionException
+     *         if the region is to small or not completely on the board.
+     */
+    static Board windowOf(final Board board, final int x, final int y, final int width, final int height)
+            throws BoardDimensionException {
+        return new BoardView(board, x, y, width, height, false);
+    }
+
+    /**
+     * Indicates if changes through this view are rejected.
+     */
+    private final boolean readOnly;
+
+    /**
+     * The filling strategy for the view.
+     * <p>
+     *     This parameter is {@code null} in the beginning.
+     * </p>
+     */
+    private FillingStrategy viewFillingStrategy = null;
+
+    /**
+     * Creates a new view of a region of the given board.
+     *
+     * @param board
+     *         the board to show, must not be {@code null}.
+     * @param offsetX
+     *         the first column of the region.
+     * @param offsetY
+     *         the first row of the region.
+     * @param columnCount
+     *         the amount of columns of the region (min. 2).
+     * @param rowCount
+     *         the amount of rows of the region (min. 2).
+     * @param readOnly
+     *         {@code true} if changes through this view should be rejected.
+     *
+     * @throws BoardDimensionException
+     *         if the region is to small or not completely on the board.
+     */
+    BoardView(final Board board, final int offsetX, final int offsetY,
+              final int columnCount, final int rowCount, final boolean readOnly) {
+        this.board = Objects.requireNonNull(board, "Board is null!");
+        if (columnCount < MIN_BOARD_SIZE || rowCount < MIN_BOARD_SIZE) {
+            throw new BoardDimensionException("Window is to small!");
+        }
+        if (offsetX < 0 || offsetY < 0
+                || (long) offsetX + columnCount > board.getColumnCount()
+                || (long) offsetY + rowCount > board.getRowCount()) {
+            throw new BoardDimensionException("Window is not on the board!");
+        }
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.columnCount = columnCount;
+        this.rowCount = rowCount;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Indicates if changes through this view are rejected.
+     *
+     * @return {@code true} iff this view is read only.
+     */
+    boolean isReadOnly() {
+        return this.readOnly;
+    }
+
+    @Override
+    public Set<Token> getAllValidTokens() {
+        return this.board.getAllValidTokens();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return this.columnCount;
+    }
+
+    @Override
+    public int getRowCount() {
+        return this.rowCount;
+    }
+
+    @Override
+    public Token getTokenAt(final Position position) throws BoardDimensionException {
+        Objects.requireNonNull(position, "Position is null!");
+        if (!containsPosition(position)) {
+            throw new BoardDimensionException(String.format("Position \"%s\" is not on the board!"
+                    , position.toString()));
+        }
+        return this.board.getTokenAt(toBoardPosition(position));
+    }
+
+    @Override
+    public void setTokenAt(final Position position, final Token newToken)
+            throws BoardDimensionException, IllegalTokenException {
+        checkWritable();
+        if (newToken != null && !(getAllValidTokens().contains(newToken))) {
+            throw new IllegalTokenException(String.format("Unknown token \"%s\"!", newToken.toString()));
+        }
+        if (position == null) {
+            throw new NullPointerException("Position is null!");
+        }
+        if (!containsPosition(position)) {
+            throw new BoardDimensionException(String.format("Position \"%s\" is not on the board!"
+                    , position.toString()));
+        }
+        this.board.setTokenAt(toBoardPosition(position), newToken);
+    }
+
+    @Override
+    public AccessStatus trySetToken(final Position position, final Token newToken) {
+        if (this.readOnly) {
+            return AccessStatus.READ_ONLY;
+        }
+        return Board.super.trySetToken(position, newToken);
+    }
+
+    @Override
+    public boolean containsPosition(final Position position) {
+        if (position == null) {
+            throw new NullPointerException("Position is null!");
+        }
+        return position.x >= 0 && position.x < this.columnCount
+                && position.y >= 0 && position.y < this.rowCount;
+    }
+
+    @Override
+    public Set<Position> moveTokensToBottom() {
+        checkWritable();
+        Set<Position> changedPositions = new LinkedHashSet<>();
+        for (int i = 0; i < this.columnCount; i++) {
+            for (int k = this.rowCount - 1; k >= 0; k--) {
+                Position cnt = new Position(i, k);
+                if (getTokenAt(cnt) == null) {
+                    for (int j = k; j >= 0; j--) {
+                        Position nxt = new Position(i, j);
+                        Token nxtToken = getTokenAt(nxt);
+                        if (nxtToken != null) {
+                            setTokenAt(cnt, nxtToken);
+                            setTokenAt(nxt, null);
+                            changedPositions.add(cnt);
+                            changedPositions.add(nxt);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return changedPositions;
+    }
+
+    @Override
+    public void swapTokens(final Position positionA, final Position positionB) throws BoardDimensionException {
+        checkWritable();
+        Token tokenA = getTokenAt(positionA);
+        Token tokenB = getTokenAt(positionB);
+        setTokenAt(positionA, tokenB);
+        setTokenAt(positionB, tokenA);
+    }
+
+    @Override
+    public void removeTokensAt(final Set<Position> positions) throws BoardDimensionException {
+        checkWritable();
+        for (Position p : positions) {
+            if (!containsPosition(p)) {
+                throw new BoardDimensionException(String.format("Position \"%s\" is not on the board!"
+                        , p.toString()));
+            }
+        }
+        for (Position p : positions) {
+            setTokenAt(p, null);
+        }
+    }
+
+    @Override
+    public void setFillingStrategy(final FillingStrategy strategy) {
+        checkWritable();
+        this.viewFillingStrategy = Objects.requireNonNull(strategy, "Filling strategy is null!");
+    }
+
+    @Override
+    public void fillWithTokens() throws NoFillingStrategyException {
+        checkWritable();
+        if (this.viewFillingStrategy == null) {
+            throw new NoFillingStrategyException();
+        }
+        this.viewFillingStrategy.fill(this);
+    }
+
+    @Override
+    public String toTokenString() {
+        StringBuilder result = new StringBuilder((this.columnCount + 1) * this.rowCount);
+        for (int y = 0; y < this.rowCount; y++) {
+            if (y > 0) {
+                result.append(';');
+            }
+            for (int x = 0; x < this.columnCount; x++) {
+                Token token = getTokenAt(new Position(x, y));
+                result.append(token == null ? " " : token.toString());
+            }
+        }
+        return result.toString();
+    }
+
+    @Override
+    public Board readOnlyView() {
+        if (this.readOnly) {
+            return this;
+        }
+        return new BoardView(this.board, this.offsetX, this.offsetY, this.columnCount, this.rowCount, true);
+    }
+
+    @Override
+    public Board window(final int x, final int y, final int width, final int height) {
+        if (x < 0 || y < 0) {
+            throw new BoardDimensionException("Window is not on the board!");
+        }
+        if ((long) x + width > this.columnCount || (long) y + height > this.rowCount) {
+            throw new BoardDimensionException("Window is not on the board!");
+        }
+        return new BoardView(this.board, this.offsetX + x, this.offsetY + y, width, height, this.readOnly);
+    }
+
+    /**
+     * Returns the version of the underlying board.
+     * <p>
+     *     It also changes with the fields of the underlying board outside of the view.
+     * </p>
+     *
+     * @return the version of the underlying board.
+     */
+    @Override
+    public long getVersion() {
+        return this.board.getVersion();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Board)) {
+            return false;
+        }
+        Board other = (Board) obj;
+        if (this.columnCount != other.getColumnCount() || this.rowCount != other.getRowCount()
+                || !getAllValidTokens().equals(other.getAllValidTokens())) {
+            return false;
+        }
+        for (int y = 0; y < this.rowCount; y++) {
+            for (int x = 0; x < this.columnCount; x++) {
+                Position position = new Position(x, y);
+                if (!Objects.equals(getTokenAt(position), other.getTokenAt(position))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 31 * this.columnCount + this.rowCount;
+        for (int y = 0; y < this.rowCount; y++) {
+            for (int x = 0; x < this.columnCount; x++) {
+                hash += (31 * (y * this.columnCount + x) + 1) * Objects.hashCode(getTokenAt(new Position(x, y)));
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("\"%s\"", toTokenString());
+    }
+
+    /**
+     * Translates a position of the view to the position on the underlying board.
+     *
+     * @param position
+     *         a position on the view.
+     *
+     * @return the position on the underlying board.
+     */
+    private Position toBoardPosition(final Position position) {
+        return new Position(position.x + this.offsetX, position.y + this.offsetY);
+    }
+
+    /**
+     * Rejects changes through a read only view.
+     *
+     * @throws UnsupportedOperationException
+     *         if this view is read only.
+     */
+    private void checkWritable() {
+        if (this.readOnly) {
+            throw new UnsupportedOperationException("Board is read only!");
+        }
+    }
+}
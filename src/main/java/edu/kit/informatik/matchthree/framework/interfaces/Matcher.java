@@ -1,7 +1,11 @@
 package edu.kit.informatik.matchthree.framework.interfaces;
 
+import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
+import edu.kit.informatik.matchthree.framework.MatchQuery;
+import edu.kit.informatik.matchthree.framework.MatchResult;
 import edu.kit.informatik.matchthree.framework.Position;
 import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
 
@@ -45,4 +49,112 @@ public interface Matcher {
      *             if one of the initial positions is not contained in the board
      */
     Set<Set<Position>> matchAll(Board board, Set<Position> initial);
+
+    /**
+     * Returns all matches found on the board starting from <strong>every</strong>
+     * position of the board.
+     * <p>
+     * The result is the same as the result of {@link #matchAll(Board, Set)}
+     * called with the set of all positions of the board. Implementations can
+     * override this method, if they can label the whole board faster.
+     *
+     * @see #matchAll(Board, Set)
+     *
+     * @param board
+     *            the board to match on. Must not be null.
+     * @return all matches found
+     */
+    default Set<Set<Position>> matchBoard(Board board) {
+        Set<Position> positions = new HashSet<>();
+        for (int x = 0; x < board.getColumnCount(); x++) {
+            for (int y = 0; y < board.getRowCount(); y++) {
+                positions.add(new Position(x, y));
+            }
+        }
+        return matchAll(board, positions);
+    }
+
+    /**
+     * Returns all matches found on the board starting from the given set of
+     * initial positions as a {@link MatchResult}.
+     * <p>
+     * Contains the same matches as {@link #matchAll(Board, Set)}.
+     * Implementations can override this method to avoid creating sets of
+     * positions.
+     *
+     * @see #matchAll(Board, Set)
+     *
+     * @param board
+     *            the board to match on
+     * @param initial
+     *            the positions to start matching from. Must not be null.
+     * @return all matches found
+     * @throws BoardDimensionException
+     *             if one of the initial positions is not contained in the board
+     */
+    default MatchResult matchAllCompact(Board board, Set<Position> initial) {
+        return MatchResult.fromSets(matchAll(board, initial), board.getColumnCount());
+    }
+
+    /**
+     * Returns all matches found on the board starting from every position of
+     * the board as a {@link MatchResult}.
+     * <p>
+     * Contains the same matches as {@link #matchBoard(Board)}.
+     *
+     * @see #matchBoard(Board)
+     *
+     * @param board
+     *            the board to match on. Must not be null.
+     * @return all matches found
+     */
+    default MatchResult matchBoardCompact(Board board) {
+        return MatchResult.fromSets(matchBoard(board), board.getColumnCount());
+    }
+
+    /**
+     * Returns the matches asked for by the query, found on the board starting
+     * from the given set of initial positions.
+     * <p>
+     * Contains the matches of {@link #matchAllCompact(Board, Set)} with at
+     * least {@link MatchQuery#getMinSize()} fields, or only one of them if
+     * the query stops at the first match. Implementations can override this
+     * method to skip small matches and stop as soon as the query is answered.
+     *
+     * @see MatchQuery#apply(MatchResult)
+     *
+     * @param board
+     *            the board to match on
+     * @param initial
+     *            the positions to start matching from. Must not be null.
+     * @param query
+     *            the matches to find. Must not be null.
+     * @return the matches asked for
+     * @throws BoardDimensionException
+     *             if one of the initial positions is not contained in the board
+     */
+    default MatchResult matchAllCompact(Board board, Set<Position> initial, MatchQuery query) {
+        Objects.requireNonNull(query, "Query is null!");
+        return query.apply(matchAllCompact(board, initial));
+    }
+
+    /**
+     * Returns the matches asked for by the query, found on the board starting
+     * from every position of the board.
+     * <p>
+     * A query with {@link MatchQuery#any(int)} tells whether the board
+     * contains a match at all.
+     *
+     * @see #matchAllCompact(Board, Set, MatchQuery)
+     *
+     * @param board
+     *            the board to match on. Must not be null.
+     * @param query
+     *            the matches to find. Must not be null.
+     * @return the matches asked for
+     */
+    default MatchResult matchBoardCompact(Board board, MatchQuery query) {
+        Objects.requireNonNull(query, "Query is null!");
+        return query.apply(matchBoardCompact(board));
+    }
 }
@@ -2,6 +2,7 @@ package edu.kit.informatik.matchthree.framework.interfaces;
 
 import java.util.Set;
 
+import edu.kit.informatik.matchthree.framework.AccessStatus;
 import edu.kit.informatik.matchthree.framework.Position;
 import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
 
@@ -31,6 +32,26 @@ public interface Move {
      */
     void apply(Board board);
 
+    /**
+     * Applies the move to the given board, if it can be applied.
+     * <p>
+     * Unlike {@link #apply(Board)} this method never throws a
+     * {@link BoardDimensionException}, the failure is returned instead.
+     * 
+     * @param board
+     *            the board to apply this move to. Must not be {@code null}.
+     * @return {@link AccessStatus#OK} if the move was applied or
+     *         {@link AccessStatus#POSITION_NOT_ON_BOARD} if the move cannot be
+     *         applied to the given board.
+     */
+    default AccessStatus tryApply(Board board) {
+        if (!canBeApplied(board)) {
+            return AccessStatus.POSITION_NOT_ON_BOARD;
+        }
+        apply(board);
+        return AccessStatus.OK;
+    }
+
     /**
      * Returns a new {@link Move} that is the reverse of this move.
      * <p>
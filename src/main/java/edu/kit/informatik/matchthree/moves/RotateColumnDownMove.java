@@ -88,7 +88,7 @@ public class RotateColumnDownMove implements Move {
     @Override
     public boolean canBeApplied(final Board board) {
         Objects.requireNonNull(board, "Board is null!");
-        return board.getColumnCount() - 1 >= coloumnIndex;
+        return coloumnIndex >= 0 && board.getColumnCount() - 1 >= coloumnIndex;
     }
 
     /**
@@ -88,7 +88,7 @@ public class RotateRowRightMove implements Move {
     @Override
     public boolean canBeApplied(final Board board) {
         Objects.requireNonNull(board, "Board is null!");
-        return board.getRowCount() - 1 >= rowIndex;
+        return rowIndex >= 0 && board.getRowCount() - 1 >= rowIndex;
     }
 
     /**
@@ -0,0 +1,42 @@
+package edu.kit.informatik.matchthree;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The {@link RunKernel} comparing as many fields at a time as the vector
+ * registers of the CPU hold.
+ * <p>
+ * This class is only part of the multi-release jar for newer JDKs and needs
+ * the {@code jdk.incubator.vector} module at runtime. If it's missing,
+ * {@link RunKernel#available()} falls back to the {@link ScalarRunKernel}.
+ * </p>
+ *
+ * @author David Oberacker
+ * @version 1.0.0
+ */
+final class VectorRunKernel implements RunKernel {
+
+    /**
+     * The preferred vector shape of the CPU.
+     */
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void markRunStarts(final int[] cells, final int from, final int to, final int stride,
+                              final int runLength, final boolean[] starts) {
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            IntVector first = IntVector.fromArray(SPECIES, cells, i);
+            VectorMask<Integer> run = first.compare(VectorOperators.NE, 0);
+            for (int j = 1; j < runLength && run.anyTrue(); j++) {
+                run = run.and(first.compare(VectorOperators.EQ, IntVector.fromArray(SPECIES, cells, i + j * stride)));
+            }
+            run.intoArray(starts, i);
+        }
+        ScalarRunKernel.mark(cells, i, to, stride, runLength, starts);
+    }
+}
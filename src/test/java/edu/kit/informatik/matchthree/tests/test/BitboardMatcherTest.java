@@ -0,0 +1,92 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.BitboardMatcher;
+import edu.kit.informatik.matchthree.LineMatcher;
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.RandomStrategy;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class BitboardMatcherTest {
+
+    private static final Set<Delta> CLASSIC = new HashSet<>(Arrays.asList(new Delta(1, 0), new Delta(0, 1)));
+
+    @Test
+    public void compareTest() throws Exception {
+        BitboardMatcher bitboardMatcher = new BitboardMatcher(CLASSIC, 3);
+        LineMatcher lineMatcher = new LineMatcher(3);
+        for (int i = 0; i < 20; i++) {
+            Board board = new MatchThreeBoard(Token.set("AY*"), 11 + i, 9);
+            board.setFillingStrategy(new RandomStrategy());
+            board.fillWithTokens();
+            Set<Position> positions = allPositions(board);
+            assertEquals(lineMatcher.matchAll(board, positions), bitboardMatcher.matchAll(board, positions));
+            assertEquals(lineMatcher.matchAll(board, positions), bitboardMatcher.matchBoard(board));
+            Position position = new Position(5, 4);
+            assertEquals(lineMatcher.match(board, position), bitboardMatcher.match(board, position));
+        }
+    }
+
+    @Test
+    public void diagonalTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "A*Y*;YA*Y;*YAY;Y*YA");
+        BitboardMatcher matcher = new BitboardMatcher(Collections.singleton(new Delta(-1, -1)), 3);
+        Set<Position> expected = new HashSet<>(Arrays.asList(new Position(0, 0), new Position(1, 1),
+                new Position(2, 2), new Position(3, 3)));
+        assertEquals(Collections.singleton(expected), matcher.match(board, new Position(3, 3)));
+        assertTrue(matcher.match(board, new Position(1, 0)).isEmpty());
+        board = new MatchThreeBoard(Token.set("AY*"), "AY*;Y*A;*YA");
+        expected = new HashSet<>(Arrays.asList(new Position(2, 0), new Position(1, 1), new Position(0, 2)));
+        assertEquals(Collections.singleton(expected),
+                new BitboardMatcher(Collections.singleton(new Delta(1, -1)), 3).match(board, new Position(0, 2)));
+    }
+
+    @Test
+    public void matchMaskTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AAAY;Y*YA;*Y A;AYYA");
+        long[] mask = new BitboardMatcher(CLASSIC, 3).matchMask(board);
+        assertEquals(1, mask.length);
+        assertEquals(0b1000_1000_1000_0111L, mask[0]);
+    }
+
+    @Test(expected = MatcherInitializationException.class)
+    public void constructorExceptionTest1() throws Exception {
+        new BitboardMatcher(CLASSIC, 1);
+    }
+
+    @Test(expected = MatcherInitializationException.class)
+    public void constructorExceptionTest2() throws Exception {
+        new BitboardMatcher(Collections.singleton(new Delta(0, 0)), 3);
+    }
+
+    @Test(expected = BoardDimensionException.class)
+    public void matchExceptionTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AY*;AY*;AY*");
+        new BitboardMatcher(CLASSIC, 3).match(board, new Position(-1, 0));
+    }
+
+    private static Set<Position> allPositions(Board board) {
+        Set<Position> positions = new HashSet<>();
+        for (int x = 0; x < board.getColumnCount(); x++) {
+            for (int y = 0; y < board.getRowCount(); y++) {
+                positions.add(new Position(x, y));
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,128 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.BoardBatch;
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.framework.DeterministicStrategy;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.RandomStrategy;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.IllegalTokenException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Set;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class BoardBatchTest {
+
+    private static final String[] BOARDS = {"A* ;  Y;*A ", "   ;A A;   ", "AY*;*YA;Y*A"};
+
+    private BoardBatch batch;
+
+    @Before
+    public void setUp() throws Exception {
+        this.batch = new BoardBatch(Token.set("A*Y"), 3, 3, BOARDS.length);
+        for (int i = 0; i < BOARDS.length; i++) {
+            copy(new MatchThreeBoard(Token.set("A*Y"), BOARDS[i]), this.batch.getBoard(i));
+        }
+    }
+
+    @Test
+    public void getBoardTest() throws Exception {
+        for (int i = 0; i < BOARDS.length; i++) {
+            assertEquals(BOARDS[i], this.batch.getBoard(i).toTokenString());
+            assertEquals(new MatchThreeBoard(Token.set("A*Y"), BOARDS[i]), this.batch.getBoard(i));
+            assertEquals(new MatchThreeBoard(Token.set("A*Y"), BOARDS[i]).hashCode(),
+                    this.batch.getBoard(i).hashCode());
+        }
+        assertEquals(3, this.batch.getBoardCount());
+    }
+
+    @Test
+    public void moveTokensToBottomTest() throws Exception {
+        this.batch.moveTokensToBottom();
+        for (int i = 0; i < BOARDS.length; i++) {
+            Board expected = new MatchThreeBoard(Token.set("A*Y"), BOARDS[i]);
+            expected.moveTokensToBottom();
+            assertEquals(expected.toTokenString(), this.batch.getBoard(i).toTokenString());
+        }
+    }
+
+    @Test
+    public void boardMoveTokensToBottomTest() throws Exception {
+        for (int i = 0; i < BOARDS.length; i++) {
+            Board expected = new MatchThreeBoard(Token.set("A*Y"), BOARDS[i]);
+            assertEquals(expected.moveTokensToBottom(), this.batch.getBoard(i).moveTokensToBottom());
+            assertEquals(expected, this.batch.getBoard(i));
+        }
+    }
+
+    @Test
+    public void swapTokensTest() throws Exception {
+        this.batch.swapTokens(new Position(0, 0), new Position(2, 1));
+        assertEquals("Y* ;  A;*A ", this.batch.getBoard(0).toTokenString());
+        assertEquals("A  ;A  ;   ", this.batch.getBoard(1).toTokenString());
+        assertEquals("AY*;*YA;Y*A", this.batch.getBoard(2).toTokenString());
+    }
+
+    @Test
+    public void fillWithTokensTest() throws Exception {
+        this.batch.fillWithTokens(new RandomStrategy());
+        for (int i = 0; i < BOARDS.length; i++) {
+            assertFalse(this.batch.getBoard(i).toTokenString().contains(" "));
+        }
+        assertEquals("AY*;*YA;Y*A", this.batch.getBoard(2).toTokenString());
+    }
+
+    @Test
+    public void boardFillWithTokensTest() throws Exception {
+        Board board = this.batch.getBoard(1);
+        board.setFillingStrategy(new DeterministicStrategy(Token.iterator("**"),
+                Token.iterator("AAY"), Token.iterator("YY")));
+        board.fillWithTokens();
+        assertEquals("*YY;AAA;*AY", board.toTokenString());
+        assertEquals(BOARDS[0], this.batch.getBoard(0).toTokenString());
+    }
+
+    @Test
+    public void boardViewTest() throws Exception {
+        Board window = this.batch.getBoard(2).readOnlyView().window(1, 1, 2, 2);
+        assertThat(window.getTokenAt(new Position(0, 0)), is(new Token("Y")));
+        assertEquals("YA;*A", window.toTokenString());
+    }
+
+    @Test(expected = BoardDimensionException.class)
+    public void swapTokensExceptionTest() throws Exception {
+        this.batch.swapTokens(new Position(0, 0), new Position(3, 0));
+    }
+
+    @Test(expected = IllegalTokenException.class)
+    public void setTokenAtExceptionTest() throws Exception {
+        this.batch.getBoard(0).setTokenAt(new Position(0, 0), new Token("B"));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getBoardExceptionTest() throws Exception {
+        this.batch.getBoard(3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorExceptionTest() throws Exception {
+        new BoardBatch(Token.set("A*Y"), 3, 3, 0);
+    }
+
+    private static void copy(Board source, Board target) {
+        for (int x = 0; x < source.getColumnCount(); x++) {
+            for (int y = 0; y < source.getRowCount(); y++) {
+                target.setTokenAt(new Position(x, y), source.getTokenAt(new Position(x, y)));
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.BoardBatch;
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.MaximumDeltaMatcher;
+import edu.kit.informatik.matchthree.framework.AccessStatus;
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class BoardViewTest {
+
+    @Test
+    public void readOnlyViewTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("A*Y"), "A*Y;YA*;**A");
+        Board view = board.readOnlyView();
+        assertEquals(board.toTokenString(), view.toTokenString());
+        assertEquals(board, view);
+        assertEquals(board.hashCode(), view.hashCode());
+        board.setTokenAt(new Position(0, 0), new Token("Y"));
+        assertThat(view.getTokenAt(new Position(0, 0)), is(new Token("Y")));
+        assertSame(view, view.readOnlyView());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnlyViewExceptionTest1() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("A*Y"), "A*Y;YA*;**A");
+        board.readOnlyView().setTokenAt(new Position(0, 0), null);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void readOnlyViewExceptionTest2() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("A*Y"), "A*Y;YA*;**A");
+        board.readOnlyView().window(0, 0, 2, 2).swapTokens(new Position(0, 0), new Position(1, 0));
+    }
+
+    @Test
+    public void readOnlyTrySetTokenTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("A*Y"), "A*Y;YA*;**A");
+        Board view = board.readOnlyView();
+        assertEquals(AccessStatus.READ_ONLY, view.trySetToken(new Position(0, 0), new Token("Y")));
+        assertEquals(AccessStatus.READ_ONLY, view.window(0, 0, 2, 2).trySetToken(new Position(0, 0), null));
+        assertEquals(AccessStatus.OK, board.window(0, 0, 2, 2).trySetToken(new Position(1, 1), null));
+        assertEquals("A*Y;Y *;**A", board.toTokenString());
+    }
+
+    @Test
+    public void defaultViewTest() throws Exception {
+        Board board = new BoardBatch(Token.set("A*Y"), 3, 3, 2).getBoard(1);
+        board.setTokenAt(new Position(2, 2), new Token("A"));
+        Board view = board.readOnlyView();
+        assertThat(view.getTokenAt(new Position(2, 2)), is(new Token("A")));
+        assertEquals(AccessStatus.READ_ONLY, view.trySetToken(new Position(2, 2), null));
+        board.window(1, 1, 2, 2).setTokenAt(new Position(0, 0), new Token("Y"));
+        assertThat(board.getTokenAt(new Position(1, 1)), is(new Token("Y")));
+    }
+
+    @Test
+    public void windowTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("A*Y"), "A*Y;YA*;**A");
+        Board window = board.window(1, 1, 2, 2);
+        assertEquals(2, window.getColumnCount());
+        assertEquals(2, window.getRowCount());
+        assertEquals("A*;*A", window.toTokenString());
+        assertEquals(new MatchThreeBoard(Token.set("A*Y"), "A*;*A"), window);
+        assertFalse(window.containsPosition(new Position(2, 0)));
+
+        window.setTokenAt(new Position(1, 0), new Token("Y"));
+        assertEquals("A*Y;YAY;**A", board.toTokenString());
+        window.removeTokensAt(new HashSet<>(Collections.singletonList(new Position(1, 1))));
+        window.moveTokensToBottom();
+        assertEquals("A*Y;YA ;**Y", board.toTokenString());
+        assertEquals("A ;*Y", board.window(0, 1, 3, 2).window(1, 0, 2, 2).toTokenString());
+    }
+
+    @Test
+    public void windowMatchTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("A*Y"), "AAAY;YAY*;**AA;AY*A");
+        Set<Delta> deltas = new HashSet<>(Arrays.asList(new Delta(1, 0), new Delta(0, 1)));
+        Board window = board.readOnlyView().window(1, 0, 3, 3);
+        Set<Set<Position>> matches = new MaximumDeltaMatcher(deltas).match(window, new Position(0, 0));
+        Set<Position> expected = new HashSet<>(Arrays.asList(new Position(0, 0), new Position(1, 0),
+                new Position(0, 1)));
+        assertEquals(Collections.singleton(expected), matches);
+    }
+
+    @Test(expected = BoardDimensionException.class)
+    public void windowExceptionTest1() throws Exception {
+        new MatchThreeBoard(Token.set("A*Y"), "A*Y;YA*;**A").window(2, 0, 2, 2);
+    }
+
+    @Test(expected = BoardDimensionException.class)
+    public void windowExceptionTest2() throws Exception {
+        new MatchThreeBoard(Token.set("A*Y"), "A*Y;YA*;**A").window(0, 0, 1, 2);
+    }
+
+    @Test(expected = BoardDimensionException.class)
+    public void windowExceptionTest3() throws Exception {
+        new MatchThreeBoard(Token.set("A*Y"), "A*Y;YA*;**A").window(0, 0, 3, 3).getTokenAt(new Position(0, 3));
+    }
+}
@@ -0,0 +1,85 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.CachingMatcher;
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.MaximumDeltaMatcher;
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class CachingMatcherTest {
+
+    private MaximumDeltaMatcher mdm;
+
+    @Before
+    public void setUp() throws Exception {
+        this.mdm = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(1, 0), new Delta(0, 1))));
+    }
+
+    @Test
+    public void hitTest() throws Exception {
+        CachingMatcher matcher = new CachingMatcher(this.mdm, 4);
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AAY;Y*Y;*AA");
+        Set<Set<Position>> first = matcher.match(board, new Position(0, 0));
+        assertEquals(this.mdm.match(board, new Position(0, 0)), first);
+        first.clear();
+        assertEquals(this.mdm.match(board, new Position(0, 0)), matcher.match(board, new Position(0, 0)));
+        assertEquals(this.mdm.matchBoard(board), matcher.matchBoard(board));
+        assertEquals(this.mdm.matchBoard(board), matcher.matchBoard(board));
+        assertEquals(2, matcher.getHitCount());
+        assertEquals(2, matcher.getMissCount());
+    }
+
+    @Test
+    public void invalidationTest() throws Exception {
+        CachingMatcher matcher = new CachingMatcher(this.mdm, 4);
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AAY;Y*Y;*AA");
+        matcher.matchBoard(board);
+        board.swapTokens(new Position(2, 0), new Position(1, 1));
+        assertEquals(this.mdm.matchBoard(board), matcher.matchBoard(board));
+        board.removeTokensAt(new HashSet<>(Arrays.asList(new Position(0, 1), new Position(1, 1))));
+        assertEquals(this.mdm.matchBoard(board), matcher.matchBoard(board));
+        board.moveTokensToBottom();
+        assertEquals(this.mdm.matchBoard(board), matcher.matchBoard(board));
+        assertEquals(0, matcher.getHitCount());
+        assertEquals(4, matcher.getMissCount());
+
+        Board other = new MatchThreeBoard(Token.set("AY*"), board.toTokenString());
+        matcher.matchBoard(other);
+        assertEquals(0, matcher.getHitCount());
+    }
+
+    @Test
+    public void evictionTest() throws Exception {
+        CachingMatcher matcher = new CachingMatcher(this.mdm, 1);
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AAY;Y*Y;*AA");
+        matcher.match(board, new Position(0, 0));
+        matcher.match(board, new Position(2, 2));
+        matcher.match(board, new Position(0, 0));
+        assertEquals(0, matcher.getHitCount());
+        matcher.match(board, new Position(0, 0));
+        assertEquals(1, matcher.getHitCount());
+        matcher.clear();
+        matcher.match(board, new Position(0, 0));
+        assertEquals(1, matcher.getHitCount());
+        assertEquals(4, matcher.getMissCount());
+    }
+
+    @Test(expected = MatcherInitializationException.class)
+    public void capacityExceptionTest() throws Exception {
+        new CachingMatcher(this.mdm, 0);
+    }
+}
@@ -0,0 +1,80 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.CompositeMatcher;
+import edu.kit.informatik.matchthree.LineMatcher;
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.MaximumDeltaMatcher;
+import edu.kit.informatik.matchthree.MultiMatcher;
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.RandomStrategy;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class CompositeMatcherTest {
+
+    private static final Matcher HORIZONTAL = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(1, 0))));
+    private static final Matcher VERTICAL = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(0, 1))));
+    private static final Matcher DIAGONAL = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(1, 1),
+            new Delta(1, -1))));
+
+    @Test
+    public void matchAllTest() throws Exception {
+        Matcher composite = new CompositeMatcher(HORIZONTAL, VERTICAL, DIAGONAL, new LineMatcher(3));
+        Matcher multi = new MultiMatcher(new MultiMatcher(HORIZONTAL, VERTICAL),
+                new MultiMatcher(DIAGONAL, new LineMatcher(3)));
+        for (int i = 0; i < 10; i++) {
+            Board board = new MatchThreeBoard(Token.set("AY*"), 8, 7);
+            board.setFillingStrategy(new RandomStrategy());
+            board.fillWithTokens();
+            board.setTokenAt(new Position(i % 8, i % 7), null);
+            Set<Position> positions = new HashSet<>();
+            for (int x = 0; x < 8; x++) {
+                positions.add(new Position(x, i % 7));
+            }
+            assertEquals(multi.matchAll(board, positions), composite.matchAll(board, positions));
+            assertEquals(multi.matchBoard(board), composite.matchBoard(board));
+            assertEquals(multi.match(board, new Position(3, 3)), composite.match(board, new Position(3, 3)));
+        }
+    }
+
+    @Test
+    public void duplicateTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AAA;Y*Y;*Y*");
+        Set<Set<Position>> matches = new CompositeMatcher(HORIZONTAL, HORIZONTAL, new LineMatcher(3))
+                .match(board, new Position(1, 0));
+        Set<Position> expected = new HashSet<>(Arrays.asList(new Position(0, 0), new Position(1, 0),
+                new Position(2, 0)));
+        assertEquals(1, matches.size());
+        assertEquals(expected, matches.iterator().next());
+    }
+
+    @Test(expected = MatcherInitializationException.class)
+    public void constructorExceptionTest1() throws Exception {
+        new CompositeMatcher();
+    }
+
+    @Test(expected = MatcherInitializationException.class)
+    public void constructorExceptionTest2() throws Exception {
+        new CompositeMatcher(HORIZONTAL, null);
+    }
+
+    @Test(expected = BoardDimensionException.class)
+    public void matchExceptionTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AAA;Y*Y;*Y*");
+        new CompositeMatcher(HORIZONTAL, VERTICAL).match(board, new Position(0, 3));
+    }
+}
@@ -0,0 +1,109 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.GameMetrics;
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.MatchThreeGame;
+import edu.kit.informatik.matchthree.MaximumDeltaMatcher;
+import edu.kit.informatik.matchthree.MoveFactoryImplementation;
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.DeterministicStrategy;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+import edu.kit.informatik.matchthree.moves.RotateColumnDownMove;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class GameMetricsTest {
+
+    private GameMetrics metrics;
+
+    private MatchThreeGame game;
+
+    @Before
+    public void setUp() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AB"), "AAA;AAA;AAA");
+        board.setFillingStrategy(new DeterministicStrategy(Token.iterator("AAABAB"),
+                Token.iterator("AAAABA"), Token.iterator("AAABAB")));
+        Matcher matcher = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(0, 1), new Delta(1, 0))));
+        this.metrics = new GameMetrics();
+        this.game = new MatchThreeGame(board, matcher);
+        this.game.setMetrics(this.metrics);
+    }
+
+    @Test
+    public void moveTest() throws Exception {
+        this.game.acceptMove(new MoveFactoryImplementation().flipRight(new Position(0, 0)));
+
+        assertEquals(1, this.metrics.getMoveCount());
+        assertEquals(0, this.metrics.getExceptionCount());
+        assertEquals(2, this.metrics.getCascadeRounds());
+        assertEquals(2, this.metrics.getMaxCascadeDepth());
+        assertEquals(45, this.metrics.getScoreTotal());
+        assertEquals(3, this.metrics.getMatcherCalls());
+        assertTrue(this.metrics.getTokensRemoved() >= 9);
+        assertEquals(this.metrics.getTokensRemoved(), this.metrics.getRefillCount());
+        assertTrue(this.metrics.getApplyLatencyMax() >= this.metrics.getApplyLatencyMean());
+        assertTrue(this.metrics.getApplyLatencyP99() <= this.metrics.getApplyLatencyMax());
+        assertTrue(this.metrics.getMatcherLatencyMax() > 0);
+
+        this.metrics.reset();
+        assertEquals(0, this.metrics.getMoveCount());
+        assertEquals(0, this.metrics.getMatcherCalls());
+        assertEquals(0, this.metrics.getMatcherLatencyP99());
+    }
+
+    @Test
+    public void exceptionTest() throws Exception {
+        try {
+            this.game.acceptMove(new RotateColumnDownMove(3));
+            fail();
+        } catch (BoardDimensionException e) {
+            assertEquals(1, this.metrics.getExceptionCount());
+            assertEquals(0, this.metrics.getMoveCount());
+            assertTrue(this.metrics.getApplyLatencyMax() > 0);
+        }
+    }
+
+    @Test
+    public void refillTest() throws Exception {
+        MatchThreeBoard board = new MatchThreeBoard(Token.set("AB"), "AB;AB;AA");
+        board.setFillingStrategy(new DeterministicStrategy(Token.iterator("AAB"), Token.iterator("A")));
+        board.setLazyFilling(true);
+        MatchThreeGame lazyGame = new MatchThreeGame(board,
+                new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(0, 1), new Delta(1, 0)))));
+        lazyGame.setMetrics(this.metrics);
+        lazyGame.initializeBoardAndStart();
+
+        assertEquals(4, this.metrics.getTokensRemoved());
+        assertEquals(4, this.metrics.getRefillCount());
+        assertEquals("BA;AB;AB", board.toTokenString());
+    }
+
+    @Test
+    public void registerTest() throws Exception {
+        ObjectName name = this.metrics.register("registerTest");
+        try {
+            this.game.acceptMove(new MoveFactoryImplementation().flipRight(new Position(0, 0)));
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "MoveCount"));
+            assertEquals(45L, server.getAttribute(name, "ScoreTotal"));
+        } finally {
+            this.metrics.unregister();
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
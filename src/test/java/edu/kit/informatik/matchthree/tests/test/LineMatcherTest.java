@@ -0,0 +1,84 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.LineMatcher;
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.MaximumDeltaMatcher;
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class LineMatcherTest {
+
+    @Test
+    public void matchTest1() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AAAY;Y*YA;*YA*;AY**");
+        Set<Set<Position>> matches = new LineMatcher(3).match(board, new Position(1, 0));
+        Set<Position> expected = new HashSet<>(Arrays.asList(new Position(0, 0), new Position(1, 0),
+                new Position(2, 0)));
+        assertEquals(Collections.singleton(expected), matches);
+        assertTrue(new LineMatcher(3).match(board, new Position(3, 0)).isEmpty());
+    }
+
+    @Test
+    public void matchTest2() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "Y*A*;AAAY;YA*Y;*AYY");
+        Set<Set<Position>> matches = new LineMatcher(3).match(board, new Position(2, 1));
+        Set<Position> expected = new HashSet<>(Arrays.asList(new Position(0, 1), new Position(1, 1),
+                new Position(2, 1), new Position(1, 2), new Position(1, 3)));
+        assertEquals(Collections.singleton(expected), matches);
+    }
+
+    @Test
+    public void matchTest3() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "A A;A*A;AAY");
+        assertEquals(2, new LineMatcher(2).matchAll(board,
+                new HashSet<>(Arrays.asList(new Position(2, 0), new Position(2, 2)))).iterator().next().size());
+        assertTrue(new LineMatcher(4).match(board, new Position(0, 0)).isEmpty());
+        assertTrue(new LineMatcher(3).match(board, new Position(1, 0)).isEmpty());
+    }
+
+    @Test
+    public void compareTest() throws Exception {
+        Set<Delta> deltas = new HashSet<>(Arrays.asList(new Delta(1, 0), new Delta(0, 1)));
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(deltas);
+        LineMatcher lineMatcher = new LineMatcher(3);
+        for (String tokenString : new String[] {"AAAY;YAY*;*A*Y;Y*YA", "Y*Y*;AAAY;YA*A;*A*Y",
+                "AY*;AY*;AY*", "*AY*;AAAA;YA*Y;*AY*"}) {
+            Board board = new MatchThreeBoard(Token.set("AY*"), tokenString);
+            Set<Position> positions = new HashSet<>();
+            for (int x = 0; x < board.getColumnCount(); x++) {
+                for (int y = 0; y < board.getRowCount(); y++) {
+                    positions.add(new Position(x, y));
+                }
+            }
+            Set<Set<Position>> expected = mdm.matchAll(board, positions);
+            expected.removeIf(match -> match.size() < 3);
+            assertEquals(expected, lineMatcher.matchAll(board, positions));
+        }
+    }
+
+    @Test(expected = MatcherInitializationException.class)
+    public void constructorExceptionTest() throws Exception {
+        new LineMatcher(1);
+    }
+
+    @Test(expected = BoardDimensionException.class)
+    public void matchExceptionTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AY*;AY*;AY*");
+        new LineMatcher(3).match(board, new Position(0, 3));
+    }
+}
@@ -0,0 +1,109 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.MatchIndex;
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.MatchThreeGame;
+import edu.kit.informatik.matchthree.MaximumDeltaMatcher;
+import edu.kit.informatik.matchthree.MoveFactoryImplementation;
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.DeterministicStrategy;
+import edu.kit.informatik.matchthree.framework.MatchQuery;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.RandomStrategy;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class MatchIndexTest {
+
+    private static final MaximumDeltaMatcher MATCHER = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(
+            new Delta(1, 0), new Delta(0, 1))));
+
+    @Test
+    public void mutationTest() throws Exception {
+        Random random = new Random(45);
+        MatchThreeBoard board = new MatchThreeBoard(Token.set("AY*"), 7, 6);
+        board.setFillingStrategy(new RandomStrategy());
+        board.fillWithTokens();
+        MatchIndex index = new MatchIndex(board, MATCHER, 3);
+        MatchQuery query = MatchQuery.all(3);
+        assertEquals(MATCHER.matchBoardCompact(board, query).toSets(), index.getMatches().toSets());
+        for (int step = 0; step < 200; step++) {
+            Position a = new Position(random.nextInt(7), random.nextInt(6));
+            Position b = new Position(random.nextInt(7), random.nextInt(6));
+            switch (random.nextInt(4)) {
+                case 0:
+                    board.swapTokens(a, b);
+                    break;
+                case 1:
+                    board.setTokenAt(a, null);
+                    board.moveTokensToBottom();
+                    break;
+                case 2:
+                    board.removeMatches(index.matchBoardCompact(board, query));
+                    board.moveTokensToBottom();
+                    board.fillWithTokens();
+                    break;
+                default:
+                    board.setTokenAt(a, new Token("AY*".substring(step % 3, step % 3 + 1)));
+                    break;
+            }
+            assertEquals(MATCHER.matchBoardCompact(board, query).toSets(),
+                    index.matchBoardCompact(board, query).toSets());
+            Set<Position> initial = new HashSet<>(Arrays.asList(a, b));
+            assertEquals(MATCHER.matchAllCompact(board, initial, query).toSets(),
+                    index.matchAllCompact(board, initial, query).toSets());
+        }
+        index.detach();
+    }
+
+    @Test
+    public void manyTokensTest() throws Exception {
+        StringBuilder tokens = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            tokens.append((char) (0x100 + i));
+        }
+        char high = (char) (0x100 + 190);
+        char low = (char) 0x100;
+        String row = "" + high + high + high + low;
+        MatchThreeBoard board = new MatchThreeBoard(Token.set(tokens.toString()), row + ";" + row + ";" + low + low
+                + low + high);
+        MatchIndex index = new MatchIndex(board, MATCHER, 3);
+        MatchQuery query = MatchQuery.all(3);
+        assertEquals(MATCHER.matchBoardCompact(board, query).toSets(), index.getMatches().toSets());
+        board.swapTokens(new Position(0, 0), new Position(3, 0));
+        assertEquals(MATCHER.matchBoardCompact(board, query).toSets(), index.matchBoardCompact(board, query).toSets());
+        index.detach();
+    }
+
+    @Test
+    public void gameTest() throws Exception {
+        int[] scores = new int[2];
+        for (int run = 0; run < 2; run++) {
+            MatchThreeBoard board = new MatchThreeBoard(Token.set("A*X0"), "0*0;***;0*0;0*0");
+            DeterministicStrategy strategy = new DeterministicStrategy(Token.iterator("A0A**"),
+                    Token.iterator("AXAXA"), Token.iterator("A**A*"));
+            board.setFillingStrategy(strategy);
+            board.setLazyFilling(run == 1);
+            MatchThreeGame game = new MatchThreeGame(board, run == 0 ? MATCHER : new MatchIndex(board, MATCHER, 3));
+            game.acceptMove(new MoveFactoryImplementation().rotateColumnDown(1));
+            scores[run] = game.getScore();
+        }
+        assertEquals(scores[0], scores[1]);
+    }
+
+    @Test(expected = MatcherInitializationException.class)
+    public void minSizeExceptionTest() throws Exception {
+        new MatchIndex(new MatchThreeBoard(Token.set("AY"), 2, 2), MATCHER, 0);
+    }
+}
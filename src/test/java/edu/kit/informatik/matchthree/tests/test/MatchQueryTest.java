@@ -0,0 +1,97 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.MaximumDeltaMatcher;
+import edu.kit.informatik.matchthree.MultiMatcher;
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.MatchQuery;
+import edu.kit.informatik.matchthree.framework.MatchResult;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class MatchQueryTest {
+
+    private static final MaximumDeltaMatcher MATCHER = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(
+            new Delta(1, 0), new Delta(0, 1))));
+
+    private static final String BOARD = "AAY* ;YAY*A;**YAA;A*AAY";
+
+    @Test
+    public void applyTest() throws Exception {
+        MatchResult result = new MatchResult.Builder(3).addCell(0).endMatch().endMatch()
+                .addCells(new int[] {4, 7, 5}, 3).endMatch().addCells(new int[] {1, 2}, 2).endMatch().build();
+        assertEquals(2, MatchQuery.all(2).apply(result).getMatchCount());
+        assertEquals(1, MatchQuery.all(3).apply(result).getMatchCount());
+        assertEquals(1, MatchQuery.first(2).apply(result).getMatchCount());
+        assertEquals(3, MatchQuery.first(2).apply(result).getMatchSize(0));
+        assertTrue(MatchQuery.any(4).apply(result).isEmpty());
+    }
+
+    @Test
+    public void allTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), BOARD);
+        Set<Position> initial = allPositions(board);
+        for (int minSize = 1; minSize <= 5; minSize++) {
+            MatchQuery query = MatchQuery.all(minSize);
+            MatchResult expected = MATCHER.matchAllCompact(board, initial).withMinSize(minSize);
+            assertEquals(expected.toSets(), MATCHER.matchAllCompact(board, initial, query).toSets());
+            assertEquals(expected.toSets(), MATCHER.matchBoardCompact(board, query).toSets());
+        }
+    }
+
+    @Test
+    public void firstTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), BOARD);
+        Set<Set<Position>> all = MATCHER.matchBoard(board);
+        MatchResult first = MATCHER.matchBoardCompact(board, MatchQuery.first(3));
+        assertEquals(1, first.getMatchCount());
+        assertTrue(first.getMatchSize(0) >= 3);
+        assertTrue(all.containsAll(first.toSets()));
+        MatchResult fromPosition = MATCHER.matchAllCompact(board, allPositions(board), MatchQuery.first(4));
+        assertEquals(1, fromPosition.getMatchCount());
+        assertTrue(all.containsAll(fromPosition.toSets()));
+        assertTrue(MATCHER.matchBoardCompact(board, MatchQuery.first(6)).isEmpty());
+    }
+
+    @Test
+    public void anyTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), BOARD);
+        MatchResult any = MATCHER.matchBoardCompact(board, MatchQuery.any(3));
+        assertEquals(1, any.getMatchCount());
+        assertTrue(any.getMatchSize(0) >= 3);
+        assertFalse(MATCHER.matchAllCompact(board, new HashSet<>(Arrays.asList(new Position(4, 0),
+                new Position(3, 2))), MatchQuery.any(3)).isEmpty());
+        assertTrue(MATCHER.matchAllCompact(board, new HashSet<>(Arrays.asList(new Position(4, 0),
+                new Position(4, 3))), MatchQuery.any(3)).isEmpty());
+        Matcher multi = new MultiMatcher(MATCHER, MATCHER);
+        assertTrue(multi.matchBoardCompact(board, MatchQuery.any(6)).isEmpty());
+        assertFalse(multi.matchBoardCompact(board, MatchQuery.any(5)).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void minSizeExceptionTest() throws Exception {
+        MatchQuery.any(0);
+    }
+
+    private static Set<Position> allPositions(Board board) {
+        Set<Position> positions = new HashSet<>();
+        for (int x = 0; x < board.getColumnCount(); x++) {
+            for (int y = 0; y < board.getRowCount(); y++) {
+                positions.add(new Position(x, y));
+            }
+        }
+        return positions;
+    }
+}
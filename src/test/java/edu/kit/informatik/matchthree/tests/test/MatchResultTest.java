@@ -0,0 +1,88 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.LineMatcher;
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.MaximumDeltaMatcher;
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.MatchResult;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class MatchResultTest {
+
+    private static final MaximumDeltaMatcher MATCHER = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(
+            new Delta(1, 0), new Delta(0, 1))));
+
+    @Test
+    public void builderTest() throws Exception {
+        MatchResult result = new MatchResult.Builder(3).addCell(0).addCell(1).addCell(2).endMatch()
+                .endMatch().addCells(new int[] {4, 7, 9}, 2).endMatch().addCell(8).build();
+        assertEquals(3, result.getMatchCount());
+        assertEquals(5, result.getCellCount());
+        assertEquals(0, result.getMatchSize(1));
+        assertEquals(7, result.getCell(2, 1));
+        assertEquals(4, result.getCell(3));
+        assertEquals(2, result.withMinSize(2).getMatchCount());
+        Set<Set<Position>> expected = new HashSet<>();
+        expected.add(new HashSet<>(Arrays.asList(new Position(0, 0), new Position(1, 0), new Position(2, 0))));
+        expected.add(new HashSet<>());
+        expected.add(new HashSet<>(Arrays.asList(new Position(1, 1), new Position(1, 2))));
+        assertEquals(expected, result.toSets());
+        assertEquals(expected, MatchResult.fromSets(expected, 3).toSets());
+    }
+
+    @Test
+    public void compactTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AAY*;Y A*;YAA*;YYY ");
+        Set<Position> positions = new HashSet<>(Arrays.asList(new Position(0, 0), new Position(1, 1),
+                new Position(3, 3), new Position(0, 3), new Position(3, 0)));
+        assertEquals(MATCHER.matchAll(board, positions), MATCHER.matchAllCompact(board, positions).toSets());
+        assertEquals(MATCHER.matchBoard(board), MATCHER.matchBoardCompact(board).toSets());
+        LineMatcher lineMatcher = new LineMatcher(3);
+        assertEquals(lineMatcher.matchAll(board, positions), lineMatcher.matchAllCompact(board, positions).toSets());
+    }
+
+    @Test
+    public void removeMatchesTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AAY*;Y A*;YAA*;YYY ");
+        board.removeMatches(MATCHER.matchBoardCompact(board).withMinSize(3));
+        assertEquals("AAY ;    ;    ;    ", board.toTokenString());
+        Board view = new MatchThreeBoard(Token.set("AY*"), "AAY*;Y A*;YAA*;YYY ").window(0, 0, 4, 4);
+        view.removeMatches(MATCHER.matchBoardCompact(view).withMinSize(3));
+        assertEquals(board, view);
+    }
+
+    @Test(expected = BoardDimensionException.class)
+    public void removeMatchesExceptionTest1() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AAY;Y A;YAA");
+        board.removeMatches(new MatchResult.Builder(4).addCell(0).endMatch().build());
+    }
+
+    @Test
+    public void removeMatchesExceptionTest2() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AAY;Y A;YAA");
+        try {
+            board.removeMatches(new MatchResult.Builder(3).addCell(0).addCell(9).endMatch().build());
+            fail();
+        } catch (BoardDimensionException e) {
+            assertEquals("AAY;Y A;YAA", board.toTokenString());
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getCellExceptionTest() throws Exception {
+        new MatchResult.Builder(3).addCell(0).endMatch().build().getCell(0, 1);
+    }
+}
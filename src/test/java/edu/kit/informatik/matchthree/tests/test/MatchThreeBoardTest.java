@@ -354,4 +354,163 @@ public class MatchThreeBoardTest {
     public void fillWithTokensExceptionTest1() throws Exception {
         b2.fillWithTokens();
     }
+
+    @Test
+    public void equalsTest1() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("A*Y"), "A*;YA;**");
+        assertEquals(board, new MatchThreeBoard(Token.set("A*Y"), "A*;YA;**"));
+        assertEquals(board.hashCode(), new MatchThreeBoard(Token.set("A*Y"), "A*;YA;**").hashCode());
+        assertEquals(b1, b2);
+        assertEquals(b1.hashCode(), b2.hashCode());
+    }
+
+    @Test
+    public void equalsTest2() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("A*Y"), "A*;YA;**");
+        assertNotEquals(board, new MatchThreeBoard(Token.set("A*Y"), "*A;YA;**"));
+        assertNotEquals(board, new MatchThreeBoard(Token.set("A*Y+"), "A*;YA;**"));
+        assertNotEquals(board, new MatchThreeBoard(Token.set("A*Y"), "A*Y;YA*;**A"));
+        assertNotEquals(board, "A*;YA;**");
+    }
+
+    @Test
+    public void equalsAfterChangeTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("A*Y"), "A*;YA;**");
+        Board other = new MatchThreeBoard(Token.set("A*Y"), "A*;YA;  ");
+        assertNotEquals(board, other);
+        other.setTokenAt(new Position(0, 2), new Token("*"));
+        other.setTokenAt(new Position(1, 2), new Token("*"));
+        assertEquals(board, other);
+        assertEquals(board.hashCode(), other.hashCode());
+        board.swapTokens(new Position(0, 0), new Position(1, 0));
+        assertNotEquals(board, other);
+        assertEquals("*A;YA;**", board.toTokenString());
+    }
+
+    @Test
+    public void toTokenStringCacheTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("A*Y"), "A*;YA;**");
+        assertSame(board.toTokenString(), board.toTokenString());
+        board.setTokenAt(new Position(1, 1), null);
+        assertEquals("A*;Y ;**", board.toTokenString());
+        board.moveTokensToBottom();
+        assertEquals("A ;Y*;**", board.toTokenString());
+    }
+
+    @Test
+    public void toByteArrayTest() throws Exception {
+        MatchThreeBoard board = new MatchThreeBoard(Token.set("A*Y"), "A*;Y ");
+        assertArrayEquals(new byte[] {2, 1, 3, 0}, board.toByteArray());
+        board.toByteArray()[0] = 0;
+        assertEquals(new Token("A"), board.getTokenAt(new Position(0, 0)));
+    }
+
+    @Test
+    public void lazyFillingTest1() throws Exception {
+        MatchThreeBoard eager = new MatchThreeBoard(Token.set("A*Y"), "A  ;*  ;Y Y");
+        MatchThreeBoard lazy = new MatchThreeBoard(Token.set("A*Y"), "A  ;*  ;Y Y");
+        eager.setFillingStrategy(new DeterministicStrategy(Token.iterator("A"),
+                Token.iterator("A*Y"), Token.iterator("Y*A")));
+        lazy.setFillingStrategy(new DeterministicStrategy(Token.iterator("A"),
+                Token.iterator("A*Y"), Token.iterator("Y*A")));
+        lazy.setLazyFilling(true);
+        eager.fillWithTokens();
+        lazy.fillWithTokens();
+
+        assertThat(lazy.getTokenAt(new Position(1, 0)), is(new Token("Y")));
+        assertThat(lazy.getTokenAt(new Position(2, 1)), is(new Token("Y")));
+        assertEquals(eager.toTokenString(), lazy.toTokenString());
+        assertEquals(eager, lazy);
+    }
+
+    @Test
+    public void lazyFillingTest2() throws Exception {
+        MatchThreeBoard lazy = new MatchThreeBoard(Token.set("A*Y"), 2, 3);
+        lazy.setFillingStrategy(new DeterministicStrategy(Token.iterator("AY*A"), Token.iterator("**YA")));
+        lazy.setLazyFilling(true);
+        lazy.fillWithTokens();
+        lazy.setTokenAt(new Position(0, 1), null);
+        assertThat(lazy.getTokenAt(new Position(0, 2)), is(new Token("A")));
+        lazy.fillWithTokens();
+
+        assertEquals("*Y;A*;A*", lazy.toTokenString());
+    }
+
+    @Test
+    public void lazyFillingTest3() throws Exception {
+        MatchThreeBoard lazy = new MatchThreeBoard(Token.set("A*Y"), 2, 3);
+        lazy.setFillingStrategy(new DeterministicStrategy(Token.iterator("AY*A"), Token.iterator("**YA")));
+        lazy.setLazyFilling(true);
+        lazy.fillWithTokens();
+        lazy.removeTokensAt(new HashSet<>(java.util.Collections.singletonList(new Position(1, 2))));
+        lazy.moveTokensToBottom();
+        lazy.fillWithTokens();
+        lazy.setLazyFilling(false);
+
+        assertFalse(lazy.isLazyFilling());
+        assertEquals("*A;YY;A*", lazy.toTokenString());
+    }
+
+    @Test
+    public void versionTest() throws Exception {
+        MatchThreeBoard board = new MatchThreeBoard(Token.set("A*Y"), "A *;Y A;**A");
+        long version = board.getVersion();
+        board.setTokenAt(new Position(0, 0), new Token("A"));
+        assertEquals(version, board.getVersion());
+        board.swapTokens(new Position(0, 0), new Position(0, 1));
+        assertNotEquals(version, board.getVersion());
+        version = board.getVersion();
+        board.setFillingStrategy(new DeterministicStrategy(Token.iterator("A"), Token.iterator("Y*"),
+                Token.iterator("A")));
+        board.setLazyFilling(true);
+        board.fillWithTokens();
+        assertNotEquals(version, board.getVersion());
+        version = board.getVersion();
+        assertEquals("Y**;AYA;**A", board.toTokenString());
+        assertEquals(version, board.getVersion());
+        assertEquals(version, board.readOnlyView().getVersion());
+    }
+
+    @Test
+    public void tryGetTokenTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("A*Y"), "A*Y;Y A;**A");
+        assertThat(board.tryGetToken(new Position(2, 0), new Token("*")), is(new Token("Y")));
+        assertNull(board.tryGetToken(new Position(1, 1), new Token("*")));
+        assertThat(board.tryGetToken(new Position(3, 0), new Token("*")), is(new Token("*")));
+        assertNull(board.tryGetToken(new Position(-1, 0), null));
+    }
+
+    @Test
+    public void trySetTokenTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("A*Y"), "A*Y;Y A;**A");
+        assertEquals(AccessStatus.OK, board.trySetToken(new Position(1, 1), new Token("*")));
+        assertEquals(AccessStatus.OK, board.trySetToken(new Position(0, 0), null));
+        assertEquals(AccessStatus.ILLEGAL_TOKEN, board.trySetToken(new Position(0, 1), new Token("B")));
+        assertEquals(AccessStatus.ILLEGAL_TOKEN, board.trySetToken(new Position(3, 3), new Token("B")));
+        assertEquals(AccessStatus.POSITION_NOT_ON_BOARD, board.trySetToken(new Position(0, 3), new Token("A")));
+        assertEquals(" *Y;Y*A;**A", board.toTokenString());
+        assertEquals(new MatchThreeBoard(Token.set("A*Y"), " *Y;Y*A;**A").hashCode(), board.hashCode());
+    }
+
+    @Test
+    public void manyTokensTest() throws Exception {
+        StringBuilder tokens = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            tokens.append((char) (0x100 + i));
+        }
+        Set<Token> tokenSet = Token.set(tokens.toString());
+        String last = String.valueOf((char) (0x100 + 199));
+        String middle = String.valueOf((char) (0x100 + 150));
+        MatchThreeBoard board = new MatchThreeBoard(tokenSet, 3, 2);
+        board.setTokenAt(new Position(0, 0), new Token(last));
+        board.setTokenAt(new Position(1, 1), new Token(middle));
+
+        assertEquals(new Token(last), board.getTokenAt(new Position(0, 0)));
+        assertEquals(new Token(middle), board.getTokenAt(new Position(1, 1)));
+        assertEquals(last + "  ; " + middle + " ", board.toTokenString());
+        MatchThreeBoard parsed = new MatchThreeBoard(tokenSet, board.toTokenString());
+        assertEquals(parsed, board);
+        assertEquals(parsed.hashCode(), board.hashCode());
+        assertEquals(-56, board.toByteArray()[0]);
+    }
 }
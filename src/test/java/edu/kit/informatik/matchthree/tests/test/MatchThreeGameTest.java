@@ -5,15 +5,26 @@ import edu.kit.informatik.matchthree.framework.Delta;
 import edu.kit.informatik.matchthree.framework.DeterministicStrategy;
 import edu.kit.informatik.matchthree.framework.Position;
 import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.NoFillingStrategyException;
 import edu.kit.informatik.matchthree.framework.interfaces.*;
 import edu.kit.informatik.matchthree.moves.RotateColumnDownMove;
 import org.junit.Test;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * @author David Oberacker
@@ -112,4 +123,221 @@ public class MatchThreeGameTest {
         game.acceptMove(mf.flipRight(new Position(0,0)));
         assertEquals(45, game.getScore());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fusedCascadeTest() throws Exception {
+        String tokens = "A*XY";
+        String start = "AXAY*;*AXY*;XXAYA;Y*AXX;A*YAX";
+        MatchThreeBoard fused = new MatchThreeBoard(Token.set(tokens), start);
+        MatchThreeBoard lazy = new MatchThreeBoard(Token.set(tokens), start);
+        MatchThreeBoard plain = new MatchThreeBoard(Token.set(tokens), start);
+        fused.setFillingStrategy(columnStrategy(tokens, 5));
+        lazy.setFillingStrategy(columnStrategy(tokens, 5));
+        lazy.setLazyFilling(true);
+        plain.setFillingStrategy(columnStrategy(tokens, 5));
+        Board delegate = (Board) Proxy.newProxyInstance(Board.class.getClassLoader(), new Class<?>[] {Board.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(plain, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        Matcher matcher = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(0, 1), new Delta(1, 0))));
+        Game fusedGame = new MatchThreeGame(fused, matcher);
+        Game lazyGame = new MatchThreeGame(lazy, matcher);
+        Game plainGame = new MatchThreeGame(delegate, matcher);
+        fusedGame.initializeBoardAndStart();
+        lazyGame.initializeBoardAndStart();
+        plainGame.initializeBoardAndStart();
+
+        MoveFactory mf = new MoveFactoryImplementation();
+        Random random = new Random(7);
+        for (int i = 0; i < 40; i++) {
+            Move move = i % 2 == 0 ? mf.flipRight(new Position(random.nextInt(4), random.nextInt(5)))
+                    : mf.flipDown(new Position(random.nextInt(5), random.nextInt(4)));
+            fusedGame.acceptMove(move);
+            lazyGame.acceptMove(move);
+            plainGame.acceptMove(move);
+            assertEquals(plainGame.getScore(), fusedGame.getScore());
+            assertEquals(plainGame.getScore(), lazyGame.getScore());
+            assertEquals(plain.toTokenString(), fused.toTokenString());
+            assertEquals(plain.toTokenString(), lazy.toTokenString());
+        }
+        assertTrue(plainGame.getScore() > 0);
+    }
+
+    @Test
+    public void parallelCascadeTest() throws Exception {
+        String tokens = "A*XYBC";
+        int columns = 96;
+        MatchThreeBoard sequential = new MatchThreeBoard(Token.set(tokens), columns, 6);
+        MatchThreeBoard parallel = new MatchThreeBoard(Token.set(tokens), columns, 6);
+        MatchThreeBoard lazy = new MatchThreeBoard(Token.set(tokens), columns, 6);
+        sequential.setFillingStrategy(columnStrategy(tokens, columns));
+        parallel.setFillingStrategy(columnStrategy(tokens, columns));
+        lazy.setFillingStrategy(columnStrategy(tokens, columns));
+        lazy.setLazyFilling(true);
+        Matcher matcher = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(0, 1), new Delta(1, 0))));
+        MatchThreeGame sequentialGame = new MatchThreeGame(sequential, matcher);
+        MatchThreeGame parallelGame = new MatchThreeGame(parallel, matcher);
+        MatchThreeGame lazyGame = new MatchThreeGame(lazy, matcher);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        parallelGame.setCascadePool(pool);
+        lazyGame.setCascadePool(pool);
+        sequentialGame.initializeBoardAndStart();
+        parallelGame.initializeBoardAndStart();
+        lazyGame.initializeBoardAndStart();
+
+        MoveFactory mf = new MoveFactoryImplementation();
+        Random random = new Random(3);
+        for (int i = 0; i < 20; i++) {
+            Move move = mf.flipRight(new Position(random.nextInt(columns - 1), random.nextInt(6)));
+            sequentialGame.acceptMove(move);
+            parallelGame.acceptMove(move);
+            lazyGame.acceptMove(move);
+        }
+        pool.shutdown();
+        assertTrue(sequentialGame.getScore() > 0);
+        assertEquals(sequentialGame.getScore(), parallelGame.getScore());
+        assertEquals(sequentialGame.getScore(), lazyGame.getScore());
+        assertEquals(sequential.toTokenString(), parallel.toTokenString());
+        assertEquals(sequential.toTokenString(), lazy.toTokenString());
+        assertEquals(sequential, parallel);
+        assertEquals(sequential.hashCode(), parallel.hashCode());
+    }
+
+    @Test
+    public void sharedIteratorTest() throws Exception {
+        Iterator<Token> shared = Token.iterator("AB");
+        DeterministicStrategy strategy = new DeterministicStrategy(shared, Token.iterator("AB"));
+        assertTrue(strategy.isColumnIndependent());
+        strategy.setTokenIteratorForColumn(2, shared);
+        assertFalse(strategy.isColumnIndependent());
+        strategy.setTokenIteratorForColumn(0, Token.iterator("AB"));
+        assertTrue(strategy.isColumnIndependent());
+
+        String tokens = "A*XYBC";
+        int columns = 96;
+        MatchThreeBoard sequential = new MatchThreeBoard(Token.set(tokens), columns, 6);
+        MatchThreeBoard parallel = new MatchThreeBoard(Token.set(tokens), columns, 6);
+        sequential.setFillingStrategy(sharedStrategy(tokens, columns));
+        parallel.setFillingStrategy(sharedStrategy(tokens, columns));
+        Matcher matcher = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(0, 1), new Delta(1, 0))));
+        MatchThreeGame sequentialGame = new MatchThreeGame(sequential, matcher);
+        MatchThreeGame parallelGame = new MatchThreeGame(parallel, matcher);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        parallelGame.setCascadePool(pool);
+        sequentialGame.initializeBoardAndStart();
+        parallelGame.initializeBoardAndStart();
+
+        MoveFactory mf = new MoveFactoryImplementation();
+        Random random = new Random(5);
+        for (int i = 0; i < 20; i++) {
+            Move move = mf.flipRight(new Position(random.nextInt(columns - 1), random.nextInt(6)));
+            sequentialGame.acceptMove(move);
+            parallelGame.acceptMove(move);
+        }
+        pool.shutdown();
+        assertEquals(sequentialGame.getScore(), parallelGame.getScore());
+        assertEquals(sequential.toTokenString(), parallel.toTokenString());
+    }
+
+    @Test
+    public void gameListenerTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AB"), "AAA;AAA;AAA");
+        board.setFillingStrategy(new DeterministicStrategy(Token.iterator("AAABAB"),
+                Token.iterator("AAAABA"), Token.iterator("AAABAB")));
+        Matcher matcher = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(0, 1), new Delta(1, 0))));
+        MatchThreeGame game = new MatchThreeGame(board, matcher);
+        List<String> events = new ArrayList<>();
+        int[] scores = new int[1];
+        game.addGameListener(event -> {
+            events.add(event.getType() + " " + event.getChainDepth() + " " + event.getValue());
+            if (event.getType() == GameEvent.Type.SCORE_DELTA) {
+                scores[0] += event.getValue();
+            }
+        });
+
+        game.acceptMove(new MoveFactoryImplementation().flipRight(new Position(0, 0)));
+        assertEquals(45, game.getScore());
+        assertEquals(45, scores[0]);
+        assertEquals("MOVE_ACCEPTED 0 2", events.get(0));
+        assertEquals("MATCH_FOUND 1 9", events.get(1));
+        assertEquals("TOKENS_REMOVED 1 9", events.get(2));
+        assertEquals("GRAVITY_SHIFT 1 0", events.get(3));
+        assertEquals("REFILL 1 9", events.get(4));
+        assertEquals("CASCADE_FINISHED 2 45", events.get(events.size() - 1));
+    }
+
+    @Test
+    public void gravityShiftTest() throws Exception {
+        MatchThreeBoard plain = new MatchThreeBoard(Token.set("AB"), "AB;AB;AA");
+        Board delegate = (Board) Proxy.newProxyInstance(Board.class.getClassLoader(), new Class<?>[] {Board.class},
+                (proxy, method, args) -> {
+                    try {
+                        return method.invoke(plain, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        for (Board board : Arrays.asList(new MatchThreeBoard(Token.set("AB"), "AB;AB;AA"), delegate)) {
+            board.setFillingStrategy(new DeterministicStrategy(Token.iterator("AAB"), Token.iterator("A")));
+            Matcher matcher = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(0, 1),
+                    new Delta(1, 0))));
+            MatchThreeGame game = new MatchThreeGame(board, matcher);
+            List<String> events = new ArrayList<>();
+            game.addGameListener(event -> events.add(event.getType() + " " + event.getChainDepth() + " "
+                    + event.getValue()));
+
+            game.initializeBoardAndStart();
+            assertEquals("BA;AB;AB", board.toTokenString());
+            assertEquals(Arrays.asList("MATCH_FOUND 1 4", "TOKENS_REMOVED 1 4", "GRAVITY_SHIFT 1 2", "REFILL 1 4"),
+                    events.subList(0, 4));
+        }
+    }
+
+    @Test
+    public void failedMoveEventsTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AB"), "ABAA;BABB");
+        Matcher matcher = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(0, 1), new Delta(1, 0))));
+        MatchThreeGame game = new MatchThreeGame(board, matcher);
+        List<GameEvent.Type> events = new ArrayList<>();
+        GameListener listener = event -> events.add(event.getType());
+        game.addGameListener(listener);
+        try {
+            game.acceptMove(new MoveFactoryImplementation().flipRight(new Position(0, 0)));
+            fail();
+        } catch (NoFillingStrategyException e) {
+            game.removeGameListener(listener);
+        }
+        assertTrue(events.isEmpty());
+    }
+
+    private static DeterministicStrategy sharedStrategy(String tokens, int columns) {
+        Random random = new Random(42);
+        StringBuilder sequence = new StringBuilder();
+        for (int j = 0; j < 100000; j++) {
+            sequence.append(tokens.charAt(random.nextInt(tokens.length())));
+        }
+        Iterator<Token> shared = Token.iterator(sequence.toString());
+        DeterministicStrategy strategy = new DeterministicStrategy(shared);
+        for (int i = 1; i < columns; i++) {
+            strategy.setTokenIteratorForColumn(i, shared);
+        }
+        return strategy;
+    }
+
+    private static DeterministicStrategy columnStrategy(String tokens, int columns) {
+        Random random = new Random(42);
+        DeterministicStrategy strategy = new DeterministicStrategy(Token.iterator(tokens));
+        for (int i = 0; i < columns; i++) {
+            StringBuilder column = new StringBuilder();
+            for (int j = 0; j < 1000; j++) {
+                column.append(tokens.charAt(random.nextInt(tokens.length())));
+            }
+            strategy.setTokenIteratorForColumn(i, Token.iterator(column.toString()));
+        }
+        return strategy;
+    }
+}
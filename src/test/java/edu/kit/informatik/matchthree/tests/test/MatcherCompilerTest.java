@@ -0,0 +1,99 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.MatcherCompiler;
+import edu.kit.informatik.matchthree.MaximumDeltaMatcher;
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.MatchQuery;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import edu.kit.informatik.matchthree.framework.interfaces.Matcher;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class MatcherCompilerTest {
+
+    @Test
+    public void compareTest() throws Exception {
+        Random random = new Random(44);
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(1, 0),
+                new Delta(0, 1), new Delta(2, -1), new Delta(0, 7))));
+        Matcher matcher = MatcherCompiler.specialize(mdm, 9, 6);
+        assertFalse(matcher instanceof MaximumDeltaMatcher);
+        for (int run = 0; run < 20; run++) {
+            Board board = randomBoard(random, 9, 6);
+            Set<Position> initial = new HashSet<>();
+            for (int i = 0; i < 10; i++) {
+                initial.add(new Position(random.nextInt(9), random.nextInt(6)));
+            }
+            assertEquals(mdm.matchBoard(board), matcher.matchBoard(board));
+            assertEquals(mdm.matchAll(board, initial), matcher.matchAll(board, initial));
+        }
+        Board other = randomBoard(random, 5, 5);
+        assertEquals(mdm.matchBoard(other), matcher.matchBoard(other));
+    }
+
+    @Test
+    public void queryTest() throws Exception {
+        Random random = new Random(45);
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(1, 0),
+                new Delta(0, 1))));
+        Matcher matcher = MatcherCompiler.specialize(mdm, 7, 5);
+        for (int run = 0; run < 20; run++) {
+            Board board = randomBoard(random, 7, 5);
+            Set<Position> initial = new HashSet<>();
+            for (int i = 0; i < 8; i++) {
+                initial.add(new Position(random.nextInt(7), random.nextInt(5)));
+            }
+            for (MatchQuery query : Arrays.asList(MatchQuery.all(3), MatchQuery.first(3))) {
+                assertEquals(mdm.matchBoardCompact(board, query).toSets(),
+                        matcher.matchBoardCompact(board, query).toSets());
+                assertEquals(mdm.matchAllCompact(board, initial, query).toSets(),
+                        matcher.matchAllCompact(board, initial, query).toSets());
+            }
+            assertEquals(mdm.matchBoardCompact(board, MatchQuery.any(3)).isEmpty(),
+                    matcher.matchBoardCompact(board, MatchQuery.any(3)).isEmpty());
+        }
+    }
+
+    @Test
+    public void cacheTest() throws Exception {
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(1, 1))));
+        Matcher first = MatcherCompiler.specialize(mdm, 4, 4);
+        Matcher second = MatcherCompiler.specialize(new MaximumDeltaMatcher(
+                new HashSet<>(Arrays.asList(new Delta(1, 1)))), 4, 4);
+        Board board = new MatchThreeBoard(Token.set("AY*"), "A*YA;YA*A;*YA*;A*YA");
+        assertEquals(mdm.matchBoard(board), first.matchBoard(board));
+        assertEquals(first.matchBoard(board), second.matchBoard(board));
+    }
+
+    @Test(expected = BoardDimensionException.class)
+    public void matchExceptionTest() throws Exception {
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(1, 0))));
+        Board board = new MatchThreeBoard(Token.set("AY*"), 3, 3);
+        MatcherCompiler.specialize(mdm, 3, 3).match(board, new Position(0, 3));
+    }
+
+    private static Board randomBoard(Random random, int columns, int rows) {
+        String tokens = "AY*";
+        StringBuilder builder = new StringBuilder();
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                builder.append(random.nextInt(10) == 0 ? ' ' : tokens.charAt(random.nextInt(tokens.length())));
+            }
+            builder.append(y + 1 < rows ? ";" : "");
+        }
+        return new MatchThreeBoard(Token.set(tokens), builder.toString());
+    }
+}
@@ -3,6 +3,7 @@ package edu.kit.informatik.matchthree.tests.test;
 import edu.kit.informatik.matchthree.MatchThreeBoard;
 import edu.kit.informatik.matchthree.MaximumDeltaMatcher;
 import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.DeterministicStrategy;
 import edu.kit.informatik.matchthree.framework.Position;
 import edu.kit.informatik.matchthree.framework.Token;
 import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
@@ -10,7 +11,10 @@ import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationE
 import edu.kit.informatik.matchthree.framework.interfaces.Board;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
 
 import static org.junit.Assert.*;
@@ -27,6 +31,25 @@ public class MaximumDeltaMatcherTest {
         MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(deltaSet);
         System.out.println(mdm.match(board, new Position(0,2)));
     }
+    @Test
+    public void lazyMatchTest() throws Exception {
+        MatchThreeBoard board = new MatchThreeBoard(Token.set("AB"), 2, 3);
+        Iterator<Token> first = Token.iterator("AAA");
+        Iterator<Token> second = Token.iterator("BBB");
+        board.setFillingStrategy(new DeterministicStrategy(first, second));
+        board.setLazyFilling(true);
+        board.fillWithTokens();
+        Set<Delta> deltaSet = new HashSet<>();
+        deltaSet.add(new Delta(0, 1));
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(deltaSet);
+
+        Set<Position> match = new HashSet<>(Arrays.asList(new Position(0, 0), new Position(0, 1),
+                new Position(0, 2)));
+        assertEquals(Collections.singleton(match), mdm.matchAll(board, Collections.singleton(new Position(0, 1))));
+        assertFalse(first.hasNext());
+        assertTrue(second.hasNext());
+    }
+
     @Test
     public void match2() throws Exception {
         Board board = new MatchThreeBoard(Token.set("n0"), "n00;000;nn0");
@@ -48,7 +71,27 @@ public class MaximumDeltaMatcherTest {
 
     @Test
     public void matchAll() throws Exception {
+        Set<Delta> deltaSet = new HashSet<>();
+        deltaSet.add(new Delta(1, 0));
+        deltaSet.add(new Delta(0, 1));
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(deltaSet);
+        Board board = new MatchThreeBoard(Token.set("n0"), "n00;0 0;nn0");
+        Set<Set<Position>> expected = new HashSet<>();
+        for (Position position : allPositions(board)) {
+            expected.addAll(mdm.match(board, position));
+        }
+        assertEquals(expected, mdm.matchAll(board, allPositions(board)));
+        assertEquals(5, mdm.matchAll(board, allPositions(board)).size());
+    }
 
+    @Test(expected = BoardDimensionException.class)
+    public void matchAllExceptionTest() throws Exception {
+        Set<Delta> deltaSet = new HashSet<>();
+        deltaSet.add(new Delta(1, 0));
+        Board board = new MatchThreeBoard(Token.set("n0"), "n00;000;nn0");
+        Set<Position> positions = allPositions(board);
+        positions.add(new Position(3, 0));
+        new MaximumDeltaMatcher(deltaSet).matchAll(board, positions);
     }
 
     @Test(expected = MatcherInitializationException.class)
@@ -103,4 +146,91 @@ public class MaximumDeltaMatcherTest {
         MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(deltaSet);
         mdm.match(board, new Position(3,3));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void matchBoardTest1() throws Exception {
+        Set<Delta> deltaSet = new HashSet<>();
+        deltaSet.add(new Delta(1, 0));
+        deltaSet.add(new Delta(0, 1));
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(deltaSet);
+        for (String tokenString : new String[] {"n00;000;nn0", "n0 ;0n0;nn0", "0n0n;n0n0;0n0n", "00;00;00"}) {
+            Board board = new MatchThreeBoard(Token.set("n0"), tokenString);
+            assertEquals(mdm.matchAll(board, allPositions(board)), mdm.matchBoard(board));
+        }
+    }
+
+    @Test
+    public void matchBoardTest2() throws Exception {
+        Set<Delta> deltaSet = new HashSet<>();
+        deltaSet.add(new Delta(1, 1));
+        deltaSet.add(new Delta(-1, 1));
+        deltaSet.add(new Delta(0, 2));
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(deltaSet);
+        Board board = new MatchThreeBoard(Token.set("n0*"), "n0*n;0*0 ;nn0*;*0n0");
+        assertEquals(mdm.matchAll(board, allPositions(board)), mdm.matchBoard(board));
+    }
+
+    @Test
+    public void matchBoardTest3() throws Exception {
+        Set<Delta> deltaSet = new HashSet<>();
+        deltaSet.add(new Delta(1, 0));
+        deltaSet.add(new Delta(0, 1));
+        Board board = new MatchThreeBoard(Token.set("n0"), 200, 200);
+        for (Position position : allPositions(board)) {
+            board.setTokenAt(position, new Token("n"));
+        }
+        Set<Set<Position>> matches = new MaximumDeltaMatcher(deltaSet).matchBoard(board);
+        assertEquals(1, matches.size());
+        assertEquals(40000, matches.iterator().next().size());
+    }
+
+    @Test
+    public void matchWorklistTest() throws Exception {
+        Set<Delta> deltaSet = new HashSet<>();
+        deltaSet.add(new Delta(2, 0));
+        deltaSet.add(new Delta(0, -1));
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(deltaSet);
+        Board board = new MatchThreeBoard(Token.set("n0"), "n0n0n;0n00n;n n0n");
+        Set<Position> expected = new HashSet<>();
+        for (Position position : new Position[] {Position.at(0, 0), Position.at(2, 0), Position.at(4, 0),
+                Position.at(4, 1), Position.at(4, 2), Position.at(2, 2), Position.at(0, 2)}) {
+            expected.add(position);
+        }
+        assertEquals(java.util.Collections.singleton(expected), mdm.match(board, new Position(0, 2)));
+        assertEquals(java.util.Collections.singleton(new HashSet<>()), mdm.match(board, new Position(1, 2)));
+    }
+
+    @Test
+    public void manyDeltasTest() throws Exception {
+        Set<Delta> deltaSet = new HashSet<>();
+        for (int dx = 0; dx <= 6; dx++) {
+            for (int dy = 0; dy <= 6; dy++) {
+                if (dx + dy > 0 && (dx + dy) % 3 == 0) {
+                    deltaSet.add(new Delta(dx, dy));
+                    deltaSet.add(new Delta(-dx, dy));
+                }
+            }
+        }
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(deltaSet);
+        Board board = new MatchThreeBoard(Token.set("n0*"), "n0*n0*n;0*n0*n0;*n0*n0*;n0*n0*n;0*n0*n0;*n0*n0*");
+        Set<Set<Position>> matches = mdm.matchAll(board, allPositions(board));
+        assertEquals(mdm.matchBoard(board), matches);
+        Set<Position> expected = new HashSet<>();
+        for (Position position : allPositions(board)) {
+            if (board.getTokenAt(position).equals(new Token("n"))) {
+                expected.add(position);
+            }
+        }
+        assertTrue(matches.contains(expected));
+    }
+
+    private static Set<Position> allPositions(Board board) {
+        Set<Position> positions = new HashSet<>();
+        for (int x = 0; x < board.getColumnCount(); x++) {
+            for (int y = 0; y < board.getRowCount(); y++) {
+                positions.add(new Position(x, y));
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,117 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.MaximumDeltaMatcher;
+import edu.kit.informatik.matchthree.ParallelMatcher;
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.MatchQuery;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.RandomStrategy;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class ParallelMatcherTest {
+
+    private ForkJoinPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        this.pool = new ForkJoinPool(4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        this.pool.shutdown();
+    }
+
+    @Test
+    public void matchBoardTest1() throws Exception {
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(1, 0),
+                new Delta(0, 1))));
+        Board board = randomBoard("AY", 150, 200);
+        assertEquals(mdm.matchBoard(board), new ParallelMatcher(mdm, this.pool).matchBoard(board));
+    }
+
+    @Test
+    public void matchBoardTest2() throws Exception {
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(1, 3),
+                new Delta(-1, 1), new Delta(0, 17))));
+        Board board = randomBoard("AY*", 130, 150);
+        board.setTokenAt(new Position(3, 140), null);
+        assertEquals(mdm.matchBoard(board), new ParallelMatcher(mdm, this.pool).matchBoard(board));
+    }
+
+    @Test
+    public void matchAllTest() throws Exception {
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(1, 0),
+                new Delta(0, 1), new Delta(1, 1))));
+        Board board = randomBoard("AY*", 200, 100);
+        Set<Position> positions = new HashSet<>();
+        for (int x = 0; x < 200; x += 2) {
+            for (int y = 0; y < 100; y++) {
+                positions.add(new Position(x, y));
+            }
+        }
+        assertEquals(mdm.matchAll(board, positions), new ParallelMatcher(mdm, this.pool).matchAll(board, positions));
+        positions = new HashSet<>(Arrays.asList(new Position(0, 0), new Position(199, 99)));
+        assertEquals(mdm.matchAll(board, positions), new ParallelMatcher(mdm).matchAll(board, positions));
+    }
+
+    @Test
+    public void compactTest() throws Exception {
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(1, 0),
+                new Delta(0, 1))));
+        ParallelMatcher matcher = new ParallelMatcher(mdm, this.pool);
+        Board board = randomBoard("AY*", 200, 100);
+        board.setTokenAt(new Position(5, 5), null);
+        Set<Position> positions = new HashSet<>();
+        for (int x = 0; x < 200; x += 2) {
+            for (int y = 0; y < 100; y++) {
+                positions.add(new Position(x, y));
+            }
+        }
+        assertEquals(mdm.matchBoardCompact(board).toSets(), matcher.matchBoardCompact(board).toSets());
+        assertEquals(mdm.matchAllCompact(board, positions).toSets(),
+                matcher.matchAllCompact(board, positions).toSets());
+        MatchQuery query = MatchQuery.all(3);
+        assertEquals(mdm.matchBoardCompact(board, query).toSets(), matcher.matchBoardCompact(board, query).toSets());
+        assertEquals(mdm.matchAllCompact(board, positions, query).toSets(),
+                matcher.matchAllCompact(board, positions, query).toSets());
+        assertEquals(1, matcher.matchBoardCompact(board, MatchQuery.first(3)).getMatchCount());
+    }
+
+    @Test(expected = BoardDimensionException.class)
+    public void matchAllExceptionTest() throws Exception {
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(1, 0))));
+        Board board = randomBoard("AY", 200, 100);
+        Set<Position> positions = new HashSet<>();
+        for (int x = 0; x < 200; x++) {
+            for (int y = 0; y < 100; y++) {
+                positions.add(new Position(x, y));
+            }
+        }
+        positions.add(new Position(200, 0));
+        new ParallelMatcher(mdm, this.pool).matchAll(board, positions);
+    }
+
+    private static Board randomBoard(String tokens, int columns, int rows) {
+        Board board = new MatchThreeBoard(Token.set(tokens), columns, rows);
+        board.setFillingStrategy(new RandomStrategy());
+        board.fillWithTokens();
+        return board;
+    }
+}
@@ -0,0 +1,91 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.PatternMatcher;
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class PatternMatcherTest {
+
+    @Test
+    public void squareTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AAY;AAA;YAA");
+        PatternMatcher matcher = new PatternMatcher(Collections.singleton(PatternMatcher.SQUARE_SHAPE));
+        Set<Position> expected = new HashSet<>(Arrays.asList(new Position(0, 0), new Position(1, 0),
+                new Position(0, 1), new Position(1, 1), new Position(2, 1), new Position(1, 2), new Position(2, 2)));
+        assertEquals(Collections.singleton(expected), matcher.match(board, new Position(1, 1)));
+        assertTrue(matcher.match(board, new Position(2, 0)).isEmpty());
+    }
+
+    @Test
+    public void rotationsTest() throws Exception {
+        assertEquals(4, PatternMatcher.rotations(PatternMatcher.L_SHAPE).size());
+        assertEquals(1, PatternMatcher.rotations(PatternMatcher.PLUS_SHAPE).size());
+        assertEquals(1, PatternMatcher.rotations(PatternMatcher.SQUARE_SHAPE).size());
+        assertTrue(PatternMatcher.rotations(PatternMatcher.T_SHAPE).contains(PatternMatcher.T_SHAPE));
+    }
+
+    @Test
+    public void shapeTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "*Y**;YYY*;*Y*A;AAAA");
+        Set<Set<Delta>> shapes = new HashSet<>(PatternMatcher.rotations(PatternMatcher.T_SHAPE));
+        shapes.add(PatternMatcher.PLUS_SHAPE);
+        Set<Position> plus = new HashSet<>(Arrays.asList(new Position(1, 0), new Position(0, 1),
+                new Position(1, 1), new Position(2, 1), new Position(1, 2)));
+        assertEquals(Collections.singleton(plus), new PatternMatcher(shapes).match(board, new Position(1, 2)));
+        assertTrue(new PatternMatcher(shapes).match(board, new Position(0, 3)).isEmpty());
+
+        board = new MatchThreeBoard(Token.set("AY*"), "*Y**;YYY*;*Y*A;AAAA;AY*Y");
+        assertTrue(new PatternMatcher(PatternMatcher.rotations(PatternMatcher.L_SHAPE))
+                .match(board, new Position(0, 3)).isEmpty());
+        board.setTokenAt(new Position(3, 1), new Token("A"));
+        Set<Position> corner = new HashSet<>(Arrays.asList(new Position(1, 3), new Position(2, 3),
+                new Position(3, 3), new Position(3, 2), new Position(3, 1)));
+        PatternMatcher matcher = new PatternMatcher(PatternMatcher.rotations(PatternMatcher.L_SHAPE));
+        assertEquals(Collections.singleton(corner),
+                matcher.matchAll(board, new HashSet<>(Arrays.asList(new Position(0, 4), new Position(3, 2)))));
+    }
+
+    @Test
+    public void offsetShapeTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AB"), "AAAA;BBBB");
+        Set<Delta> shape = new HashSet<>(Arrays.asList(new Delta(1, 0), new Delta(2, 0), new Delta(3, 0)));
+        PatternMatcher matcher = new PatternMatcher(Collections.singleton(shape));
+        Set<Position> match = new HashSet<>(Arrays.asList(new Position(0, 0), new Position(1, 0),
+                new Position(2, 0), new Position(3, 0)));
+        assertEquals(Collections.singleton(match), matcher.match(board, new Position(2, 0)));
+        match.remove(new Position(3, 0));
+        assertEquals(Collections.singleton(match), matcher.match(board, new Position(0, 0)));
+    }
+
+    @Test(expected = MatcherInitializationException.class)
+    public void constructorExceptionTest1() throws Exception {
+        new PatternMatcher(Collections.emptySet());
+    }
+
+    @Test(expected = MatcherInitializationException.class)
+    public void constructorExceptionTest2() throws Exception {
+        new PatternMatcher(Collections.singleton(Collections.singleton(new Delta(0, 0))));
+    }
+
+    @Test(expected = BoardDimensionException.class)
+    public void matchExceptionTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "AAY;AAA;YAA");
+        new PatternMatcher(Collections.singleton(PatternMatcher.SQUARE_SHAPE)).match(board, new Position(3, 0));
+    }
+}
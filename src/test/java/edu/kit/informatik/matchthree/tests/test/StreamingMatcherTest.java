@@ -0,0 +1,90 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.MaximumDeltaMatcher;
+import edu.kit.informatik.matchthree.StreamingMatcher;
+import edu.kit.informatik.matchthree.framework.Delta;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.TokenStringParseException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class StreamingMatcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void tokenFileTest() throws Exception {
+        Random random = new Random(46);
+        for (Set<Delta> deltas : Arrays.asList(new HashSet<>(Arrays.asList(new Delta(1, 0))),
+                new HashSet<>(Arrays.asList(new Delta(1, 0), new Delta(0, 1))),
+                new HashSet<>(Arrays.asList(new Delta(1, 1), new Delta(-2, 3), new Delta(0, 2))))) {
+            MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(deltas);
+            for (int run = 0; run < 5; run++) {
+                MatchThreeBoard board = randomBoard(random, 2 + random.nextInt(30), 2 + random.nextInt(200));
+                Path file = this.folder.newFile().toPath();
+                Files.write(file, board.toTokenString().replace(";", ";\n").getBytes(StandardCharsets.US_ASCII));
+                try (Stream<Set<Position>> stream = new StreamingMatcher(mdm).matchTokenFile(file, Token.set("AY*"))) {
+                    assertEquals(nonEmpty(mdm.matchBoard(board)), stream.collect(Collectors.toSet()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void binaryFileTest() throws Exception {
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(0, 1),
+                new Delta(1, 0))));
+        MatchThreeBoard board = randomBoard(new Random(64), 17, 500);
+        Path file = this.folder.newFile().toPath();
+        Files.write(file, board.toByteArray());
+        try (Stream<Set<Position>> stream = new StreamingMatcher(mdm).matchBinaryFile(file, 17)) {
+            assertEquals(nonEmpty(mdm.matchBoard(board)), stream.collect(Collectors.toSet()));
+        }
+    }
+
+    @Test(expected = TokenStringParseException.class)
+    public void invalidTokenTest() throws Exception {
+        MaximumDeltaMatcher mdm = new MaximumDeltaMatcher(new HashSet<>(Arrays.asList(new Delta(0, 1))));
+        Path file = this.folder.newFile().toPath();
+        Files.write(file, "AY;AB".getBytes(StandardCharsets.US_ASCII));
+        try (Stream<Set<Position>> stream = new StreamingMatcher(mdm).matchTokenFile(file, Token.set("AY"))) {
+            stream.count();
+        }
+    }
+
+    private static Set<Set<Position>> nonEmpty(Set<Set<Position>> matches) {
+        matches.remove(new HashSet<Position>());
+        return matches;
+    }
+
+    private static MatchThreeBoard randomBoard(Random random, int columns, int rows) {
+        String tokens = "AY*";
+        StringBuilder builder = new StringBuilder();
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < columns; x++) {
+                builder.append(random.nextInt(10) == 0 ? ' ' : tokens.charAt(random.nextInt(tokens.length())));
+            }
+            builder.append(y + 1 < rows ? ";" : "");
+        }
+        return new MatchThreeBoard(Token.set(tokens), builder.toString());
+    }
+}
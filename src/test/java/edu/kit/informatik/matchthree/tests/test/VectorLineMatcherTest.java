@@ -0,0 +1,77 @@
+package edu.kit.informatik.matchthree.tests.test;
+
+import edu.kit.informatik.matchthree.LineMatcher;
+import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.VectorLineMatcher;
+import edu.kit.informatik.matchthree.framework.Position;
+import edu.kit.informatik.matchthree.framework.Token;
+import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
+import edu.kit.informatik.matchthree.framework.exceptions.MatcherInitializationException;
+import edu.kit.informatik.matchthree.framework.interfaces.Board;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author David Oberacker
+ */
+public class VectorLineMatcherTest {
+
+    @Test
+    public void matchTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), "Y*A*;AAAY;YA*Y;*AYY");
+        Set<Position> expected = new HashSet<>(Arrays.asList(new Position(0, 1), new Position(1, 1),
+                new Position(2, 1), new Position(1, 2), new Position(1, 3)));
+        assertEquals(Collections.singleton(expected), new VectorLineMatcher(3).match(board, new Position(2, 1)));
+        Set<Position> column = new HashSet<>(Arrays.asList(new Position(3, 1), new Position(3, 2),
+                new Position(3, 3)));
+        assertEquals(new HashSet<>(Arrays.asList(expected, column)), new VectorLineMatcher(3).matchBoard(board));
+        assertTrue(new VectorLineMatcher(3).match(board, new Position(3, 0)).isEmpty());
+        assertTrue(new VectorLineMatcher(5).matchBoard(board).isEmpty());
+    }
+
+    @Test
+    public void compareTest() throws Exception {
+        Random random = new Random(41);
+        String tokens = "AB*";
+        for (int run = 0; run < 50; run++) {
+            int columns = 2 + random.nextInt(40);
+            int rows = 2 + random.nextInt(40);
+            StringBuilder builder = new StringBuilder();
+            for (int y = 0; y < rows; y++) {
+                for (int x = 0; x < columns; x++) {
+                    builder.append(random.nextInt(8) == 0 ? ' ' : tokens.charAt(random.nextInt(tokens.length())));
+                }
+                builder.append(y + 1 < rows ? ";" : "");
+            }
+            Board board = new MatchThreeBoard(Token.set(tokens), builder.toString());
+            Set<Position> all = new HashSet<>();
+            for (int y = 0; y < rows; y++) {
+                for (int x = 0; x < columns; x++) {
+                    all.add(new Position(x, y));
+                }
+            }
+            int length = 2 + run % 3;
+            assertEquals(new LineMatcher(length).matchAll(board, all), new VectorLineMatcher(length).matchBoard(board));
+            assertEquals(new LineMatcher(length).matchAll(board, all),
+                    new VectorLineMatcher(length).matchAll(board, all));
+        }
+    }
+
+    @Test(expected = MatcherInitializationException.class)
+    public void constructorExceptionTest() throws Exception {
+        new VectorLineMatcher(1);
+    }
+
+    @Test(expected = BoardDimensionException.class)
+    public void matchExceptionTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("AY*"), 3, 3);
+        new VectorLineMatcher(3).match(board, new Position(3, 0));
+    }
+}
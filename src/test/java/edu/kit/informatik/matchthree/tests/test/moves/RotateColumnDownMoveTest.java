@@ -1,6 +1,7 @@
 package edu.kit.informatik.matchthree.tests.test.moves;
 
 import edu.kit.informatik.matchthree.MatchThreeBoard;
+import edu.kit.informatik.matchthree.framework.AccessStatus;
 import edu.kit.informatik.matchthree.framework.Token;
 import edu.kit.informatik.matchthree.framework.exceptions.BoardDimensionException;
 import edu.kit.informatik.matchthree.framework.interfaces.Board;
@@ -57,4 +58,14 @@ public class RotateColumnDownMoveTest {
         Move coloumn = new RotateColumnDownMove(0);
         coloumn.getAffectedPositions(null);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void tryApplyTest() throws Exception {
+        Board board = new MatchThreeBoard(Token.set("*A+=Y"), "*A+;Y**;+*=");
+        assertEquals(AccessStatus.POSITION_NOT_ON_BOARD, new RotateColumnDownMove(-1).tryApply(board));
+        assertEquals(AccessStatus.POSITION_NOT_ON_BOARD, new RotateColumnDownMove(3).tryApply(board));
+        assertThat(board.toTokenString(), is("*A+;Y**;+*="));
+        assertEquals(AccessStatus.OK, new RotateColumnDownMove(0).tryApply(board));
+        assertThat(board.toTokenString(), is("+A+;***;Y*="));
+    }
+}